@@ -0,0 +1,27 @@
+package com.qa.contactbookapi.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.qa.contactbookapi.books.ContactBook;
+
+// Binds the default book to each benchmark thread, as the requests to /contact do, for the benchmarks calling the services
+// directly: they take it as a parameter.
+
+@State(Scope.Thread)
+public class BenchmarkBook {
+
+	@Setup(Level.Trial)
+	public void bind() {
+		ContactBook.bind(ContactBook.DEFAULT);
+	}
+
+	@TearDown(Level.Trial)
+	public void unbind() {
+		ContactBook.bind(null);
+	}
+
+}
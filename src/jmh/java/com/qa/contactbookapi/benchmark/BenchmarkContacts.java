@@ -0,0 +1,104 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.qa.contactbookapi.ContactAppApplication;
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.service.ContactBatchService;
+
+// Shared set-up of the benchmarks: the application context on the embedded H2 dev profile, and generated contacts.
+
+final class BenchmarkContacts {
+
+	private static final int POPULATE_BATCH_SIZE = 10000;
+
+	private BenchmarkContacts() {
+	}
+
+    /**
+     * Start the application without a web server, on the dev profile, against its own in-memory H2 database
+     * @param	databaseName	The name (string) of the in-memory database, unique per benchmark state
+     * @return				The running application context
+     */
+	static ConfigurableApplicationContext startApplication(String databaseName) {
+		return startApplication(WebApplicationType.NONE, databaseName);
+	}
+
+    /**
+     * Start the application on the dev profile, against its own in-memory H2 database
+     * SQL and binder logging are switched off, so that they are not part of what is measured.
+     * Springfox is off, so the actuator shares the port of the application rather than taking the fixed port of the dev profile.
+     * @param	webApplicationType	Whether to start a web server (SERVLET) or not (NONE)
+     * @param	databaseName		The name (string) of the in-memory database, unique per benchmark state
+     * @param	properties			Further properties, as "--name=value" arguments, replacing the defaults above of the same name
+     * @return						The running application context
+     */
+	static ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType, String databaseName, String... properties) {
+		SpringApplication application = new SpringApplication(ContactAppApplication.class);
+		application.setWebApplicationType(webApplicationType);
+		
+		List<String> args = new ArrayList<>();
+		for (String defaultArg : List.of(
+				"--spring.profiles.active=dev",
+				"--spring.datasource.url=jdbc:h2:mem:" + databaseName,
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+				"--springfox.documentation.enabled=false",
+				"--management.server.port=")) {
+			// Repeated arguments would be joined into a list rather than overridden.
+			String name = defaultArg.substring(0, defaultArg.indexOf('=') + 1);
+			if (List.of(properties).stream().noneMatch(property -> property.startsWith(name))) {
+				args.add(defaultArg);
+			}
+		}
+		args.addAll(List.of(properties));
+		return application.run(args.toArray(new String[0]));
+	}
+
+    /**
+     * Generate the given number of contacts of the default book through the batch path, on top of the three contacts seeded by the dev profile,
+     * in batches of at most the default max-contacts of a batch
+     * @param	context		The running application context
+     * @param	count		The number (int) of contacts to generate
+     */
+	static void populate(ConfigurableApplicationContext context, int count) {
+		String previous = ContactBook.bind(ContactBook.DEFAULT);
+		try {
+			ContactBatchService contactBatchService = context.getBean(ContactBatchService.class);
+			for (int first = 0; first < count; first += POPULATE_BATCH_SIZE) {
+				contactBatchService.generateAll(contacts(first, Math.min(POPULATE_BATCH_SIZE, count - first)).iterator());
+			}
+		} finally {
+			ContactBook.bind(previous);
+		}
+	}
+
+    /**
+     * Build valid contacts with unique names
+     * @param	first	The number (int) of the first contact, which makes its names unique
+     * @param	count	The number (int) of contacts to build
+     * @return			The contacts, without IDs
+     */
+	static List<Contact> contacts(int first, int count) {
+		List<Contact> contacts = new ArrayList<>(count);
+		for (int i = first; i < first + count; i++) {
+			contacts.add(contact(i));
+		}
+		return contacts;
+	}
+
+	static Contact contact(int number) {
+		return new Contact("First" + number, "Last" + number, String.format("07%09d", number),
+				"contact" + number + "@mymail.com", LocalDate.of(1950, 1, 1).plusDays(number % 20000));
+	}
+
+}
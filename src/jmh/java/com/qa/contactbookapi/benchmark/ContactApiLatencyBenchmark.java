@@ -0,0 +1,95 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// End-to-end latency distribution (p50 to p99.99 in the JSON results) of the contact API over HTTP, in the default (sync)
+// mode and in the async execution mode, with a deliberately small Tomcat pool so that it saturates under the client load.
+// The client concurrency is the number of JMH threads: run with e.g. '-t 16', '-t 64' and '-t 256' to plot concurrency against p99.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class ContactApiLatencyBenchmark {
+
+	private static final int TABLE_SIZE = 10000;
+
+	@Param({ "sync", "async" })
+	private String mode;
+
+	@Param({ "16" })
+	private int tomcatThreads;
+
+	private ConfigurableApplicationContext context;
+
+	private HttpClient client;
+
+	private String baseUrl;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkContacts.startApplication(WebApplicationType.SERVLET, "latencyBenchmarkDB",
+				"--server.port=0",
+				"--server.tomcat.threads.max=" + tomcatThreads,
+				"--server.tomcat.accept-count=1000",
+				"--contactbook.async.enabled=" + mode.equals("async"),
+				// The cache would turn most look-ups into memory reads, hiding the JDBC waits this benchmark is about.
+				"--contactbook.cache.maximum-size=0");
+		BenchmarkContacts.populate(context, TABLE_SIZE);
+		
+		baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/contact";
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public int fetchContactById() throws IOException, InterruptedException {
+		return get(baseUrl + "/" + ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 4));
+	}
+
+	@Benchmark
+	public int fetchContactsPage() throws IOException, InterruptedException {
+		return get(baseUrl + "?limit=100");
+	}
+
+	private int get(String url) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Accept", "application/json").GET().build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200 && response.statusCode() != 503) {
+			throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + url);
+		}
+		return response.statusCode();
+	}
+
+}
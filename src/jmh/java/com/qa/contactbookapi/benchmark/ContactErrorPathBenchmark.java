@@ -0,0 +1,63 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.qa.contactbookapi.exceptions.InvalidContactException;
+
+// Benchmarks of the not-found path of a contact look-up, as taken by every existence probe: throwing the exception from the
+// depth of the request handling stack (about 130 frames under Tomcat, Spring MVC and the transactional proxies) and catching
+// it at the top, as the exception handlers do, with a stack trace filled in (as a plain EntityNotFoundException) and without.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactErrorPathBenchmark {
+
+	@Param({ "16", "128" })
+	private int stackDepth;
+
+	@Benchmark
+	public String notFoundWithStackTrace() {
+		try {
+			return throwAt(stackDepth, true);
+		} catch (RuntimeException e) {
+			return e.getMessage();
+		}
+	}
+
+	@Benchmark
+	public String notFoundStackless() {
+		try {
+			return throwAt(stackDepth, false);
+		} catch (RuntimeException e) {
+			return e.getMessage();
+		}
+	}
+
+	private static String throwAt(int depth, boolean stackTrace) {
+		if (depth > 0) {
+			return throwAt(depth - 1, stackTrace);
+		}
+		long id = ThreadLocalRandom.current().nextLong(1000000);
+		String message = "Cannot find contact with ID " + id + " , as it does not exist.";
+		throw stackTrace ? new EntityNotFoundException(message) : new InvalidContactException(message);
+	}
+
+}
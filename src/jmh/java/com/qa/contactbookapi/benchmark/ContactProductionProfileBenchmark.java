@@ -0,0 +1,127 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.service.ContactBatchService;
+import com.qa.contactbookapi.service.ContactService;
+
+// Load test of the production pool, driver and Hibernate settings against the defaults: the same mixed read, update and
+// bulk insert workload, from more client threads than pooled connections, with and without the production profile.
+// A setting only goes into the production profile once this shows its gain against MySQL, on a host with several cores.
+//
+// By default, it runs against an in-memory H2 database in MySQL mode, where the driver settings have no effect: only the
+// pool and Hibernate settings are compared. To compare all of them, point it at a scratch MySQL schema, which is cleaned
+// on every start (dev profile), e.g.:
+//   mvn -Pbenchmark verify -Djmh.args="ContactProductionProfileBenchmark -jvmArgsAppend
+//       -Dcontactbook.benchmark.url=jdbc:mysql://localhost:3306/contactbench -Dcontactbook.benchmark.username=... -Dcontactbook.benchmark.password=..."
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ContactProductionProfileBenchmark {
+
+	private static final int TABLE_SIZE = 10000;
+
+	private static final int BATCH_SIZE = 100;
+
+	// The contacts seeded by the dev profile take IDs 1 to 3, so generated contact n takes ID n + 4.
+	private static final int FIRST_GENERATED_ID = 4;
+
+	@Param({ "defaults", "production" })
+	private String settings;
+
+	private ConfigurableApplicationContext context;
+
+	private ContactService contactService;
+
+	private ContactBatchService contactBatchService;
+
+	private final AtomicInteger nextContact = new AtomicInteger(TABLE_SIZE);
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		List<String> properties = new ArrayList<>(List.of(
+				// Look-ups must reach the database for the pool to matter.
+				"--contactbook.cache.maximum-size=0",
+				"--contactbook.books.max-contacts=" + Integer.MAX_VALUE));
+		if (settings.equals("production")) {
+			// Only the datasource itself is taken from outside the production profile.
+			properties.add("--spring.profiles.include=production");
+		}
+
+		String mysqlUrl = System.getProperty("contactbook.benchmark.url");
+		if (mysqlUrl == null) {
+			properties.addAll(List.of(
+					"--spring.datasource.url=jdbc:h2:mem:productionBenchmarkDB-" + settings + ";MODE=MySQL",
+					"--spring.datasource.username=sa",
+					"--spring.datasource.password=",
+					"--spring.datasource.driver-class-name=org.h2.Driver",
+					"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+		} else {
+			properties.addAll(List.of(
+					"--spring.datasource.url=" + mysqlUrl,
+					"--spring.datasource.username=" + System.getProperty("contactbook.benchmark.username", "root"),
+					"--spring.datasource.password=" + System.getProperty("contactbook.benchmark.password", ""),
+					"--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+					"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQL8Dialect"));
+		}
+
+		context = BenchmarkContacts.startApplication(WebApplicationType.NONE, "productionBenchmarkDB", properties.toArray(new String[0]));
+		BenchmarkContacts.populate(context, TABLE_SIZE);
+		contactService = context.getBean(ContactService.class);
+		contactBatchService = context.getBean(ContactBatchService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public Contact fetchById(BenchmarkBook book) {
+		return contactService.fetchById(ThreadLocalRandom.current().nextLong(FIRST_GENERATED_ID, FIRST_GENERATED_ID + TABLE_SIZE));
+	}
+
+	// Rewrites a contact with its own fields, so that the table stays the same whatever the number of invocations.
+	@Benchmark
+	public Contact editById(BenchmarkBook book) {
+		int number = ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+		return contactService.editById(FIRST_GENERATED_ID + number, BenchmarkContacts.contact(number));
+	}
+
+	// Each invocation inserts BATCH_SIZE new contacts in one chunk, through the JDBC batch path. Bulk writes come a few at a time.
+	@Benchmark
+	@Threads(4)
+	public ContactBatchResult generateBatch(BenchmarkBook book) {
+		int first = nextContact.getAndAdd(BATCH_SIZE);
+		return contactBatchService.generateAll(BenchmarkContacts.contacts(first, BATCH_SIZE).iterator());
+	}
+
+}
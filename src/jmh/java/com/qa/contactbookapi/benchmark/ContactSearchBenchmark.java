@@ -0,0 +1,110 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.search.ContactSearchIndex;
+
+// Benchmarks of the in-memory name search, at several index sizes. Names are built from a few random syllables, which makes
+// the dictionary denser than real names are, so that prefixes and typos reach many tokens. No application context is needed.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContactSearchBenchmark {
+
+	private static final String[] SYLLABLES = { "ka", "te", "ri", "cha", "mor", "lan", "be", "ck", "son", "el", "an", "dra",
+			"vi", "to", "ma", "ry", "jo", "han", "ne", "li", "sa", "ber", "go", "ldi", "ne", "wa", "rd", "os", "ti", "nu" };
+
+	private static final int QUERIES = 1024;
+
+	@Param({ "100000", "1000000", "3000000" })
+	private int indexSize;
+
+	private ContactSearchIndex contactSearchIndex;
+
+	private String[] prefixQueries;
+
+	private String[] fullNameQueries;
+
+	private String[] typoQueries;
+
+	@Setup(Level.Trial)
+	public void buildIndex() {
+		Random random = new Random(42);
+		contactSearchIndex = new ContactSearchIndex();
+
+		prefixQueries = new String[QUERIES];
+		fullNameQueries = new String[QUERIES];
+		typoQueries = new String[QUERIES];
+
+		for (int i = 0; i < indexSize; i++) {
+			String firstName = name(random);
+			String lastName = name(random);
+			contactSearchIndex.put(new Contact((long) i + 1, firstName, lastName, "07777777777", "contact" + i + "@mymail.com",
+					LocalDate.of(1990, 1, 1)));
+
+			if (i < QUERIES) {
+				prefixQueries[i] = lastName.substring(0, Math.min(3, lastName.length()));
+				fullNameQueries[i] = firstName + " " + lastName;
+				typoQueries[i] = swapLetters(lastName);
+			}
+		}
+	}
+
+	@Benchmark
+	public List<ContactSearchHit> searchPrefix() {
+		return contactSearchIndex.search(ContactBook.DEFAULT, prefixQueries[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+	}
+
+	@Benchmark
+	public List<ContactSearchHit> searchFullName() {
+		return contactSearchIndex.search(ContactBook.DEFAULT, fullNameQueries[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+	}
+
+	@Benchmark
+	public List<ContactSearchHit> searchWithTypo() {
+		return contactSearchIndex.search(ContactBook.DEFAULT, typoQueries[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+	}
+
+	private static String name(Random random) {
+		StringBuilder name = new StringBuilder();
+		int syllables = 2 + random.nextInt(3);
+		for (int i = 0; i < syllables; i++) {
+			name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+		return name.toString();
+	}
+
+	private static String swapLetters(String name) {
+		char[] letters = name.toCharArray();
+		char letter = letters[2];
+		letters[2] = letters[3];
+		letters[3] = letter;
+		return new String(letters);
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Benchmarks of Contact JSON serialization and deserialization, with an object mapper configured as Spring Boot configures it.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactSerializationBenchmark {
+
+	private ObjectWriter contactWriter;
+
+	private ObjectReader contactReader;
+
+	private ObjectWriter contactsWriter;
+
+	private ObjectReader contactsReader;
+
+	private Contact contact;
+
+	private List<Contact> contacts;
+
+	private byte[] contactJson;
+
+	private byte[] contactsJson;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		contactWriter = objectMapper.writerFor(Contact.class);
+		contactReader = objectMapper.readerFor(Contact.class);
+		contactsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Contact.class));
+		contactsReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Contact.class));
+
+		contact = BenchmarkContacts.contact(1);
+		contact.setId(1L);
+		contacts = BenchmarkContacts.contacts(0, 100);
+		for (int i = 0; i < contacts.size(); i++) {
+			contacts.get(i).setId(i + 1L);
+		}
+		contactJson = contactWriter.writeValueAsBytes(contact);
+		contactsJson = contactsWriter.writeValueAsBytes(contacts);
+	}
+
+	@Benchmark
+	public byte[] serializeContact() throws JsonProcessingException {
+		return contactWriter.writeValueAsBytes(contact);
+	}
+
+	@Benchmark
+	public Contact deserializeContact() throws Exception {
+		return contactReader.readValue(contactJson);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public byte[] serializeHundredContacts() throws JsonProcessingException {
+		return contactsWriter.writeValueAsBytes(contacts);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<Contact> deserializeHundredContacts() throws Exception {
+		return contactsReader.readValue(contactsJson);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.service.ContactService;
+
+// Benchmarks of the ContactService hot paths against the embedded H2 dev profile, at several table sizes.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactServiceBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	private int tableSize;
+
+	private ConfigurableApplicationContext context;
+
+	private ContactService contactService;
+
+	private int nextContact;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkContacts.startApplication("serviceBenchmarkDB" + tableSize);
+		BenchmarkContacts.populate(context, tableSize);
+		contactService = context.getBean(ContactService.class);
+		nextContact = tableSize;
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	// Each invocation inserts a new contact, so the table grows by the number of invocations over the trial.
+	@Benchmark
+	public Contact generate(BenchmarkBook book) {
+		return contactService.generate(BenchmarkContacts.contact(nextContact++));
+	}
+
+	@Benchmark
+	public Contact fetchById(BenchmarkBook book) {
+		// IDs 1 to 3 are the contacts seeded by the dev profile.
+		return contactService.fetchById(ThreadLocalRandom.current().nextLong(1, tableSize + 4));
+	}
+
+	@Benchmark
+	public Contact fetchByLastNameAndFirstName(BenchmarkBook book) {
+		int number = ThreadLocalRandom.current().nextInt(tableSize);
+		return contactService.fetchByLastNameAndFirstName("Last" + number, "First" + number);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<Contact> fetchAll(BenchmarkBook book) {
+		return contactService.fetchAll();
+	}
+
+	@Benchmark
+	public Slice<Contact> fetchPage(BenchmarkBook book) {
+		return contactService.fetchPage(ThreadLocalRandom.current().nextLong(tableSize), 100);
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.qa.contactbookapi.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Benchmarks of a page of 100 contacts on the wire, as JSON and as Smile, each as is and gzipped (as the server compresses
+// responses): the CPU time is measured by the benchmarks, and the bytes on the wire of each are logged once, at setup (JMH
+// sums auxiliary counters over the iterations, so they could not report a size as such).
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactWireFormatBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContactWireFormatBenchmark.class);
+
+	private ObjectWriter jsonWriter;
+
+	private ObjectReader jsonReader;
+
+	private ObjectWriter smileWriter;
+
+	private ObjectReader smileReader;
+
+	private List<Contact> contacts;
+
+	private byte[] contactsJson;
+
+	private byte[] contactsSmile;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+		ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+		JavaType contactsType = jsonMapper.getTypeFactory().constructCollectionType(List.class, Contact.class);
+		jsonWriter = jsonMapper.writerFor(contactsType);
+		jsonReader = jsonMapper.readerFor(contactsType);
+		smileWriter = smileMapper.writerFor(contactsType);
+		smileReader = smileMapper.readerFor(contactsType);
+
+		contacts = BenchmarkContacts.contacts(0, 100);
+		for (int i = 0; i < contacts.size(); i++) {
+			contacts.get(i).setId(i + 1L);
+		}
+		contactsJson = jsonWriter.writeValueAsBytes(contacts);
+		contactsSmile = smileWriter.writeValueAsBytes(contacts);
+
+		LOGGER.info("Bytes on the wire for 100 contacts: JSON {}, JSON gzipped {}, Smile {}, Smile gzipped {}", contactsJson.length,
+				gzip(contactsJson).length, contactsSmile.length, gzip(contactsSmile).length);
+	}
+
+	@Benchmark
+	public byte[] serializeJson() throws IOException {
+		return jsonWriter.writeValueAsBytes(contacts);
+	}
+
+	@Benchmark
+	public byte[] serializeJsonGzipped() throws IOException {
+		return gzip(jsonWriter.writeValueAsBytes(contacts));
+	}
+
+	@Benchmark
+	public byte[] serializeSmile() throws IOException {
+		return smileWriter.writeValueAsBytes(contacts);
+	}
+
+	@Benchmark
+	public byte[] serializeSmileGzipped() throws IOException {
+		return gzip(smileWriter.writeValueAsBytes(contacts));
+	}
+
+	@Benchmark
+	public List<Contact> deserializeJson() throws IOException {
+		return jsonReader.readValue(contactsJson);
+	}
+
+	@Benchmark
+	public List<Contact> deserializeSmile() throws IOException {
+		return smileReader.readValue(contactsSmile);
+	}
+
+	// At the default level, as Tomcat compresses.
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+		try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+			gzipStream.write(bytes);
+		}
+		return compressed.toByteArray();
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.qa.contactbookapi.books;
+
+import java.util.regex.Pattern;
+
+// The contact book (tenant) a request works on, bound to the thread handling it. Requests to /books/{book}/contact work on
+// that book, and requests to /contact on the default one, so that single-book clients are unchanged.
+// Every query and write of a contact is scoped to the current book; work handed over to another thread carries it along.
+// There is no implicit book: code running on a thread to which no book is bound fails, rather than working on the default one.
+
+public final class ContactBook {
+
+	public static final String DEFAULT = "default";
+
+	private static final Pattern NAME_PATTERN = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private ContactBook() {
+	}
+
+    /**
+     * Get the book bound to the current thread
+     * @return	The name (string) of the book of the request being handled
+     * @throws	IllegalStateException
+     * If no book were bound to the current thread, it would throw this exception.
+     */
+	public static String current() {
+		String book = CURRENT.get();
+		if (book == null) {
+			throw new IllegalStateException("No contact book is bound to thread " + Thread.currentThread().getName() + ".");
+		}
+		return book;
+	}
+
+    /**
+     * Bind a book to the current thread, e.g. when a request is handed over to another thread
+     * @param	book	The name (string) of the book to work on from now on, or null to unbind it
+     * @return			The book previously bound to the current thread (or null), to be restored afterwards
+     */
+	public static String bind(String book) {
+		String previous = CURRENT.get();
+		if (book == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(book);
+		}
+		return previous;
+	}
+
+    /**
+     * Wrap a task so that it runs on the book of the current thread, whichever thread runs it
+     * @param	task	The task to run
+     * @return			The wrapped task
+     */
+	public static Runnable carry(Runnable task) {
+		String book = CURRENT.get();
+		return () -> {
+			String previous = bind(book);
+			try {
+				task.run();
+			} finally {
+				bind(previous);
+			}
+		};
+	}
+
+    /**
+     * Check a book name: 1 to 64 lower case letters, digits or hyphens, starting with a letter or a digit
+     * @param	book	The name (string) to check
+     * @return			True if the name is valid
+     */
+	public static boolean isValid(String book) {
+		return book != null && NAME_PATTERN.matcher(book).matches();
+	}
+
+    /**
+     * Get the path of the contacts of the current book, to build the URLs returned to clients
+     * @return	"/contact" for the default book, "/books/{book}/contact" for the others
+     */
+	public static String basePath() {
+		String book = current();
+		return DEFAULT.equals(book) ? "/contact" : "/books/" + book + "/contact";
+	}
+
+}
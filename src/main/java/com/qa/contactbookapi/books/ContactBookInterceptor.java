@@ -0,0 +1,81 @@
+package com.qa.contactbookapi.books;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.RateLimitedException;
+import com.qa.contactbookapi.ratelimit.RateLimiter;
+
+// Binds the book named by the route ({book} in /books/{book}/contact, or the default book) to the thread handling the
+// request, once the book has been checked against its rate limit: each book has its own token bucket, so that a busy book
+// is slowed down without slowing down the others. The buckets of books left idle are forgotten.
+
+public class ContactBookInterceptor implements AsyncHandlerInterceptor {
+
+	public static final String BOOK_VARIABLE = "book";
+
+	private final double permitsPerSecond;
+
+	private final int burst;
+
+	private final Cache<String, RateLimiter> rateLimiters;
+
+    /**
+     * @param	permitsPerSecond	The rate (double) of requests allowed per book and per second, or 0 for no limit
+     * @param	burst				The number of requests (int) a book may make at once
+     * @param	idleTimeout			The time after which the bucket of an idle book is forgotten (full again)
+     */
+	public ContactBookInterceptor(double permitsPerSecond, int burst, Duration idleTimeout) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.rateLimiters = Caffeine.newBuilder().expireAfterAccess(idleTimeout).build();
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String book = variables == null ? null : variables.get(BOOK_VARIABLE);
+		if (book == null) {
+			book = ContactBook.DEFAULT;
+		} else if (!ContactBook.isValid(book)) {
+			throw new InvalidRequestParameterException("Book " + book + " is invalid, as it must be 1 to 64 lower case letters, digits or hyphens.");
+		}
+
+		// The dispatch completing an async request is not a new request.
+		if (permitsPerSecond > 0 && request.getDispatcherType() == DispatcherType.REQUEST) {
+			Duration wait = rateLimiters.get(book, key -> new RateLimiter(permitsPerSecond, burst)).tryAcquire();
+			if (!wait.isZero()) {
+				long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+				throw new RateLimitedException("Book " + book + " has made too many requests; please retry in " + retryAfterSeconds + " second(s).",
+						retryAfterSeconds);
+			}
+		}
+
+		ContactBook.bind(book);
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		ContactBook.bind(null);
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		ContactBook.bind(null);
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.qa.contactbookapi.books;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.qa.contactbookapi.data.repository.ContactBookRepository;
+import com.qa.contactbookapi.exceptions.BookQuotaExceededException;
+
+// Quota of contacts of each book, so that a single tenant cannot fill the shared tables. It is counted in the database, so
+// that concurrent writes and every instance share it, through reservations committed on their own, before the transaction
+// of the write they count: the row of a book is locked for the reservation only, and writes to a book do not take turns
+// on it. A write which rolls back gives its reservation back, and removals are given back once committed; a crash in
+// between leaves a book counting more contacts than it holds, never fewer.
+
+@Component
+public class ContactBookQuota {
+
+	private final ContactBookRepository contactBookRepository;
+
+	private final long maxContacts;
+
+	@Autowired
+	public ContactBookQuota(ContactBookRepository contactBookRepository, @Value("${contactbook.books.max-contacts:100000}") long maxContacts) {
+		this.contactBookRepository = contactBookRepository;
+		this.maxContacts = maxContacts;
+	}
+
+    /**
+     * Count a new contact against the quota of a book, before the transaction creating it
+     * @param	book	The book (string) of the contact
+     * @throws	BookQuotaExceededException
+     * If the book were full, it would throw this exception.
+     */
+	public void reserve(String book) {
+		if (!contactBookRepository.reserve(book, 1, maxContacts)) {
+			throw new BookQuotaExceededException(fullMessage(book));
+		}
+	}
+
+    /**
+     * Count as many new contacts against the quota of a book as it has room for, before the transaction creating them
+     * @param	book	The book (string) of the contacts
+     * @param	count	The number of new contacts (int)
+     * @return			The number of new contacts (int) counted, the first ones of which may be created
+     */
+	public int reserveUpTo(String book, int count) {
+		return count == 0 ? 0 : contactBookRepository.reserveUpTo(book, count, maxContacts);
+	}
+
+    /**
+     * Take contacts off the quota of a book, once their removal has committed, or their creation has rolled back
+     * @param	book	The book (string) of the contacts
+     * @param	count	The number of contacts (int) removed, or reserved but not created
+     */
+	public void release(String book, int count) {
+		if (count > 0) {
+			contactBookRepository.release(book, count);
+		}
+	}
+
+    /**
+     * Count the contacts of a book, as counted against its quota
+     * @param	book	The book (string) of the contacts
+     * @return			The number of contacts (long)
+     */
+	public long count(String book) {
+		return contactBookRepository.count(book);
+	}
+
+    /**
+     * Describe why a contact cannot be added to a full book
+     * @param	book	The book (string) of the contact
+     * @return			The message (string)
+     */
+	public String fullMessage(String book) {
+		return "Book " + book + " is full, as it holds at most " + maxContacts + " contacts.";
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.qa.contactbookapi.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Bounded read-through cache of contacts, keyed by ID, with a secondary (book, last name, first name) -> ID index.
+// Name entries are checked against the contact they point to when read, so only IDs ever need to be invalidated.
+// IDs are unique across books, but a contact is only handed out to a look-up in its own book.
+
+@Component
+public class ContactCache {
+
+	private final Cache<Long, Contact> contactsById;
+	
+	private final Cache<String, Long> idsByName;
+	
+	// Incremented by every invalidation, so that a value loaded before it is never left in the cache after it.
+	private final AtomicLong invalidations = new AtomicLong();
+
+	@Autowired
+	public ContactCache(@Value("${contactbook.cache.maximum-size:10000}") long maximumSize,
+			@Value("${contactbook.cache.time-to-live:10m}") Duration timeToLive, MeterRegistry meterRegistry) {
+		this(maximumSize, timeToLive, Ticker.systemTicker());
+		CaffeineCacheMetrics.monitor(meterRegistry, contactsById, "contacts.byId");
+		CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "contacts.idsByName");
+	}
+
+	ContactCache(long maximumSize, Duration timeToLive, Ticker ticker) {
+		this.contactsById = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).ticker(ticker).recordStats().build();
+		this.idsByName = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).ticker(ticker).recordStats().build();
+	}
+
+    /**
+     * Look up a contact by their ID
+     * @param	book	The book (string) of the contact
+     * @param	id		An input ID number (long)
+     * @return			The cached contact, if any and if in this book; it must not be modified
+     */
+	public Optional<Contact> getById(String book, long id) {
+		return Optional.ofNullable(contactsById.getIfPresent(id)).filter(contact -> contact.getBook().equals(book));
+	}
+
+    /**
+     * Look up a contact by their last and first names
+     * @param	book		The book (string) of the contact
+     * @param	lastName	The last name (string) of the contact
+     * @param	firstName	The first name (string) of the contact
+     * @return				The cached contact, if any and if still bearing these names; it must not be modified
+     */
+	public Optional<Contact> getByName(String book, String lastName, String firstName) {
+		String nameKey = nameKey(book, lastName, firstName);
+		Long id = idsByName.getIfPresent(nameKey);
+		if (id == null) {
+			return Optional.empty();
+		}
+		
+		Contact contact = contactsById.getIfPresent(id);
+		if (contact == null || !contact.getBook().equals(book) || !Objects.equals(contact.getLastName(), lastName)
+				|| !Objects.equals(contact.getFirstName(), firstName)) {
+			idsByName.invalidate(nameKey);
+			return Optional.empty();
+		}
+		return Optional.of(contact);
+	}
+
+    /**
+     * Take a stamp to be passed to put(), before loading a contact from the repository
+     * @return	The current stamp (long)
+     */
+	public long stamp() {
+		return invalidations.get();
+	}
+
+    /**
+     * Cache a copy of a contact loaded from the repository, unless an invalidation happened since it was loaded
+     * @param	contact	The contact loaded from the repository
+     * @param	stamp	The stamp (long) taken before loading the contact
+     */
+	public void put(Contact contact, long stamp) {
+		if (contact == null || contact.getId() == null) {
+			return;
+		}
+		
+		Long id = contact.getId();
+		contactsById.put(id, copyOf(contact));
+		idsByName.put(nameKey(contact.getBook(), contact.getLastName(), contact.getFirstName()), id);
+		
+		// Checked after the put, as evict() counts before invalidating: either one of them sees the other.
+		if (invalidations.get() != stamp) {
+			contactsById.invalidate(id);
+		}
+	}
+
+    /**
+     * Invalidate a contact now and, if a transaction is active, once it has completed
+     * @param	id	The ID (long) of the contact written
+     */
+	public void evict(long id) {
+		evictNow(id);
+		onTransactionCompletion(() -> evictNow(id));
+	}
+
+	private void evictNow(long id) {
+		invalidations.incrementAndGet();
+		contactsById.invalidate(id);
+	}
+	
+	// Reads made later in the same transaction may have cached state that a rollback discards, or that other
+	// transactions could not see yet: it is dropped again once the outcome is known.
+	private static void onTransactionCompletion(Runnable invalidation) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidation.run();
+				}
+			});
+		}
+	}
+	
+	private static Contact copyOf(Contact contact) {
+		Contact copy = new Contact(contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getMobileNumber(),
+				contact.getEmailAddress(), contact.getDateOfBirth());
+		copy.setVersion(contact.getVersion());
+		copy.setBook(contact.getBook());
+		return copy;
+	}
+	
+	private static String nameKey(String book, String lastName, String firstName) {
+		return book + '\u0000' + lastName + '\u0000' + firstName;
+	}
+
+}
@@ -0,0 +1,431 @@
+package com.qa.contactbookapi.changes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactChangePage;
+import com.qa.contactbookapi.data.dto.ContactChangeType;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactChangeRepository;
+
+// Change feed of the contacts, backed by the transactional outbox: writes append their changes in their own transaction,
+// and readers follow them by sequence number, either polling, waiting for the next change (long-poll) or subscribed (SSE).
+// Waiting readers are woken up once a change of this instance has committed, and every poll interval for the changes of
+// the other instances. A single dispatcher thread polls the outbox, moving the watermark on, and hands each waiting reader
+// its turn on a delivery thread of its own: a reader slow to take its changes (e.g. a stalled SSE client) only holds up
+// itself. A reader has at most one turn running or pending at a time; the wake-ups arriving meanwhile are coalesced into it.
+//
+// Every book has its own feed, read out of the shared outbox through an index led by the book: sequence numbers are
+// shared by every book, and readers move on past the changes of other books as they go.
+//
+// Sequence numbers are allocated when a change is written, not when it commits: a reader may see number 8 committed before
+// number 7. The feed therefore keeps a watermark, shared by the readers of every book: the sequence number up to which every
+// change has either committed or been given up. It stops at the first gap until the gap is filled, or until it has lasted
+// the gap timeout since this instance first saw it (the numbers of rolled back transactions are never filled), so that no
+// committed change is skipped by a reader; readers only read up to it.
+//
+// Changes are kept for the retention period, then purged a chunk at a time by a thread of their own, below the watermark only.
+
+@Component
+public class ContactChangeFeed implements DisposableBean {
+
+	private final ContactChangeRepository contactChangeRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final Duration gapTimeout;
+
+	private final ThreadPoolTaskScheduler dispatcher;
+
+	private final ThreadPoolTaskExecutor delivery;
+
+	private final ThreadPoolTaskScheduler purger;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	private final AtomicBoolean dispatchPending = new AtomicBoolean();
+
+	private static final int SCAN_SIZE = 1000;
+
+	private static final int PURGE_CHUNK_SIZE = 1000;
+
+	private final Duration retention;
+
+	// -1 until the outbox has first been scanned; only moved on while holding the lock of the feed, as are the gap fields.
+	private volatile long watermark = -1;
+
+	private long gapSequence;
+
+	private Instant gapSeenAt;
+
+	// Reader waiting for changes, whose turns run one at a time on the delivery threads.
+	private abstract class Subscriber implements Runnable {
+
+		private final AtomicBoolean running = new AtomicBoolean();
+
+		private final AtomicBoolean pending = new AtomicBoolean();
+
+		// Reads the changes up to the watermark given; returns false once it no longer needs to be called.
+		abstract boolean onChanges(long upTo);
+
+		void offer() {
+			pending.set(true);
+			if (running.compareAndSet(false, true)) {
+				delivery.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			do {
+				pending.set(false);
+				try {
+					if (!onChanges(watermark)) {
+						subscribers.remove(this);
+						return;
+					}
+				} catch (RuntimeException e) {
+					// e.g. the database is unavailable, or the client went away: the reader will have to come back.
+					subscribers.remove(this);
+					return;
+				} finally {
+					running.set(false);
+				}
+			} while (pending.get() && running.compareAndSet(false, true));
+		}
+
+	}
+
+	@Autowired
+	public ContactChangeFeed(ContactChangeRepository contactChangeRepository, ObjectMapper objectMapper,
+			@Value("${contactbook.changes.gap-timeout:10s}") Duration gapTimeout,
+			@Value("${contactbook.changes.poll-interval:1s}") Duration pollInterval,
+			@Value("${contactbook.changes.retention:7d}") Duration retention,
+			@Value("${contactbook.changes.purge-interval:1h}") Duration purgeInterval) {
+		this.contactChangeRepository = contactChangeRepository;
+		this.objectMapper = objectMapper;
+		this.gapTimeout = gapTimeout;
+		this.retention = retention;
+
+		dispatcher = new ThreadPoolTaskScheduler();
+		dispatcher.setPoolSize(1);
+		dispatcher.setThreadNamePrefix("contact-changes-");
+		dispatcher.initialize();
+		dispatcher.scheduleWithFixedDelay(this::wakeUp, pollInterval);
+
+		// Grows with the readers being served, rather than making any wait for another's turn.
+		delivery = new ThreadPoolTaskExecutor();
+		delivery.setCorePoolSize(0);
+		delivery.setQueueCapacity(0);
+		delivery.setThreadNamePrefix("contact-changes-delivery-");
+		delivery.initialize();
+
+		purger = new ThreadPoolTaskScheduler();
+		purger.setPoolSize(1);
+		purger.setThreadNamePrefix("contact-changes-purge-");
+		purger.initialize();
+		purger.scheduleWithFixedDelay(this::purge, Instant.now().plus(purgeInterval), purgeInterval);
+	}
+
+    /**
+     * Record the creation of a contact, in the current transaction (if any)
+     * @param	contact	The contact created, bearing its ID
+     */
+	public void recordCreated(Contact contact) {
+		record(ContactChangeType.CREATED, contact.getId(), toJson(contact));
+	}
+
+    /**
+     * Record the creation of many contacts through a single batched statement, in the current transaction (if any)
+     * @param	contacts	The contacts created, bearing their IDs
+     */
+	public void recordCreatedAll(List<Contact> contacts) {
+		Instant now = Instant.now();
+		contactChangeRepository.appendAll(contacts.stream()
+				.map(contact -> new ContactChange(0, ContactChangeType.CREATED, contact.getId(), toJson(contact), now, contact.getBook()))
+				.collect(Collectors.toList()));
+		afterCommit(this::wakeUp);
+	}
+
+    /**
+     * Record the update of a contact, in the current transaction (if any)
+     * @param	contact	The contact as updated, bearing its ID
+     */
+	public void recordUpdated(Contact contact) {
+		record(ContactChangeType.UPDATED, contact.getId(), toJson(contact));
+	}
+
+    /**
+     * Record the removal of a contact of the current book, in the current transaction (if any)
+     * @param	id	The ID (long) of the contact removed
+     */
+	public void recordRemoved(long id) {
+		record(ContactChangeType.REMOVED, id, null);
+	}
+
+    /**
+     * Record the removal of many contacts of the current book through a single batched statement, in the current transaction (if any)
+     * @param	ids	The IDs (longs) of the contacts removed
+     */
+	public void recordRemovedAll(List<Long> ids) {
+		Instant now = Instant.now();
+		String book = ContactBook.current();
+		contactChangeRepository.appendAll(ids.stream()
+				.map(id -> new ContactChange(0, ContactChangeType.REMOVED, id, null, now, book))
+				.collect(Collectors.toList()));
+		afterCommit(this::wakeUp);
+	}
+
+    /**
+     * Read the changes of a book following a sequence number, in order, up to the first gap which may still be filled
+     * @param	book	The book (string) whose changes are read
+     * @param	since	The sequence number (long) of the last change already read (0 to read from the start)
+     * @param	limit	The maximum number of changes (int) to read
+     * @return			The changes read, in sequence order, and the sequence number to read on from
+     */
+	public ContactChangePage read(String book, long since, int limit) {
+		return read(book, since, limit, advance());
+	}
+
+	private ContactChangePage read(String book, long since, int limit, long upTo) {
+		if (upTo <= since) {
+			return new ContactChangePage(List.of(), since);
+		}
+
+		List<ContactChange> changes = contactChangeRepository.findAfter(book, since, upTo, limit);
+		long nextSince = changes.size() < limit ? upTo : changes.get(changes.size() - 1).getSequence();
+		return new ContactChangePage(changes, nextSince);
+	}
+
+    /**
+     * Purge the changes older than the retention period, a chunk at a time
+     * @return	The number of changes (long) purged
+     */
+	public long purge() {
+		Instant changedBefore = Instant.now().minus(retention);
+		long before = advance();
+		long purged = 0;
+		int deleted;
+		do {
+			deleted = contactChangeRepository.deleteBefore(changedBefore, before, PURGE_CHUNK_SIZE);
+			purged += deleted;
+		} while (deleted == PURGE_CHUNK_SIZE);
+		return purged;
+	}
+
+    /**
+     * Read the changes of a book following a sequence number, waiting for some if there are none yet (long-poll)
+     * @param	book		The book (string) whose changes are read
+     * @param	since		The sequence number (long) of the last change already read (0 to read from the start)
+     * @param	limit		The maximum number of changes (int) to read
+     * @param	wait		The longest time to wait for changes
+     * @param	callback	The consumer to which the changes read are handed, exactly once; empty if none came in time
+     */
+	public void poll(String book, long since, int limit, Duration wait, Consumer<ContactChangePage> callback) {
+
+		ContactChangePage page = read(book, since, limit);
+		if (!page.getChanges().isEmpty() || wait.isZero()) {
+			callback.accept(page);
+			return;
+		}
+
+		AtomicBoolean done = new AtomicBoolean();
+		Subscriber subscriber = new Subscriber() {
+
+			private long lastSequence = page.getNextSince();
+
+			@Override
+			boolean onChanges(long upTo) {
+				if (done.get()) {
+					return false;
+				}
+				ContactChangePage newPage = read(book, lastSequence, limit, upTo);
+				lastSequence = newPage.getNextSince();
+				if (newPage.getChanges().isEmpty()) {
+					return true;
+				}
+				if (done.compareAndSet(false, true)) {
+					callback.accept(newPage);
+				}
+				return false;
+			}
+
+		};
+		subscribe(subscriber);
+
+		dispatcher.schedule(() -> {
+			if (done.compareAndSet(false, true)) {
+				subscribers.remove(subscriber);
+				delivery.execute(() -> callback.accept(new ContactChangePage(List.of(), since)));
+			}
+		}, Instant.now().plus(wait));
+	}
+
+    /**
+     * Hand every change of a book following a sequence number to a consumer, in order, as they come (subscription)
+     * @param	book		The book (string) whose changes are read
+     * @param	since		The sequence number (long) of the last change already read (0 to read from the start)
+     * @param	batchSize	The number of changes (int) read at once
+     * @param	consumer	The consumer of each change, which returns false to end the subscription
+     * @return				The handle ending the subscription
+     */
+	public Runnable follow(String book, long since, int batchSize, Predicate<ContactChange> consumer) {
+
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Subscriber subscriber = new Subscriber() {
+
+			private long lastSequence = since;
+
+			@Override
+			boolean onChanges(long upTo) {
+				while (!cancelled.get()) {
+					ContactChangePage page = read(book, lastSequence, batchSize, upTo);
+					for (ContactChange change : page.getChanges()) {
+						if (!consumer.test(change)) {
+							return false;
+						}
+					}
+					lastSequence = page.getNextSince();
+					if (page.getChanges().size() < batchSize) {
+						return true;
+					}
+				}
+				return false;
+			}
+
+		};
+		subscribe(subscriber);
+
+		return () -> {
+			cancelled.set(true);
+			subscribers.remove(subscriber);
+		};
+	}
+
+	@Override
+	public void destroy() {
+		dispatcher.shutdown();
+		purger.shutdown();
+		delivery.shutdown();
+	}
+
+	private void record(ContactChangeType type, Long contactId, String contact) {
+		contactChangeRepository.append(type, contactId, contact, Instant.now(), ContactBook.current());
+		afterCommit(this::wakeUp);
+	}
+
+	// Moves the watermark on past the changes committed since, and past the gaps given up; the purge keeps the change at
+	// the watermark, so that the outbox is only found empty before its first change. The outbox is scanned outside of the
+	// lock: a reader finding the watermark moved on by another meanwhile takes theirs, which is as recent as its own.
+	private long advance() {
+		long from = watermark;
+		if (from < 0) {
+			List<Long> first = contactChangeRepository.findSequencesAfter(0, 1);
+			from = start(first.isEmpty() ? 0 : first.get(0) - 1);
+		}
+		while (true) {
+			List<Long> sequences = contactChangeRepository.findSequencesAfter(from, SCAN_SIZE);
+			synchronized (this) {
+				if (watermark != from) {
+					return watermark;
+				}
+				for (long sequence : sequences) {
+					if (sequence != watermark + 1 && !isGivenUp(watermark + 1)) {
+						return watermark;
+					}
+					watermark = sequence;
+				}
+				if (sequences.size() < SCAN_SIZE) {
+					return watermark;
+				}
+				from = watermark;
+			}
+		}
+	}
+
+	private synchronized long start(long initialWatermark) {
+		if (watermark < 0) {
+			watermark = initialWatermark;
+		}
+		return watermark;
+	}
+
+	// A gap is timed from the moment it was first seen, rather than from the time of the changes around it.
+	private boolean isGivenUp(long missingSequence) {
+		Instant now = Instant.now();
+		if (missingSequence != gapSequence) {
+			gapSequence = missingSequence;
+			gapSeenAt = now;
+		}
+		return !now.isBefore(gapSeenAt.plus(gapTimeout));
+	}
+
+	private String toJson(Contact contact) {
+		try {
+			return objectMapper.writeValueAsString(contact);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Contact " + contact.getId() + " cannot be written as JSON.", e);
+		}
+	}
+
+	// Subscribers are called once straight away, for the changes already there.
+	private void subscribe(Subscriber subscriber) {
+		subscribers.add(subscriber);
+		wakeUp();
+	}
+
+	// Wake-ups arriving while a dispatch is pending are coalesced into it.
+	private void wakeUp() {
+		if (!subscribers.isEmpty() && dispatchPending.compareAndSet(false, true)) {
+			dispatcher.execute(this::dispatch);
+		}
+	}
+
+	// Only the outbox is read here: the readers take their changes on their own turns.
+	private void dispatch() {
+		dispatchPending.set(false);
+		try {
+			advance();
+		} catch (RuntimeException e) {
+			// e.g. the database is unavailable: the readers are served the changes already known, and the next poll retries.
+		}
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer();
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+}
@@ -4,6 +4,10 @@ import org.modelmapper.ModelMapper;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 @Configuration
 public class ApplicationConfiguration {
@@ -12,4 +16,11 @@ public class ApplicationConfiguration {
 	public ModelMapper modelMapper() {
 		return new ModelMapper();
 	}
+
+	// Smile (binary JSON, as 'application/x-jackson-smile') for the request and response bodies, with the same settings as
+	// JSON; the field names repeated across a list of contacts are written once, and referred back to afterwards.
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+	}
 }
@@ -9,11 +9,15 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
 import com.qa.contactbookapi.data.entity.Contact;
 import com.qa.contactbookapi.data.repository.ContactRepository;
 
+// Runs before the other listeners, so that the search index loads the dummy contacts too.
 @Profile("dev")
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @Configuration
 public class ApplicationStartupListener implements ApplicationListener<ApplicationReadyEvent> {
 
@@ -0,0 +1,35 @@
+package com.qa.contactbookapi.configuration;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.qa.contactbookapi.controller.ContactController;
+
+@ConditionalOnProperty(name = "contactbook.async.enabled", havingValue = "true")
+@Configuration
+public class AsyncExecutionConfiguration {
+
+	// Opt-in async mode: the ContactController handlers run on a bounded executor instead of the Tomcat worker threads.
+	@Bean
+	public WebMvcRegistrations offloadingWebMvcRegistrations(@Value("${contactbook.async.pool-size:64}") int poolSize,
+			@Value("${contactbook.async.queue-capacity:256}") int queueCapacity,
+			@Value("${contactbook.async.timeout:30s}") Duration timeout,
+			@Value("${contactbook.async.retry-after:1s}") Duration retryAfter) {
+		return new WebMvcRegistrations() {
+			
+			@Override
+			public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+				return new OffloadingHandlerAdapter(ContactController.class, poolSize, queueCapacity, timeout.toMillis(),
+						Math.max(1, retryAfter.getSeconds()));
+			}
+			
+		};
+	}
+
+}
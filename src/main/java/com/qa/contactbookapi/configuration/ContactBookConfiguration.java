@@ -0,0 +1,41 @@
+package com.qa.contactbookapi.configuration;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookInterceptor;
+
+@Configuration
+public class ContactBookConfiguration implements WebMvcConfigurer {
+
+	private ContactBookInterceptor contactBookInterceptor;
+
+	@Autowired
+	public ContactBookConfiguration(@Value("${contactbook.books.rate-limit:200}") double rateLimit,
+			@Value("${contactbook.books.burst:400}") int burst,
+			@Value("${contactbook.books.idle-timeout:10m}") Duration idleTimeout) {
+		this.contactBookInterceptor = new ContactBookInterceptor(rateLimit, burst, idleTimeout);
+	}
+
+	// Resolves the book of every request to the contacts, and applies its rate limit.
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(contactBookInterceptor).addPathPatterns("/contact", "/contact/**", "/books/*/contact", "/books/*/contact/**");
+	}
+
+	// Streamed responses are written on the Spring MVC task executor (the application task executor): they keep the book
+	// of the request that started them.
+	@Bean
+	public TaskDecorator contactBookTaskDecorator() {
+		return ContactBook::carry;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.qa.contactbookapi.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.qa.contactbookapi.metrics.StatementCounter;
+import com.qa.contactbookapi.metrics.StatementCountingFilter;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfiguration {
+
+	// Records the methods annotated with @Timed, e.g. those of ContactService as 'contactbook.service'.
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+
+	// Counts the statements Hibernate issues, for the per-request 'contactbook.db.statements' summary.
+	@Bean
+	public HibernatePropertiesCustomizer statementCounterCustomizer() {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+	}
+
+	@Bean
+	public StatementCountingFilter statementCountingFilter(MeterRegistry meterRegistry) {
+		return new StatementCountingFilter(meterRegistry);
+	}
+
+}
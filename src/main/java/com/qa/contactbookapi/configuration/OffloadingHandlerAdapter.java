@@ -0,0 +1,108 @@
+package com.qa.contactbookapi.configuration;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+import com.qa.contactbookapi.metrics.StatementCounter;
+
+// Runs the handlers of one controller on a bounded executor, as async requests, so that the Tomcat worker thread is released
+// while they wait on the database. Arguments (including request bodies) are still resolved on the Tomcat thread.
+
+class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter implements DisposableBean {
+
+	private final Class<?> controllerType;
+	
+	private final ThreadPoolTaskExecutor executor;
+	
+	// One permit per thread and queue slot: requests beyond them are rejected up front rather than by the executor.
+	private final Semaphore permits;
+	
+	private final long timeoutMillis;
+	
+	private final long retryAfterSeconds;
+
+	OffloadingHandlerAdapter(Class<?> controllerType, int poolSize, int queueCapacity, long timeoutMillis, long retryAfterSeconds) {
+		this.controllerType = controllerType;
+		this.timeoutMillis = timeoutMillis;
+		this.retryAfterSeconds = retryAfterSeconds;
+		this.permits = new Semaphore(poolSize + queueCapacity);
+		
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("contact-request-");
+		executor.initialize();
+	}
+
+	@Override
+	protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+		
+		if (!controllerType.isAssignableFrom(handlerMethod.getBeanType()) || isAsync(handlerMethod)) {
+			return super.createInvocableHandlerMethod(handlerMethod);
+		}
+		
+		return new ServletInvocableHandlerMethod(handlerMethod) {
+			
+			@Override
+			protected Object doInvoke(Object... args) throws Exception {
+				
+				if (!permits.tryAcquire()) {
+					throw new ServiceOverloadedException("The service is overloaded; please retry in " + retryAfterSeconds + " second(s).", retryAfterSeconds);
+				}
+				
+				// The statements issued on the executor thread still count towards the request, and its book still applies.
+				AtomicInteger statementCount = StatementCounter.current();
+				String book = ContactBook.current();
+				Callable<Object> handler = () -> {
+					AtomicInteger previous = StatementCounter.bind(statementCount);
+					String previousBook = ContactBook.bind(book);
+					try {
+						return super.doInvoke(args);
+					} finally {
+						ContactBook.bind(previousBook);
+						StatementCounter.bind(previous);
+						permits.release();
+					}
+				};
+				
+				// The Callable return value is handled as an async request; its result is dispatched back to the
+				// return value handlers of the handler method's declared return type.
+				return new WebAsyncTask<Object>(timeoutMillis, executor, handler);
+			}
+			
+		};
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+	
+	// Streaming and deferred handlers already free the Tomcat thread.
+	private static boolean isAsync(HandlerMethod handlerMethod) {
+		ResolvableType returnType = ResolvableType.forMethodReturnType(handlerMethod.getMethod());
+		Class<?> type = ResponseEntity.class.isAssignableFrom(returnType.toClass()) ? returnType.getGeneric(0).toClass() : returnType.toClass();
+		
+		return StreamingResponseBody.class.isAssignableFrom(type) || ResponseBodyEmitter.class.isAssignableFrom(type)
+				|| Callable.class.isAssignableFrom(type) || WebAsyncTask.class.isAssignableFrom(type)
+				|| DeferredResult.class.isAssignableFrom(type) || CompletionStage.class.isAssignableFrom(type);
+	}
+
+}
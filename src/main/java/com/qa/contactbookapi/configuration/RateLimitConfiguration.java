@@ -0,0 +1,61 @@
+package com.qa.contactbookapi.configuration;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.qa.contactbookapi.ratelimit.ClientRateLimitInterceptor;
+import com.qa.contactbookapi.ratelimit.LoadSheddingInterceptor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class RateLimitConfiguration implements WebMvcConfigurer {
+
+	private static final String[] CONTACT_PATHS = { "/contact", "/contact/**", "/books/*/contact", "/books/*/contact/**" };
+
+	// Long-polls and event streams mostly wait for changes, without a connection: they are not counted by the load shedder.
+	private static final String[] CHANGES_PATHS = { "/contact/changes", "/books/*/contact/changes" };
+
+	private ClientRateLimitInterceptor clientRateLimitInterceptor;
+
+	private LoadSheddingInterceptor loadSheddingInterceptor;
+
+	@Autowired
+	public RateLimitConfiguration(@Value("${contactbook.clients.rate-limit:100}") double rateLimit,
+			@Value("${contactbook.clients.burst:200}") int burst,
+			@Value("${contactbook.clients.expensive-rate-limit:5}") double expensiveRateLimit,
+			@Value("${contactbook.clients.expensive-burst:10}") int expensiveBurst,
+			@Value("${contactbook.clients.max-clients:100000}") long maxClients,
+			@Value("${contactbook.clients.idle-timeout:10m}") Duration idleTimeout,
+			@Value("${contactbook.shedding.max-requests:32}") int maxRequests,
+			@Value("${contactbook.shedding.max-expensive-requests:4}") int maxExpensiveRequests,
+			@Value("${contactbook.shedding.retry-after:1s}") Duration retryAfter, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.clientRateLimitInterceptor = new ClientRateLimitInterceptor(rateLimit, burst, expensiveRateLimit, expensiveBurst, maxClients, idleTimeout);
+		this.loadSheddingInterceptor = new LoadSheddingInterceptor(maxRequests, maxExpensiveRequests, Math.max(1, retryAfter.toSeconds()));
+
+		meterRegistry.ifAvailable(registry -> {
+			Gauge.builder("contactbook.requests.active", loadSheddingInterceptor, LoadSheddingInterceptor::getRequests)
+					.tag("cost", "all").register(registry);
+			Gauge.builder("contactbook.requests.active", loadSheddingInterceptor, LoadSheddingInterceptor::getExpensiveRequests)
+					.tag("cost", "expensive").register(registry);
+		});
+	}
+
+	// Ahead of the book interceptor: a client over its rate limit is rejected first, then a request beyond the load the
+	// service can take, before any work is done for either.
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(clientRateLimitInterceptor).addPathPatterns(CONTACT_PATHS).order(Ordered.HIGHEST_PRECEDENCE);
+		registry.addInterceptor(loadSheddingInterceptor).addPathPatterns(CONTACT_PATHS).excludePathPatterns(CHANGES_PATHS)
+				.order(Ordered.HIGHEST_PRECEDENCE + 1);
+	}
+
+}
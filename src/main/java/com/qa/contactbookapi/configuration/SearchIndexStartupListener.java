@@ -0,0 +1,30 @@
+package com.qa.contactbookapi.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import com.qa.contactbookapi.service.ContactService;
+
+// Runs just before the startup report, so that the startup time reported includes the loading of the index.
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Configuration
+public class SearchIndexStartupListener implements ApplicationListener<ApplicationReadyEvent> {
+
+	private ContactService contactService;
+	
+	@Autowired
+	public SearchIndexStartupListener(ContactService contactService) {
+		this.contactService = contactService;
+	}
+	
+	// Load the contacts already in the repository into the search index when the application starts up.
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		contactService.loadSearchIndex();
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.qa.contactbookapi.configuration;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Runs after the other listeners (the search index included), to report how long the JVM took to be ready to serve, and its
+// resident set size then, so that the startup of the fat jar and of the class-data sharing build (-Pcds) can be compared.
+// With contactbook.startup.exit-when-ready=true, the application then exits: the class-data sharing build starts it this way
+// to list the classes loaded on startup.
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Configuration
+public class StartupReportListener implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupReportListener.class);
+
+	private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+	private boolean exitWhenReady;
+
+	public StartupReportListener(@Value("${contactbook.startup.exit-when-ready:false}") boolean exitWhenReady) {
+		this.exitWhenReady = exitWhenReady;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		LOGGER.info("Ready {} ms after the JVM started, with a resident set size of {}",
+				ManagementFactory.getRuntimeMXBean().getUptime(), residentSetSize());
+
+		if (exitWhenReady) {
+			System.exit(SpringApplication.exit(event.getApplicationContext()));
+		}
+	}
+
+	// Linux only: elsewhere, the heap and non-heap memory used by the JVM stand in for it.
+	private static String residentSetSize() {
+		try {
+			List<String> lines = Files.readAllLines(PROC_STATUS);
+			for (String line : lines) {
+				if (line.startsWith("VmRSS:")) {
+					return line.substring("VmRSS:".length()).trim();
+				}
+			}
+		} catch (IOException | SecurityException e) {
+			// Not on Linux.
+		}
+		long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()
+				+ ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage().getUsed();
+		return "unknown (" + used / 1024 + " kB of heap and non-heap in use)";
+	}
+
+}
@@ -1,60 +1,485 @@
 package com.qa.contactbookapi.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.dto.ContactDeleteJob;
+import com.qa.contactbookapi.data.dto.ContactFields;
+import com.qa.contactbookapi.data.dto.ContactImportJob;
+import com.qa.contactbookapi.data.dto.ContactPatch;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.dto.ContactVersion;
 import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.IdempotentRequestInProgressException;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+import com.qa.contactbookapi.exceptions.StaleContactException;
+import com.qa.contactbookapi.exports.ContactExportFormat;
+import com.qa.contactbookapi.exports.ContactExportWriter;
+import com.qa.contactbookapi.idempotency.IdempotencyStore;
+import com.qa.contactbookapi.imports.ContactImportFormat;
+import com.qa.contactbookapi.ratelimit.Expensive;
+import com.qa.contactbookapi.service.ContactBatchService;
+import com.qa.contactbookapi.service.ContactDeleteService;
+import com.qa.contactbookapi.service.ContactExportService;
+import com.qa.contactbookapi.service.ContactImportService;
 import com.qa.contactbookapi.service.ContactService;
 
+// Every endpoint is served both for the default book, under /contact, and for any named book, under /books/{book}/contact;
+// ContactBookInterceptor binds the book of the request before the handler runs.
+
 @RestController
-@RequestMapping(path = "/contact")
+@RequestMapping(path = { "/contact", "/books/{book}/contact" })
 public class ContactController {
 	
+	// Media type of JSON Merge Patch (RFC 7396) bodies; plain JSON bodies are accepted as merge patches too.
+	public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+	
+	// Longest range of GET /contact/birthdays: a year at most, so that no birthday falls twice within it.
+	private static final int MAX_BIRTHDAY_DAYS = 365;
+	
 	private ContactService contactService;
 	
+	private ContactBatchService contactBatchService;
+	
+	private ObjectMapper objectMapper;
+	
+	private int defaultPageSize;
+	
+	private int maxPageSize;
+	
+	private int defaultSearchLimit;
+	
+	private int maxSearchLimit;
+	
+	private ContactChangeFeed contactChangeFeed;
+	
+	private int defaultChangesLimit;
+	
+	private int maxChangesLimit;
+	
+	private Duration maxChangesWait;
+	
+	private Duration changesStreamTimeout;
+	
+	private ContactImportService contactImportService;
+	
+	private ContactExportService contactExportService;
+	
+	private ContactDeleteService contactDeleteService;
+	
+	private IdempotencyStore idempotencyStore;
+	
 	@Autowired
-	public ContactController(ContactService contactService) {
+	public ContactController(ContactService contactService, ContactBatchService contactBatchService, ObjectMapper objectMapper,
+			@Value("${contactbook.pagination.default-page-size:100}") int defaultPageSize,
+			@Value("${contactbook.pagination.max-page-size:1000}") int maxPageSize,
+			@Value("${contactbook.search.default-limit:10}") int defaultSearchLimit,
+			@Value("${contactbook.search.max-limit:100}") int maxSearchLimit,
+			ContactChangeFeed contactChangeFeed,
+			@Value("${contactbook.changes.default-limit:100}") int defaultChangesLimit,
+			@Value("${contactbook.changes.max-limit:1000}") int maxChangesLimit,
+			@Value("${contactbook.changes.max-wait:30s}") Duration maxChangesWait,
+			@Value("${contactbook.changes.stream-timeout:5m}") Duration changesStreamTimeout,
+			ContactImportService contactImportService, ContactExportService contactExportService, ContactDeleteService contactDeleteService,
+			IdempotencyStore idempotencyStore) {
 		this.contactService = contactService;
+		this.contactBatchService = contactBatchService;
+		this.objectMapper = objectMapper;
+		this.defaultPageSize = defaultPageSize;
+		this.maxPageSize = maxPageSize;
+		this.defaultSearchLimit = defaultSearchLimit;
+		this.maxSearchLimit = maxSearchLimit;
+		this.contactChangeFeed = contactChangeFeed;
+		this.defaultChangesLimit = defaultChangesLimit;
+		this.maxChangesLimit = maxChangesLimit;
+		this.maxChangesWait = maxChangesWait;
+		this.changesStreamTimeout = changesStreamTimeout;
+		this.contactImportService = contactImportService;
+		this.contactExportService = contactExportService;
+		this.contactDeleteService = contactDeleteService;
+		this.idempotencyStore = idempotencyStore;
 	}
 
     /**
-     * Fetch all contacts
-     * @return
-     * List of contacts in the repository
+     * Fetch one page of contacts, ordered by ID
+     * If a following page exists, its URL is returned in the 'Link' header (rel="next").
+     * @param	cursor	The opaque cursor (string) returned with the previous page, or null for the first page
+     * @param	limit	The maximum number of contacts (integer) to return, capped at the configured maximum page size
+     * @return			List of contacts in the requested page
+     * @throws	InvalidRequestParameterException
+     * If the cursor were malformed or the limit were not positive, it would throw this exception.
      */
 	@GetMapping
-	public ResponseEntity<List<Contact>> fetchContacts() {
-		ResponseEntity<List<Contact>> contacts = ResponseEntity.ok(contactService.fetchAll());									 
-		return contacts;
+	@Expensive
+	public ResponseEntity<List<Contact>> fetchContacts(@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		
+		int pageSize = resolveLimit(limit, defaultPageSize, maxPageSize);
+		Slice<Contact> page = contactService.fetchPage(ContactCursor.decode(cursor), pageSize);
+		List<Contact> contacts = page.getContent();
+		
+		HttpHeaders headers = new HttpHeaders();
+		if (page.hasNext()) {
+			String nextCursor = ContactCursor.encode(contacts.get(contacts.size() - 1).getId());
+			headers.add(HttpHeaders.LINK, "<" + ContactBook.basePath() + "?cursor=" + nextCursor + "&limit=" + pageSize + ">; rel=\"next\"");
+		}
+		
+		return new ResponseEntity<List<Contact>>(contacts, headers, HttpStatus.OK);
+	}
+
+    /**
+     * Fetch one page of contacts, ordered by ID, holding only the requested fields (sparse fieldset)
+     * Only the columns of these fields are selected, e.g. 'fields=firstName,lastName' for list views; the ID is always included.
+     * @param	fields	The fields (string) to return, separated by commas, among those of a contact
+     * @param	cursor	The opaque cursor (string) returned with the previous page, or null for the first page
+     * @param	limit	The maximum number of contacts (integer) to return, capped at the configured maximum page size
+     * @return			List of contacts in the requested page, as their requested fields
+     * @throws	InvalidRequestParameterException
+     * If a field did not exist, the cursor were malformed or the limit were not positive, it would throw this exception.
+     */
+	@GetMapping(params = "fields")
+	@Expensive
+	public ResponseEntity<List<Map<String, Object>>> fetchContactFields(@RequestParam(name = "fields") String fields,
+			@RequestParam(name = "cursor", required = false) String cursor, @RequestParam(name = "limit", required = false) Integer limit) {
+		
+		ContactFields contactFields = readFields(fields);
+		int pageSize = resolveLimit(limit, defaultPageSize, maxPageSize);
+		Slice<Map<String, Object>> page = contactService.fetchPage(contactFields, ContactCursor.decode(cursor), pageSize);
+		List<Map<String, Object>> contacts = page.getContent();
+		
+		HttpHeaders headers = new HttpHeaders();
+		if (page.hasNext()) {
+			String nextCursor = ContactCursor.encode((Long) contacts.get(contacts.size() - 1).get("id"));
+			headers.add(HttpHeaders.LINK, "<" + ContactBook.basePath() + "?fields=" + String.join(",", contactFields.getFields()) + "&cursor=" + nextCursor
+					+ "&limit=" + pageSize + ">; rel=\"next\"");
+		}
+		
+		return new ResponseEntity<List<Map<String, Object>>>(contacts, headers, HttpStatus.OK);
+	}
+
+    /**
+     * Stream all contacts as newline-delimited JSON (one contact per line), ordered by ID
+     * The rows are read through a forward-only cursor, so memory use does not grow with the number of contacts.
+     * @return	The streamed contacts
+     */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Expensive
+	public ResponseEntity<StreamingResponseBody> streamContacts() {
+		
+		StreamingResponseBody body = outputStream -> {
+			try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+				contactService.streamAll(writer::write);
+			}
+		};
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+    /**
+     * Stream all contacts as newline-delimited JSON, ordered by ID, holding only the requested fields (sparse fieldset)
+     * @param	fields	The fields (string) to return, separated by commas, among those of a contact
+     * @return			The streamed contacts, as their requested fields
+     * @throws	InvalidRequestParameterException
+     * If a field did not exist, it would throw this exception.
+     */
+	@GetMapping(params = "fields", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	@Expensive
+	public ResponseEntity<StreamingResponseBody> streamContactFields(@RequestParam(name = "fields") String fields) {
+		
+		ContactFields contactFields = readFields(fields);
+		StreamingResponseBody body = outputStream -> {
+			try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+				contactService.streamAll(contactFields, writer::write);
+			}
+		};
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+    /**
+     * Stream the contacts whose birthday falls within the coming days as newline-delimited JSON, in calendar order
+     * Contacts born on 29 February have their birthday on 28 February in the other years.
+     * @param	from	The first day (date, e.g. 2022-12-25) of the range; today by default
+     * @param	days	The number of days (int) of the range, from 1 to 365
+     * @return			The streamed contacts, in the order of their birthdays within the range, then by ID
+     * @throws	InvalidRequestParameterException
+     * If the number of days were out of range, it would throw this exception.
+     */
+	@GetMapping(path = "/birthdays")
+	@Expensive
+	public ResponseEntity<StreamingResponseBody> streamBirthdays(
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(name = "days", defaultValue = "7") int days) {
+		
+		if (days < 1 || days > MAX_BIRTHDAY_DAYS) {
+			throw new InvalidRequestParameterException("Days " + days + " is invalid, as it must be between 1 and " + MAX_BIRTHDAY_DAYS + ".");
+		}
+		LocalDate firstDay = from == null ? LocalDate.now() : from;
+		StreamingResponseBody body = outputStream -> {
+			try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+				contactService.streamBirthdays(firstDay, days, writer::write);
+			}
+		};
+		
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+    /**
+     * Export every contact, ordered by ID, as a file: CSV, vCard or a compact binary encoding, optionally gzipped
+     * Rows are written to the response as they are read through a forward-only cursor, without building entities or the
+     * whole file in memory.
+     * @param	format	The format (string) of the file: csv (the default), vcard or binary
+     * @param	gzip	Whether (boolean) the file is gzipped, as 'application/gzip'
+     * @return			The streamed file, as an attachment named after its format
+     * @throws	InvalidRequestParameterException
+     * If the format did not exist, it would throw this exception.
+     */
+	@GetMapping("/export")
+	@Expensive
+	public ResponseEntity<StreamingResponseBody> exportContacts(@RequestParam(name = "format", defaultValue = "csv") String format,
+			@RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+		
+		ContactExportFormat exportFormat = readExportFormat(format);
+		StreamingResponseBody body = outputStream -> {
+			OutputStream fileStream = gzip ? new GZIPOutputStream(outputStream, ContactExportWriter.BUFFER_SIZE) : outputStream;
+			try (ContactExportWriter writer = exportFormat.open(fileStream)) {
+				contactExportService.exportAll(writer);
+			}
+		};
+		
+		String fileName = "contacts." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+		return ResponseEntity.ok()
+				.contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(exportFormat.getMediaType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+				.body(body);
+	}
+
+    /**
+     * Search contacts by name: prefix, case-insensitive and typo-tolerant matching over first and last names
+     * The search is answered from an in-memory index, so each hit only holds the ID and names of the contact.
+     * @param	query	The terms (string) to search, separated by spaces; every term must match the first or last name
+     * @param	limit	The maximum number of contacts (integer) to return, capped at the configured maximum
+     * @return			The best matching contacts, exact matches first, then prefix matches, then matches with typos
+     * @throws	InvalidRequestParameterException
+     * If the query were blank or the limit were not positive, it would throw this exception.
+     */
+	@GetMapping(path = "/search")
+	public ResponseEntity<List<ContactSearchHit>> searchContacts(@RequestParam(name = "q") String query,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		
+		if (query.isBlank()) {
+			throw new InvalidRequestParameterException("Query is invalid, as it must not be blank.");
+		}
+		
+		return ResponseEntity.ok(contactService.search(query, resolveLimit(limit, defaultSearchLimit, maxSearchLimit)));
+	}
+
+    /**
+     * Fetch the changes made to contacts after a sequence number, in order, waiting for some if there are none yet (long-poll)
+     * Consumers pass the sequence number of the Link (rel="next") header as 'since' to get the following ones; it may be past
+     * the last change they got, as the changes of other books are skipped.
+     * @param	since	The sequence number (long) of the last change already got, 0 to get every change
+     * @param	limit	The maximum number of changes (integer) to return, capped at the configured maximum
+     * @param	wait	The longest time to wait, in seconds (long), if there are no changes yet, capped at the configured maximum
+     * @return			The changes following the sequence number, in order, with the link to the following ones; empty if none came in time
+     * @throws	InvalidRequestParameterException
+     * If the sequence number or the wait were negative, or the limit were not positive, it would throw this exception.
+     */
+	@GetMapping(path = "/changes")
+	public DeferredResult<ResponseEntity<List<ContactChange>>> fetchChanges(@RequestParam(name = "since", defaultValue = "0") long since,
+			@RequestParam(name = "limit", required = false) Integer limit, @RequestParam(name = "wait", defaultValue = "0") long wait) {
+		
+		if (since < 0) {
+			throw new InvalidRequestParameterException("Since " + since + " is invalid, as it must not be negative.");
+		}
+		if (wait < 0) {
+			throw new InvalidRequestParameterException("Wait " + wait + " is invalid, as it must not be negative.");
+		}
+		int changesLimit = resolveLimit(limit, defaultChangesLimit, maxChangesLimit);
+		Duration changesWait = Duration.ofSeconds(Math.min(wait, maxChangesWait.getSeconds()));
+		
+		// The feed answers once changes come or the wait is over, on its own thread; the extra second covers its own timer.
+		String changesPath = ContactBook.basePath() + "/changes";
+		DeferredResult<ResponseEntity<List<ContactChange>>> result = new DeferredResult<>(changesWait.plusSeconds(1).toMillis(),
+				ResponseEntity.ok(List.<ContactChange>of()));
+		contactChangeFeed.poll(ContactBook.current(), since, changesLimit, changesWait, page -> {
+			HttpHeaders headers = new HttpHeaders();
+			headers.add(HttpHeaders.LINK, "<" + changesPath + "?since=" + page.getNextSince() + "&limit=" + changesLimit + ">; rel=\"next\"");
+			result.setResult(new ResponseEntity<>(page.getChanges(), headers, HttpStatus.OK));
+		});
+		return result;
+	}
+
+    /**
+     * Stream the changes made to contacts after a sequence number as server-sent events, as they come
+     * Each event holds one change, named after its type, with its sequence number as ID: a client reconnecting after the
+     * stream timeout resumes from the last one it got, through the Last-Event-ID header.
+     * @param	since		The sequence number (long) of the last change already got, or null to use the Last-Event-ID header
+     * @param	lastEventId	The Last-Event-ID header (long) sent by a reconnecting client, or null to stream every change
+     * @return				The stream of changes
+     * @throws	InvalidRequestParameterException
+     * If the sequence number were negative, it would throw this exception.
+     */
+	@GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamChanges(@RequestParam(name = "since", required = false) Long since,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		
+		long from = since != null ? since : lastEventId != null ? lastEventId : 0;
+		if (from < 0) {
+			throw new InvalidRequestParameterException("Since " + from + " is invalid, as it must not be negative.");
+		}
+		
+		SseEmitter emitter = new SseEmitter(changesStreamTimeout.toMillis());
+		Runnable unsubscribe = contactChangeFeed.follow(ContactBook.current(), from, defaultChangesLimit, change -> {
+			try {
+				emitter.send(SseEmitter.event().id(String.valueOf(change.getSequence())).name(change.getType().name()).data(change));
+				return true;
+			} catch (IOException | IllegalStateException e) {
+				// The client went away, or the stream has timed out.
+				return false;
+			}
+		});
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(unsubscribe);
+		emitter.onError(e -> unsubscribe.run());
+		return emitter;
+	}
+
+    /**
+     * Fetch the contacts having a mobile number (reverse look-up, e.g. for caller ID)
+     * The number is matched in its normalised form, so "07777 777777", "07777777777" and "+44 7777 777777" are equivalent.
+     * @param	mobileNumber	The mobile number (string) to look up
+     * @return					The contacts having this number, ordered by ID (empty if there are none)
+     * @throws	InvalidRequestParameterException
+     * If the mobile number held no digits, it would throw this exception.
+     */
+	@GetMapping(path = "/by-mobile/{mobileNumber}")
+	public ResponseEntity<List<Contact>> fetchContactsByMobileNumber(@PathVariable("mobileNumber") String mobileNumber) {
+		return ResponseEntity.ok(contactService.fetchByMobileNumber(mobileNumber));
+	}
+
+    /**
+     * Fetch the contacts having a mobile number, holding only the requested fields (sparse fieldset)
+     * @param	mobileNumber	The mobile number (string) to look up
+     * @param	fields			The fields (string) to return, separated by commas, among those of a contact
+     * @return					The contacts having this number, as their requested fields, ordered by ID
+     * @throws	InvalidRequestParameterException
+     * If the mobile number held no digits or a field did not exist, it would throw this exception.
+     */
+	@GetMapping(path = "/by-mobile/{mobileNumber}", params = "fields")
+	public ResponseEntity<List<Map<String, Object>>> fetchContactFieldsByMobileNumber(@PathVariable("mobileNumber") String mobileNumber,
+			@RequestParam(name = "fields") String fields) {
+		return ResponseEntity.ok(contactService.fetchByMobileNumber(mobileNumber, readFields(fields)));
+	}
+
+    /**
+     * Fetch the contacts having an email address (reverse look-up, e.g. for inbound email routing)
+     * The address is matched in any case.
+     * @param	emailAddress	The email address (string) to look up
+     * @return					The contacts having this address, ordered by ID (empty if there are none)
+     * @throws	InvalidRequestParameterException
+     * If the email address were blank, it would throw this exception.
+     */
+	@GetMapping(path = "/by-email/{emailAddress:.+}")
+	public ResponseEntity<List<Contact>> fetchContactsByEmailAddress(@PathVariable("emailAddress") String emailAddress) {
+		return ResponseEntity.ok(contactService.fetchByEmailAddress(emailAddress));
+	}
+
+    /**
+     * Fetch the contacts having an email address, holding only the requested fields (sparse fieldset)
+     * @param	emailAddress	The email address (string) to look up
+     * @param	fields			The fields (string) to return, separated by commas, among those of a contact
+     * @return					The contacts having this address, as their requested fields, ordered by ID
+     * @throws	InvalidRequestParameterException
+     * If the email address were blank or a field did not exist, it would throw this exception.
+     */
+	@GetMapping(path = "/by-email/{emailAddress:.+}", params = "fields")
+	public ResponseEntity<List<Map<String, Object>>> fetchContactFieldsByEmailAddress(@PathVariable("emailAddress") String emailAddress,
+			@RequestParam(name = "fields") String fields) {
+		return ResponseEntity.ok(contactService.fetchByEmailAddress(emailAddress, readFields(fields)));
 	}
 
     /**
      * Fetch contact based on their ID
+     * The response carries the ETag of the contact; a request whose If-None-Match holds it gets a 304 without the body.
      * @param	id	An input ID number (long)
      * @return		The contact fetched from the repository corresponding to the input ID
      */
 	@GetMapping(path = "/{id}")
 	public ResponseEntity<Contact> fetchContactById(@PathVariable("id") long id) {
-		ResponseEntity<Contact> response = ResponseEntity.ok(contactService.fetchById(id));
-		return response;
+		return withETag(contactService.fetchById(id), HttpStatus.OK);
+	}
+
+    /**
+     * Fetch contact based on their ID, holding only the requested fields (sparse fieldset)
+     * The contact is served from the cache like any other, so the fields are copied out of it rather than selected.
+     * @param	id		An input ID number (long)
+     * @param	fields	The fields (string) to return, separated by commas, among those of a contact
+     * @return			The requested fields of the contact corresponding to the input ID, with the ETag of these fields
+     * @throws	InvalidRequestParameterException
+     * If a field did not exist, it would throw this exception.
+     */
+	@GetMapping(path = "/{id}", params = "fields")
+	public ResponseEntity<Map<String, Object>> fetchContactFieldsById(@PathVariable("id") long id, @RequestParam(name = "fields") String fields) {
+		ContactFields contactFields = readFields(fields);
+		Contact contact = contactService.fetchById(id);
+		return ResponseEntity.ok().eTag(ContactETag.of(contact, contactFields)).body(contactFields.valuesOf(contact));
 	}
 
     /**
      * Fetch contact based on their last and first names
+     * The response carries the ETag of the contact; a request whose If-None-Match holds it gets a 304 without the body.
      * @param	lastName	The last name (string) of the contact to fetch
      * @param	firstName	The first name (string) of the contact to fetch
      * @return				The contact fetched from the repository corresponding to the input last and first names
@@ -62,39 +487,163 @@ public class ContactController {
 	@GetMapping(path = "/{firstName}" + "/{lastName}")
 	public ResponseEntity<Contact> fetchContactByLastNameAndFirstName(@PathVariable("lastName") String lastName,
 			@PathVariable("firstName") String firstName) {		
-		ResponseEntity<Contact> response = ResponseEntity.ok(contactService.fetchByLastNameAndFirstName(lastName, firstName));
-		return response;
+		Contact contact = contactService.fetchByLastNameAndFirstName(lastName, firstName);
+		if (contact == null) {
+			return ResponseEntity.ok(contact);
+		}
+		return withETag(contact, HttpStatus.OK);
+	}
+
+    /**
+     * Fetch contact based on their last and first names, holding only the requested fields (sparse fieldset)
+     * @param	lastName	The last name (string) of the contact to fetch
+     * @param	firstName	The first name (string) of the contact to fetch
+     * @param	fields		The fields (string) to return, separated by commas, among those of a contact
+     * @return				The requested fields of the contact corresponding to the input names, with the ETag of these fields
+     * @throws	InvalidRequestParameterException
+     * If a field did not exist, it would throw this exception.
+     */
+	@GetMapping(path = "/{firstName}" + "/{lastName}", params = "fields")
+	public ResponseEntity<Map<String, Object>> fetchContactFieldsByLastNameAndFirstName(@PathVariable("lastName") String lastName,
+			@PathVariable("firstName") String firstName, @RequestParam(name = "fields") String fields) {
+		ContactFields contactFields = readFields(fields);
+		Contact contact = contactService.fetchByLastNameAndFirstName(lastName, firstName);
+		if (contact == null) {
+			return ResponseEntity.ok(null);
+		}
+		return ResponseEntity.ok().eTag(ContactETag.of(contact, contactFields)).body(contactFields.valuesOf(contact));
 	}
 	
     /**
      * Generate contact
-     * @param	contact	The contact object to be generated
-     * @return			The contact generated
+     * A retry sent with the same 'Idempotency-Key' header is answered with the response to the first request, unhandled.
+     * @param	contact			The contact object to be generated
+     * @param	idempotencyKey	The idempotency key (string) of the request, or null
+     * @return					The contact generated
+     * @throws	IdempotentRequestInProgressException
+     * If the first request with the same idempotency key were still being handled, it would throw this exception.
      */
 	@PostMapping
-	public ResponseEntity<Contact> generateContact(@Valid @RequestBody Contact contact) {
+	public ResponseEntity<Contact> generateContact(@Valid @RequestBody Contact contact,
+			@RequestHeader(name = IdempotencyStore.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws IOException {
 		
-		Contact savedContact = contactService.generate(contact);
+		String fingerprint = "POST " + ContactBook.basePath() + " " + objectMapper.writeValueAsString(contact);
+		return idempotencyStore.execute(idempotencyKey, fingerprint, () -> {
+			Contact savedContact = contactService.generate(contact);
+			
+			HttpHeaders headers = new HttpHeaders();
+			headers.add("Location", ContactBook.basePath() + "/" + String.valueOf(savedContact.getId()));
+			headers.setETag(ContactETag.of(savedContact));
+			
+			ResponseEntity<Contact> response = new ResponseEntity<Contact>(savedContact, headers, HttpStatus.CREATED);
+			return response;
+		});
+	}
+
+    /**
+     * Generate many contacts at once, from either a JSON array or newline-delimited JSON
+     * The body is parsed as a stream and written in chunks, each with one duplicate check query and one batched insert.
+     * A retry sent with the same 'Idempotency-Key' header is answered with the response to the first request, unhandled, provided
+     * its body hashes the same.
+     * @param	body			The request body holding the contacts to be generated
+     * @param	idempotencyKey	The idempotency key (string) of the request, or null
+     * @return					The outcome (created, duplicate or invalid) of each contact, the totals and the throughput
+     * @throws	InvalidRequestParameterException
+     * If the body were malformed, or held more than max-contacts contacts, it would throw this exception; contacts before the
+     * malformed one (or the chunks before the limit) may already be created.
+     * @throws	IdempotentRequestInProgressException
+     * If the first request with the same idempotency key were still being handled, it would throw this exception.
+     */
+	@PostMapping(path = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	@Expensive
+	public ResponseEntity<ContactBatchResult> generateContacts(InputStream body,
+			@RequestHeader(name = IdempotencyStore.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws IOException {
 		
-		HttpHeaders headers = new HttpHeaders();
-		headers.add("Location", "/contact/" + String.valueOf(savedContact.getId()));
+		return idempotencyStore.execute(idempotencyKey, "POST " + ContactBook.basePath() + "/batch", body, contactsBody -> {
+			try (MappingIterator<Contact> contacts = objectMapper.readerFor(Contact.class).readValues(contactsBody)) {
+				return ResponseEntity.ok(contactBatchService.generateAll(new RequestBodyIterator<Contact>(contacts)));
+			} catch (JsonProcessingException e) {
+				throw new InvalidRequestParameterException("Request body is malformed: " + e.getOriginalMessage());
+			}
+		});
+	}
+
+    /**
+     * Import contacts from a CSV file (with a header row naming the fields) or a vCard file, in the background
+     * The file is spooled to disk, then read and written in chunks: the progress is at the URL in the 'Location' header.
+     * A retry sent with the same 'Idempotency-Key' header is answered with the job of the first request, as it stands, provided its
+     * file hashes the same.
+     * @param	contentType		The media type of the file (text/csv, text/vcard or text/x-vcard), whose charset defaults to UTF-8
+     * @param	body			The request body holding the file
+     * @param	idempotencyKey	The idempotency key (string) of the request, or null
+     * @return					The import job, queued
+     * @throws	ServiceOverloadedException
+     * If too many imports were already queued, it would throw this exception.
+     * @throws	IdempotentRequestInProgressException
+     * If the first request with the same idempotency key were still being handled, it would throw this exception.
+     */
+	@PostMapping(path = "/import", consumes = { ContactImportFormat.CSV_VALUE, ContactImportFormat.VCARD_VALUE, ContactImportFormat.X_VCARD_VALUE })
+	@Expensive
+	public ResponseEntity<ContactImportJob> importContacts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body,
+			@RequestHeader(name = IdempotencyStore.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws IOException {
 		
-		ResponseEntity<Contact> response = new ResponseEntity<Contact>(savedContact, headers, HttpStatus.CREATED);
-		return response;
+		return idempotencyStore.execute(idempotencyKey, "POST " + ContactBook.basePath() + "/import " + contentType, body, file -> {
+			MediaType mediaType = MediaType.parseMediaType(contentType);
+			ContactImportFormat format = mediaType.getSubtype().equalsIgnoreCase("csv") ? ContactImportFormat.CSV : ContactImportFormat.VCARD;
+			Charset charset = mediaType.getCharset() == null ? StandardCharsets.UTF_8 : mediaType.getCharset();
+			ContactImportJob job = contactImportService.submit(format, file, charset);
+			
+			HttpHeaders headers = new HttpHeaders();
+			headers.add("Location", ContactBook.basePath() + "/import/" + job.getId());
+			return new ResponseEntity<ContactImportJob>(job, headers, HttpStatus.ACCEPTED);
+		});
+	}
+
+    /**
+     * Fetch the progress of an import
+     * @param	id	The ID (string) of the import job
+     * @return		The import job, with its totals so far and its throughput
+     * @throws	InvalidJobException
+     * If the job did not exist (or had been forgotten), it would throw this exception.
+     */
+	@GetMapping("/import/{id}")
+	public ResponseEntity<ContactImportJob> fetchImport(@PathVariable("id") String id) {
+		return new ResponseEntity<ContactImportJob>(contactImportService.fetchJob(id), HttpStatus.OK);
+	}
+
+    /**
+     * Fetch the records of an import which were not created, as CSV (record, status, message), as far as the import has gone
+     * @param	id	The ID (string) of the import job
+     * @return		The error file, with a row per duplicate or invalid record
+     * @throws	InvalidJobException
+     * If the job did not exist (or had been forgotten), it would throw this exception.
+     */
+	@GetMapping(path = "/import/{id}/errors", produces = ContactImportFormat.CSV_VALUE)
+	public ResponseEntity<Resource> fetchImportErrors(@PathVariable("id") String id) {
+		return new ResponseEntity<Resource>(new FileSystemResource(contactImportService.fetchErrorFile(id)), HttpStatus.OK);
 	}
 
     /**
      * Edit contact's details (except for the ID) based on their ID
-     * @param	id	An input ID number (long)
-     * @return		The edited contact
+     * The response only carries the new ETag of the contact for a conditional edit, as an unconditional one does not read the contact.
+     * @param	id		An input ID number (long)
+     * @param	ifMatch	The ETag of the contact as last fetched (string), or null for an unconditional edit
+     * @return			The edited contact
+     * @throws	StaleContactException
+     * If the contact had been modified since the ETag in If-Match was fetched, it would throw this exception.
      */
 	@PutMapping("/{id}")
-	public ResponseEntity<Contact> editContactById(@PathVariable("id") long id, @Valid @RequestBody Contact contact) {
+	public ResponseEntity<Contact> editContactById(@PathVariable("id") long id, @Valid @RequestBody Contact contact,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		
-		Contact updatedContact = contactService.editById(id, contact);
+		ContactVersion expected = ContactETag.parseIfMatch(ifMatch);
+		Contact updatedContact = contactService.editById(id, contact, expected);
 		
 		HttpHeaders headers = new HttpHeaders();
-		headers.add("Location", "/contact/" + String.valueOf(updatedContact.getId()));
+		headers.add("Location", ContactBook.basePath() + "/" + String.valueOf(updatedContact.getId()));
+		if (expected != null) {
+			headers.setETag(ContactETag.of(updatedContact));
+		}
 		
 		return new ResponseEntity<Contact>(updatedContact, headers, HttpStatus.ACCEPTED);
 	}
@@ -103,37 +652,197 @@ public class ContactController {
      * Edit contact's details (except for the ID, and the last and first names) based on their last and first names
      * @param	lastName	The last name (string) of the contact to edit
      * @param	firstName	The first name (string) of the contact to edit
+     * @param	ifMatch		The ETag of the contact as last fetched (string), or null for an unconditional edit
      * @return				The edited contact
+     * @throws	StaleContactException
+     * If the contact had been modified since the ETag in If-Match was fetched, it would throw this exception.
      */
 	@PutMapping(path = "/{firstName}" + "/{lastName}")
 	public ResponseEntity<Contact> editContactByLastNameAndFirstName(@PathVariable("lastName") String lastName,
-			@PathVariable("firstName") String firstName, @Valid @RequestBody Contact contact) {
+			@PathVariable("firstName") String firstName, @Valid @RequestBody Contact contact,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-		Contact updatedContact = contactService.editByLastNameAndFirstName(lastName, firstName, contact);
+		Contact updatedContact = contactService.editByLastNameAndFirstName(lastName, firstName, contact, ContactETag.parseIfMatch(ifMatch));
 		
 		HttpHeaders headers = new HttpHeaders();
-		headers.add("Location", "/contact/" + updatedContact.getFirstName() + "/" + updatedContact.getLastName());
+		headers.add("Location", ContactBook.basePath() + "/" + updatedContact.getFirstName() + "/" + updatedContact.getLastName());
+		headers.setETag(ContactETag.of(updatedContact));
 		
 		return new ResponseEntity<Contact>(updatedContact, headers, HttpStatus.ACCEPTED);
 	}
 	
+    /**
+     * Patch the supplied fields of a contact (JSON Merge Patch) based on their ID
+     * Only the supplied fields are validated and updated; a null value clears the field.
+     * @param	id		An input ID number (long)
+     * @param	patch	The JSON object holding the fields to be patched and their new values
+     * @param	ifMatch	The ETag of the contact as last fetched (string), or null for an unconditional patch
+     * @return			The patched contact
+     * @throws	InvalidRequestParameterException
+     * If the patch were not an object, held the ID or an unknown field, or held an invalid value, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact had been modified since the ETag in If-Match was fetched, it would throw this exception.
+     */
+	@PatchMapping(path = "/{id}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<Contact> patchContactById(@PathVariable("id") long id, @RequestBody JsonNode patch,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		
+		Contact patchedContact = contactService.patchById(id, readPatch(patch), ContactETag.parseIfMatch(ifMatch));
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", ContactBook.basePath() + "/" + String.valueOf(patchedContact.getId()));
+		headers.setETag(ContactETag.of(patchedContact));
+		
+		return new ResponseEntity<Contact>(patchedContact, headers, HttpStatus.ACCEPTED);
+	}
+	
+    /**
+     * Patch the supplied fields of a contact (JSON Merge Patch) based on their last and first names
+     * Only the supplied fields are validated and updated; a null value clears the field.
+     * @param	lastName	The last name (string) of the contact to patch
+     * @param	firstName	The first name (string) of the contact to patch
+     * @param	patch		The JSON object holding the fields to be patched and their new values
+     * @param	ifMatch		The ETag of the contact as last fetched (string), or null for an unconditional patch
+     * @return				The patched contact
+     * @throws	InvalidRequestParameterException
+     * If the patch were not an object, held the ID or an unknown field, or held an invalid value, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact had been modified since the ETag in If-Match was fetched, it would throw this exception.
+     */
+	@PatchMapping(path = "/{firstName}" + "/{lastName}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<Contact> patchContactByLastNameAndFirstName(@PathVariable("lastName") String lastName,
+			@PathVariable("firstName") String firstName, @RequestBody JsonNode patch,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		
+		Contact patchedContact = contactService.patchByLastNameAndFirstName(lastName, firstName, readPatch(patch), ContactETag.parseIfMatch(ifMatch));
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", ContactBook.basePath() + "/" + patchedContact.getFirstName() + "/" + patchedContact.getLastName());
+		headers.setETag(ContactETag.of(patchedContact));
+		
+		return new ResponseEntity<Contact>(patchedContact, headers, HttpStatus.ACCEPTED);
+	}
+	
     /**
      * Remove contact based on their ID
-     * @param	id	An input ID number (long)
+     * @param	id		An input ID number (long)
+     * @param	ifMatch	The ETag of the contact as last fetched (string), or null for an unconditional removal
+     * @throws	StaleContactException
+     * If the contact had been modified since the ETag in If-Match was fetched, it would throw this exception.
      */
 	@DeleteMapping("/{id}")
-	public ResponseEntity<?> removeContact(@PathVariable("id") long id) {
-		contactService.remove(id);
+	public ResponseEntity<?> removeContact(@PathVariable("id") long id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		contactService.remove(id, ContactETag.parseIfMatch(ifMatch));
 		return ResponseEntity.accepted().build();
 	}
 
     /**
-     * Remove all contacts
+     * Remove all contacts, in the background
+     * They are removed in chunks, each in its own transaction: the progress is at the URL in the 'Location' header.
+     * @return	The delete job, queued
+     * @throws	ServiceOverloadedException
+     * If too many deletes were already queued, it would throw this exception.
      */
 	@DeleteMapping
-	public ResponseEntity<?> removeAllContacts() {
-		contactService.removeAll();
-		return ResponseEntity.accepted().build();
+	@Expensive
+	public ResponseEntity<ContactDeleteJob> removeAllContacts() {
+		return withDeleteLocation(contactDeleteService.submitAll());
+	}
+
+    /**
+     * Remove the contacts matching a filter (IDs, last name, mobile number, email address, born before a date), in the background
+     * They are removed in chunks, each in its own transaction: the progress is at the URL in the 'Location' header.
+     * @param	filter	The criteria the contacts must match, at least one of them
+     * @return			The delete job, queued
+     * @throws	InvalidRequestParameterException
+     * If the filter held no criterion, too many IDs or an invalid mobile number or email address, it would throw this exception.
+     * @throws	ServiceOverloadedException
+     * If too many deletes were already queued, it would throw this exception.
+     */
+	@PostMapping(path = "/delete")
+	@Expensive
+	public ResponseEntity<ContactDeleteJob> removeContacts(@RequestBody ContactDeleteFilter filter) {
+		return withDeleteLocation(contactDeleteService.submit(filter));
+	}
+
+    /**
+     * Fetch the progress of a delete
+     * @param	id	The ID (string) of the delete job
+     * @return		The delete job, with the contacts removed so far and its throughput
+     * @throws	InvalidJobException
+     * If the job did not exist (or had been forgotten), it would throw this exception.
+     */
+	@GetMapping("/delete/{id}")
+	public ResponseEntity<ContactDeleteJob> fetchDelete(@PathVariable("id") String id) {
+		return new ResponseEntity<ContactDeleteJob>(contactDeleteService.fetchJob(id), HttpStatus.OK);
+	}
+	
+	private static ResponseEntity<ContactDeleteJob> withDeleteLocation(ContactDeleteJob job) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", ContactBook.basePath() + "/delete/" + job.getId());
+		return new ResponseEntity<ContactDeleteJob>(job, headers, HttpStatus.ACCEPTED);
+	}
+	
+	private static ResponseEntity<Contact> withETag(Contact contact, HttpStatus status) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ContactETag.of(contact));
+		return new ResponseEntity<Contact>(contact, headers, status);
+	}
+	
+	private static ContactExportFormat readExportFormat(String format) {
+		try {
+			return ContactExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidRequestParameterException("Format " + format + " does not exist.");
+		}
+	}
+	
+	private static ContactFields readFields(String fields) {
+		
+		if (fields.isBlank()) {
+			throw new InvalidRequestParameterException("Fields are invalid, as they must not be blank.");
+		}
+		
+		Set<String> requested = new LinkedHashSet<>();
+		for (String field : fields.split(",")) {
+			if (!ContactFields.FIELDS.contains(field.trim())) {
+				throw new InvalidRequestParameterException("Field " + field.trim() + " does not exist.");
+			}
+			requested.add(field.trim());
+		}
+		return new ContactFields(requested);
+	}
+	
+	private ContactPatch readPatch(JsonNode patch) {
+		
+		if (!patch.isObject()) {
+			throw new InvalidRequestParameterException("Request body is malformed: a JSON object is expected.");
+		}
+		
+		Set<String> fields = new LinkedHashSet<>();
+		patch.fieldNames().forEachRemaining(field -> {
+			if (!ContactPatch.FIELDS.contains(field)) {
+				throw new InvalidRequestParameterException("Field " + field + " cannot be patched.");
+			}
+			fields.add(field);
+		});
+		
+		try {
+			return new ContactPatch(fields, objectMapper.treeToValue(patch, Contact.class));
+		} catch (JsonProcessingException e) {
+			throw new InvalidRequestParameterException("Request body is malformed: " + e.getOriginalMessage());
+		}
+	}
+	
+	private static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+		if (limit == null) {
+			return Math.min(defaultLimit, maxLimit);
+		}
+		if (limit < 1) {
+			throw new InvalidRequestParameterException("Limit " + limit + " is invalid, as it must be a positive number.");
+		}
+		return Math.min(limit, maxLimit);
 	}
 		
 }
@@ -0,0 +1,50 @@
+package com.qa.contactbookapi.controller;
+
+import java.nio.ByteBuffer;
+
+import java.util.Base64;
+
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+
+// Opaque keyset cursor: the ID of the last contact of a page, encoded so that clients do not rely on its format.
+
+final class ContactCursor {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private ContactCursor() {
+	}
+
+    /**
+     * Encode the ID of the last contact returned into a cursor
+     * @param	lastId	The ID (long) of the last contact of the current page
+     * @return			The opaque cursor pointing to the following page
+     */
+	static String encode(long lastId) {
+		return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+	}
+
+    /**
+     * Decode a cursor into the ID after which the following page starts
+     * @param	cursor	The opaque cursor (string) received from the client, or null for the first page
+     * @return			The ID (long) after which the following page starts
+     * @throws	InvalidRequestParameterException
+     * If the cursor were malformed, it would throw this exception.
+     */
+	static long decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return 0L;
+		}
+		try {
+			byte[] bytes = DECODER.decode(cursor);
+			if (bytes.length == Long.BYTES) {
+				return ByteBuffer.wrap(bytes).getLong();
+			}
+		} catch (IllegalArgumentException e) {
+			// Fall through to the exception below.
+		}
+		throw new InvalidRequestParameterException("Cursor " + cursor + " is invalid.");
+	}
+
+}
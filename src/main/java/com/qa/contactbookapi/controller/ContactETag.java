@@ -0,0 +1,59 @@
+package com.qa.contactbookapi.controller;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.qa.contactbookapi.data.dto.ContactFields;
+import com.qa.contactbookapi.data.dto.ContactVersion;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.StaleContactException;
+
+// Strong entity tag of a contact: its ID and version, so that a tag obtained by name cannot match another contact renamed since.
+// A sparse fieldset of the contact is another representation of it, so its tag also names the fields it holds.
+
+final class ContactETag {
+
+	private static final Pattern ETAG = Pattern.compile("\"(\\d{1,18})-(\\d{1,18})(?:-[A-Za-z.]+)?\"");
+
+	private ContactETag() {
+	}
+
+    /**
+     * Build the entity tag of a contact
+     * @param	contact	The contact, as read from the repository
+     * @return			The quoted entity tag, e.g. "4-2" for version 2 of the contact with ID 4
+     */
+	static String of(Contact contact) {
+		return "\"" + contact.getId() + "-" + contact.getVersion() + "\"";
+	}
+
+    /**
+     * Build the entity tag of a sparse fieldset of a contact
+     * @param	contact	The contact, as read from the repository
+     * @param	fields	The fields of the contact returned
+     * @return			The quoted entity tag, e.g. "4-2-id.firstName" for the ID and first name of version 2 of the contact with ID 4
+     */
+	static String of(Contact contact, ContactFields fields) {
+		return "\"" + contact.getId() + "-" + contact.getVersion() + "-" + String.join(".", fields.getFields()) + "\"";
+	}
+
+    /**
+     * Parse the If-Match header of a conditional write
+     * The tag of a sparse fieldset names the same version of the contact as its full tag, so either may be sent.
+     * @param	ifMatch	The If-Match header (string), or null if the write is unconditional
+     * @return			The version of the contact the client expects to replace, or null if any version may be replaced
+     * @throws	StaleContactException
+     * If the header were not an entity tag of a contact, it could not match the current one, so it would throw this exception.
+     */
+	static ContactVersion parseIfMatch(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		Matcher matcher = ETAG.matcher(ifMatch.trim());
+		if (!matcher.matches()) {
+			throw new StaleContactException("If-Match " + ifMatch + " does not match the current version of the contact.");
+		}
+		return new ContactVersion(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.qa.contactbookapi.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes one JSON value per line (newline-delimited JSON) to a streamed response, through a single buffered generator.
+
+final class NdjsonWriter implements Closeable {
+
+	private final ObjectWriter objectWriter;
+	
+	private final JsonGenerator generator;
+
+	NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+		this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.generator = objectMapper.getFactory().createGenerator(outputStream);
+		this.generator.setRootValueSeparator(null);
+	}
+
+    /**
+     * Write a value as one line
+     * @param	value	The value to be serialised
+     * @throws	UncheckedIOException
+     * If the client went away or the value could not be written, it would throw this exception.
+     */
+	void write(Object value) {
+		try {
+			objectWriter.writeValue(generator, value);
+			generator.writeRaw('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+
+}
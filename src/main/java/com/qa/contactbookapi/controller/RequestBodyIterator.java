@@ -0,0 +1,51 @@
+package com.qa.contactbookapi.controller;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+
+// Iterates over the values of a streamed request body, reporting any parsing error as a bad request.
+
+final class RequestBodyIterator<T> implements Iterator<T> {
+
+	private final MappingIterator<T> values;
+	
+	private int position;
+
+	RequestBodyIterator(MappingIterator<T> values) {
+		this.values = values;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return values.hasNextValue();
+		} catch (IOException e) {
+			throw malformed(e);
+		}
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		try {
+			T value = values.nextValue();
+			position++;
+			return value;
+		} catch (IOException e) {
+			throw malformed(e);
+		}
+	}
+	
+	private InvalidRequestParameterException malformed(IOException e) {
+		return new InvalidRequestParameterException("Request body is malformed at item " + position + " (" + e.getMessage()
+				+ "); the items before it have already been processed.");
+	}
+
+}
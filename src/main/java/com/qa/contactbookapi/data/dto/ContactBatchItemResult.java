@@ -0,0 +1,84 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// This 'ContactBatchItemResult' class reports what happened to one contact of a bulk create request.
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactBatchItemResult {
+
+	private int index;
+	
+	private ContactBatchItemStatus status;
+	
+	private Long id;
+	
+	private String message;
+
+	public ContactBatchItemResult() {
+		super();
+	}
+
+	public ContactBatchItemResult(int index, ContactBatchItemStatus status, Long id, String message) {
+		super();
+		this.index = index;
+		this.status = status;
+		this.id = id;
+		this.message = message;
+	}
+
+	public static ContactBatchItemResult created(int index, long id) {
+		return new ContactBatchItemResult(index, ContactBatchItemStatus.CREATED, id, null);
+	}
+
+	public static ContactBatchItemResult duplicate(int index, String message) {
+		return new ContactBatchItemResult(index, ContactBatchItemStatus.DUPLICATE, null, message);
+	}
+
+	public static ContactBatchItemResult invalid(int index, String message) {
+		return new ContactBatchItemResult(index, ContactBatchItemStatus.INVALID, null, message);
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public ContactBatchItemStatus getStatus() {
+		return status;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactBatchItemResult [index=" + index + ", status=" + status + ", id=" + id + ", message=" + message + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, index, message, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContactBatchItemResult other = (ContactBatchItemResult) obj;
+
+		return Objects.equals(id, other.id) && index == other.index && Objects.equals(message, other.message)
+				&& status == other.status;
+	}
+
+}
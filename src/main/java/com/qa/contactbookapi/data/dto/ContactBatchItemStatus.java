@@ -0,0 +1,13 @@
+package com.qa.contactbookapi.data.dto;
+
+// Outcome of one contact submitted through the bulk create endpoint.
+
+public enum ContactBatchItemStatus {
+
+	CREATED,
+	
+	DUPLICATE,
+	
+	INVALID
+	
+}
@@ -0,0 +1,77 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// This 'ContactBatchResult' class summarises a bulk create request: per-item outcomes, totals and throughput.
+
+public class ContactBatchResult {
+
+	private int created;
+	
+	private int duplicates;
+	
+	private int invalid;
+	
+	private long elapsedMillis;
+	
+	private double rowsPerSecond;
+	
+	private List<ContactBatchItemResult> items = new ArrayList<>();
+
+	public void addAll(List<ContactBatchItemResult> chunkResults) {
+		for (ContactBatchItemResult item : chunkResults) {
+			switch (item.getStatus()) {
+			case CREATED:
+				created++;
+				break;
+			case DUPLICATE:
+				duplicates++;
+				break;
+			default:
+				invalid++;
+			}
+			items.add(item);
+		}
+	}
+
+    /**
+     * Record the time taken by the whole request and derive the throughput from it
+     * @param	elapsedNanos	The time (long) taken to process every item, in nanoseconds
+     */
+	public void complete(long elapsedNanos) {
+		this.elapsedMillis = elapsedNanos / 1_000_000;
+		this.rowsPerSecond = elapsedNanos == 0 ? 0 : items.size() * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public int getDuplicates() {
+		return duplicates;
+	}
+
+	public int getInvalid() {
+		return invalid;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public double getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	public List<ContactBatchItemResult> getItems() {
+		return items;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactBatchResult [created=" + created + ", duplicates=" + duplicates + ", invalid=" + invalid
+				+ ", elapsedMillis=" + elapsedMillis + ", rowsPerSecond=" + rowsPerSecond + "]";
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.qa.contactbookapi.books.ContactBook;
+
+// This 'ContactChange' class is one entry of the change feed: a write to a contact, in the order of its sequence number.
+// The contact is held as the JSON stored with the change, and is written out as is. The book of the contact changed is
+// only used to filter the feed of each book, whose readers already know it.
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactChange {
+
+	private long sequence;
+	
+	private ContactChangeType type;
+	
+	private Long contactId;
+	
+	@JsonRawValue
+	private String contact;
+	
+	private Instant changedAt;
+	
+	@JsonIgnore
+	private String book;
+
+	public ContactChange(long sequence, ContactChangeType type, Long contactId, String contact, Instant changedAt) {
+		this(sequence, type, contactId, contact, changedAt, ContactBook.DEFAULT);
+	}
+
+	public ContactChange(long sequence, ContactChangeType type, Long contactId, String contact, Instant changedAt, String book) {
+		super();
+		this.sequence = sequence;
+		this.type = type;
+		this.contactId = contactId;
+		this.contact = contact;
+		this.changedAt = changedAt;
+		this.book = book;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public ContactChangeType getType() {
+		return type;
+	}
+
+	public Long getContactId() {
+		return contactId;
+	}
+
+	public String getContact() {
+		return contact;
+	}
+
+	public Instant getChangedAt() {
+		return changedAt;
+	}
+
+	public String getBook() {
+		return book;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactChange [sequence=" + sequence + ", type=" + type + ", contactId=" + contactId + ", contact=" + contact
+				+ ", changedAt=" + changedAt + ", book=" + book + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(book, changedAt, contact, contactId, sequence, type);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContactChange other = (ContactChange) obj;
+
+		return sequence == other.sequence && type == other.type && Objects.equals(contactId, other.contactId)
+				&& Objects.equals(contact, other.contact) && Objects.equals(changedAt, other.changedAt)
+				&& Objects.equals(book, other.book);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.List;
+
+// This 'ContactChangePage' class is one read of the change feed of a book: its changes, and the sequence number to read on
+// from. Sequence numbers are shared by every book, so the next one may be past the last change of the book read.
+
+public class ContactChangePage {
+
+	private List<ContactChange> changes;
+	
+	private long nextSince;
+
+	public ContactChangePage(List<ContactChange> changes, long nextSince) {
+		super();
+		this.changes = changes;
+		this.nextSince = nextSince;
+	}
+
+	public List<ContactChange> getChanges() {
+		return changes;
+	}
+
+	public long getNextSince() {
+		return nextSince;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactChangePage [changes=" + changes + ", nextSince=" + nextSince + "]";
+	}
+
+}
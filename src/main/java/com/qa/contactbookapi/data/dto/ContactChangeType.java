@@ -0,0 +1,16 @@
+package com.qa.contactbookapi.data.dto;
+
+// Kind of write recorded in the change feed. REMOVED_ALL stands for the removal of every contact at once, which is no longer
+// recorded (bulk deletes record a REMOVED change per contact) but may still be read from the changes recorded before.
+
+public enum ContactChangeType {
+
+	CREATED,
+	
+	UPDATED,
+	
+	REMOVED,
+	
+	REMOVED_ALL
+	
+}
@@ -0,0 +1,90 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// This 'ContactDeleteFilter' class selects the contacts of a bulk delete: every criterion supplied must match, and a filter
+// without any selects every contact of the book. Mobile numbers and email addresses match as their look-up keys do.
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContactDeleteFilter {
+
+	private List<Long> ids;
+	
+	private String lastName;
+	
+	private String mobileNumber;
+	
+	private String emailAddress;
+	
+	private LocalDate bornBefore;
+
+	public ContactDeleteFilter() {
+		super();
+	}
+
+	public ContactDeleteFilter(List<Long> ids, String lastName, String mobileNumber, String emailAddress, LocalDate bornBefore) {
+		super();
+		this.ids = ids;
+		this.lastName = lastName;
+		this.mobileNumber = mobileNumber;
+		this.emailAddress = emailAddress;
+		this.bornBefore = bornBefore;
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public void setLastName(String lastName) {
+		this.lastName = lastName;
+	}
+
+	public String getMobileNumber() {
+		return mobileNumber;
+	}
+
+	public void setMobileNumber(String mobileNumber) {
+		this.mobileNumber = mobileNumber;
+	}
+
+	public String getEmailAddress() {
+		return emailAddress;
+	}
+
+	public void setEmailAddress(String emailAddress) {
+		this.emailAddress = emailAddress;
+	}
+
+	public LocalDate getBornBefore() {
+		return bornBefore;
+	}
+
+	public void setBornBefore(LocalDate bornBefore) {
+		this.bornBefore = bornBefore;
+	}
+
+	// Whether the filter selects every contact of the book.
+	@JsonIgnore
+	public boolean isEmpty() {
+		return ids == null && lastName == null && mobileNumber == null && emailAddress == null && bornBefore == null;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactDeleteFilter [ids=" + (ids == null ? null : ids.size()) + ", lastName=" + lastName + ", mobileNumber=" + mobileNumber
+				+ ", emailAddress=" + emailAddress + ", bornBefore=" + bornBefore + "]";
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.qa.contactbookapi.data.dto;
+
+// This 'ContactDeleteJob' class reports the progress of a bulk delete: the contacts removed so far, and in how many chunks.
+
+public class ContactDeleteJob extends ContactJob {
+
+	// Most contacts the delete may remove, when known up front: the size of the book, or the number of IDs listed.
+	private final Long expected;
+	
+	private volatile long removed;
+	
+	private volatile long chunks;
+
+	public ContactDeleteJob(Long expected) {
+		super();
+		this.expected = expected;
+	}
+
+	public void addChunk(int chunkRemoved) {
+		removed += chunkRemoved;
+		chunks++;
+	}
+
+	public Long getExpected() {
+		return expected;
+	}
+
+	public long getRemoved() {
+		return removed;
+	}
+
+	// Chunks committed so far, each in its own transaction.
+	public long getChunks() {
+		return chunks;
+	}
+
+	@Override
+	protected long rows() {
+		return removed;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactDeleteJob [id=" + getId() + ", expected=" + expected + ", status=" + getStatus() + ", removed=" + removed
+				+ ", chunks=" + chunks + ", error=" + getError() + "]";
+	}
+
+}
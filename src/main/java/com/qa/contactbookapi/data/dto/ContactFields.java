@@ -0,0 +1,102 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.persistence.Tuple;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+// This 'ContactFields' class holds the fields of a contact requested through a sparse fieldset (the 'fields' parameter),
+// always including the ID, in the order of FIELDS. Contacts are written as maps holding those fields only, either read
+// column by column or copied from a contact already loaded, without any reflection.
+
+public class ContactFields {
+
+	// Every field of a contact, by the name of its property (which is also its JPQL path).
+	public static final List<String> FIELDS = List.of("id", "firstName", "lastName", "mobileNumber", "emailAddress", "dateOfBirth");
+
+	private List<String> fields;
+
+	public ContactFields(Collection<String> fields) {
+		super();
+		this.fields = FIELDS.stream().filter(field -> field.equals("id") || fields.contains(field)).collect(Collectors.toList());
+	}
+
+	public List<String> getFields() {
+		return fields;
+	}
+
+    /**
+     * Copy the requested fields, and only those, out of a contact
+     * @param	contact	The contact loaded
+     * @return			The requested fields of the contact, by name, in order
+     */
+	public Map<String, Object> valuesOf(Contact contact) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (String field : fields) {
+			values.put(field, valueOf(contact, field));
+		}
+		return values;
+	}
+
+    /**
+     * Name the columns of a row holding the requested fields in order
+     * @param	row	The values of the requested fields, in order
+     * @return		The requested fields of the contact, by name, in order
+     */
+	public Map<String, Object> valuesOf(Tuple row) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (int i = 0; i < fields.size(); i++) {
+			values.put(fields.get(i), row.get(i));
+		}
+		return values;
+	}
+
+	private static Object valueOf(Contact contact, String field) {
+		switch (field) {
+		case "id":
+			return contact.getId();
+		case "firstName":
+			return contact.getFirstName();
+		case "lastName":
+			return contact.getLastName();
+		case "mobileNumber":
+			return contact.getMobileNumber();
+		case "emailAddress":
+			return contact.getEmailAddress();
+		case "dateOfBirth":
+			return contact.getDateOfBirth();
+		default:
+			throw new IllegalArgumentException("Field " + field + " does not exist.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ContactFields [fields=" + fields + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fields);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContactFields other = (ContactFields) obj;
+
+		return Objects.equals(fields, other.fields);
+	}
+
+}
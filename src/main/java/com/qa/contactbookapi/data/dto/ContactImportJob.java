@@ -0,0 +1,79 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.List;
+
+import com.qa.contactbookapi.imports.ContactImportFormat;
+
+// This 'ContactImportJob' class reports the progress of a bulk import: its totals so far.
+
+public class ContactImportJob extends ContactJob {
+
+	private final ContactImportFormat format;
+	
+	private volatile long processed;
+	
+	private volatile long created;
+	
+	private volatile long duplicates;
+	
+	private volatile long invalid;
+
+	public ContactImportJob(ContactImportFormat format) {
+		super();
+		this.format = format;
+	}
+
+	public void addUnreadable() {
+		invalid++;
+		processed++;
+	}
+
+	public void addAll(List<ContactBatchItemResult> chunkResults) {
+		for (ContactBatchItemResult item : chunkResults) {
+			switch (item.getStatus()) {
+			case CREATED:
+				created++;
+				break;
+			case DUPLICATE:
+				duplicates++;
+				break;
+			default:
+				invalid++;
+			}
+		}
+		processed += chunkResults.size();
+	}
+
+	public ContactImportFormat getFormat() {
+		return format;
+	}
+
+	// Records read so far, each of them created, a duplicate or invalid.
+	public long getProcessed() {
+		return processed;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	public long getInvalid() {
+		return invalid;
+	}
+
+	@Override
+	protected long rows() {
+		return processed;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactImportJob [id=" + getId() + ", format=" + format + ", status=" + getStatus() + ", processed=" + processed
+				+ ", created=" + created + ", duplicates=" + duplicates + ", invalid=" + invalid + ", error=" + getError() + "]";
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// This 'ContactJob' class reports what every background job (a bulk import or a bulk delete) has in common: its status,
+// its timing and its throughput, in rows handled per second. It is updated by the single thread running the job, and read
+// by any other.
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public abstract class ContactJob {
+
+	private final String id = UUID.randomUUID().toString();
+	
+	private volatile ContactJobStatus status = ContactJobStatus.QUEUED;
+	
+	private volatile Instant startedAt;
+	
+	private volatile Instant completedAt;
+	
+	private volatile String error;
+
+	public void start() {
+		startedAt = Instant.now();
+		status = ContactJobStatus.RUNNING;
+	}
+
+	public void complete() {
+		completedAt = Instant.now();
+		status = ContactJobStatus.COMPLETED;
+	}
+
+	public void fail(String error) {
+		this.error = error;
+		completedAt = Instant.now();
+		status = ContactJobStatus.FAILED;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public ContactJobStatus getStatus() {
+		return status;
+	}
+
+	public Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public Instant getCompletedAt() {
+		return completedAt;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public long getElapsedMillis() {
+		Instant start = startedAt;
+		if (start == null) {
+			return 0;
+		}
+		Instant end = completedAt;
+		return (end == null ? Instant.now() : end).toEpochMilli() - start.toEpochMilli();
+	}
+
+	public double getRowsPerSecond() {
+		long elapsedMillis = getElapsedMillis();
+		return elapsedMillis == 0 ? 0 : rows() * 1000.0 / elapsedMillis;
+	}
+
+	@JsonIgnore
+	public boolean isDone() {
+		return status == ContactJobStatus.COMPLETED || status == ContactJobStatus.FAILED;
+	}
+
+	// Rows handled so far, from which the throughput is worked out.
+	protected abstract long rows();
+
+}
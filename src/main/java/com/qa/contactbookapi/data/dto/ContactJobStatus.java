@@ -0,0 +1,15 @@
+package com.qa.contactbookapi.data.dto;
+
+// This 'ContactJobStatus' enum tells how far a background job (a bulk import or a bulk delete) has gone.
+
+public enum ContactJobStatus {
+	
+	QUEUED,
+	
+	RUNNING,
+	
+	COMPLETED,
+	
+	FAILED
+
+}
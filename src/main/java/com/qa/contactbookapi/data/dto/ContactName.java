@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.data.dto;
+
+// Closed projection used when only the (last name, first name) pair identifying a contact is needed.
+
+public interface ContactName {
+
+	String getLastName();
+	
+	String getFirstName();
+	
+}
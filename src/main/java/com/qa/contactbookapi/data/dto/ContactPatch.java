@@ -0,0 +1,73 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.List;
+import java.util.Set;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+// This 'ContactPatch' class holds the fields supplied in a partial update (JSON Merge Patch) of a contact, and their new values.
+
+public class ContactPatch {
+
+	// Every field of a contact but its ID can be patched.
+	public static final List<String> FIELDS = List.of("firstName", "lastName", "mobileNumber", "emailAddress", "dateOfBirth");
+
+	private Set<String> fields;
+	
+	private Contact values;
+
+	public ContactPatch(Set<String> fields, Contact values) {
+		super();
+		this.fields = fields;
+		this.values = values;
+	}
+
+	public Set<String> getFields() {
+		return fields;
+	}
+
+    /**
+     * Get the new value of a supplied field
+     * @param	field	The name (string) of the field, one of FIELDS
+     * @return			The new value of the field, which is null if the field is to be cleared
+     */
+	public Object getValue(String field) {
+		switch (field) {
+		case "firstName":
+			return values.getFirstName();
+		case "lastName":
+			return values.getLastName();
+		case "mobileNumber":
+			return values.getMobileNumber();
+		case "emailAddress":
+			return values.getEmailAddress();
+		case "dateOfBirth":
+			return values.getDateOfBirth();
+		default:
+			throw new IllegalArgumentException("Field " + field + " cannot be patched.");
+		}
+	}
+
+    /**
+     * Copy the new values of the supplied fields, and only those, onto a contact
+     * @param	contact	The contact to be patched
+     */
+	public void applyTo(Contact contact) {
+		if (fields.contains("firstName")) {
+			contact.setFirstName(values.getFirstName());
+		}
+		if (fields.contains("lastName")) {
+			contact.setLastName(values.getLastName());
+		}
+		if (fields.contains("mobileNumber")) {
+			contact.setMobileNumber(values.getMobileNumber());
+		}
+		if (fields.contains("emailAddress")) {
+			contact.setEmailAddress(values.getEmailAddress());
+		}
+		if (fields.contains("dateOfBirth")) {
+			contact.setDateOfBirth(values.getDateOfBirth());
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.qa.contactbookapi.data.dto;
+
+import org.springframework.http.HttpStatus;
+
+// This 'ContactProblem' class is the body of every error response, as an RFC 7807 problem detail (application/problem+json):
+// the problems are told apart by their status alone, so the type is left as 'about:blank' and the title is the reason phrase.
+
+public class ContactProblem {
+
+	public static final String TYPE = "about:blank";
+
+	private String title;
+
+	private int status;
+
+	private String detail;
+
+	public ContactProblem(HttpStatus status, String detail) {
+		super();
+		this.title = status.getReasonPhrase();
+		this.status = status.value();
+		this.detail = detail;
+	}
+
+	public String getType() {
+		return TYPE;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactProblem [type=" + TYPE + ", title=" + title + ", status=" + status + ", detail=" + detail + "]";
+	}
+
+}
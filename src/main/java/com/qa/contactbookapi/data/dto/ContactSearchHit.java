@@ -0,0 +1,58 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.Objects;
+
+// This 'ContactSearchHit' class is one result of a name search, answered from the in-memory search index alone;
+// the rest of the contact is fetched by ID.
+
+public class ContactSearchHit {
+
+	private long id;
+
+	private String firstName;
+
+	private String lastName;
+
+	public ContactSearchHit(long id, String firstName, String lastName) {
+		super();
+		this.id = id;
+		this.firstName = firstName;
+		this.lastName = lastName;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactSearchHit [id=" + id + ", firstName=" + firstName + ", lastName=" + lastName + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, firstName, lastName);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContactSearchHit other = (ContactSearchHit) obj;
+
+		return id == other.id && Objects.equals(firstName, other.firstName) && Objects.equals(lastName, other.lastName);
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.qa.contactbookapi.data.dto;
+
+import java.util.Objects;
+
+// This 'ContactVersion' class identifies the version of a contact that a conditional write (If-Match) expects to replace.
+
+public class ContactVersion {
+
+	private long id;
+	
+	private long version;
+
+	public ContactVersion(long id, long version) {
+		super();
+		this.id = id;
+		this.version = version;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactVersion [id=" + id + ", version=" + version + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, version);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ContactVersion other = (ContactVersion) obj;
+		
+		return id == other.id && version == other.version;
+	}
+
+}
@@ -2,25 +2,46 @@ package com.qa.contactbookapi.data.entity;
 
 import java.time.LocalDate;
 
+import java.util.Locale;
 import java.util.Objects;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Length;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import com.qa.contactbookapi.books.ContactBook;
+
 // This 'Contact' class includes relevant details of the contact to be added.
+// Its updates only set the columns that changed (e.g. a patched mobile number), rather than every column.
+// Its mobile number and email address are also kept in a normalised form (the lookup keys), in indexed columns, so that
+// reverse look-ups match however the number or address was written.
+// Its birthday (month and day of the date of birth) is kept as a key too, so that upcoming birthdays are an index range.
+// It belongs to a contact book (tenant), which leads every index; names are unique within a book.
 
 @Entity
-@Table(name = "Contacts")
+@DynamicUpdate
+@Table(name = "Contacts", uniqueConstraints = @UniqueConstraint(name = "uk_contacts_book_last_name_first_name", columnNames = { "book", "lastName", "firstName" }),
+		indexes = { @Index(name = "ix_contacts_book_id", columnList = "book, id"), @Index(name = "ix_contacts_book_mobile_key", columnList = "book, mobileKey"),
+				@Index(name = "ix_contacts_book_email_key", columnList = "book, emailKey"),
+				@Index(name = "ix_contacts_book_birthday_key", columnList = "book, birthdayKey") })
 public class Contact {
 
+	// Country calling code of the numbers dialled within the UK, as validated below.
+	private static final String UK_COUNTRY_CODE = "44";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -41,6 +62,25 @@ public class Contact {
 	private String emailAddress;
 	
 	private LocalDate dateOfBirth;
+	
+	// Derived from the mobile number, email address and date of birth by their setters; left out of the body and of equals/hashCode.
+	@JsonIgnore
+	private String mobileKey;
+	
+	@JsonIgnore
+	private String emailKey;
+	
+	@JsonIgnore
+	private Integer birthdayKey;
+	
+	// Incremented by every update; exposed through the ETag header rather than the body, and left out of equals/hashCode.
+	@Version
+	@JsonIgnore
+	private long version;
+	
+	// Set from the book of the request when created, and never changed; left out of the body and of equals/hashCode.
+	@JsonIgnore
+	private String book = ContactBook.DEFAULT;
 
 	public Contact() {
 		super();	
@@ -51,9 +91,9 @@ public class Contact {
 		this.id = id;
 		this.firstName = firstName;
 		this.lastName = lastName;
-		this.mobileNumber = mobileNumber;
-		this.emailAddress = emailAddress;
-		this.dateOfBirth = dateOfBirth;
+		setMobileNumber(mobileNumber);
+		setEmailAddress(emailAddress);
+		setDateOfBirth(dateOfBirth);
 	
 	}
 
@@ -61,9 +101,9 @@ public class Contact {
 		super();
 		this.firstName = firstName;
 		this.lastName = lastName;
-		this.mobileNumber = mobileNumber;
-		this.emailAddress = emailAddress;
-		this.dateOfBirth = dateOfBirth;
+		setMobileNumber(mobileNumber);
+		setEmailAddress(emailAddress);
+		setDateOfBirth(dateOfBirth);
  
 	}
   
@@ -97,6 +137,7 @@ public class Contact {
 
 	public void setMobileNumber(String mobileNumber) {
 		this.mobileNumber = mobileNumber;
+		this.mobileKey = mobileKeyOf(mobileNumber);
 	}
 
 	public String getEmailAddress() {
@@ -105,6 +146,7 @@ public class Contact {
 
 	public void setEmailAddress(String emailAddress) {
 		this.emailAddress = emailAddress;
+		this.emailKey = emailKeyOf(emailAddress);
 	}
 
 	public LocalDate getDateOfBirth() {
@@ -113,6 +155,84 @@ public class Contact {
 
 	public void setDateOfBirth(LocalDate dateOfBirth) {
 		this.dateOfBirth = dateOfBirth;
+		this.birthdayKey = birthdayKeyOf(dateOfBirth);
+	}
+
+	public String getMobileKey() {
+		return mobileKey;
+	}
+
+	public String getEmailKey() {
+		return emailKey;
+	}
+
+	public Integer getBirthdayKey() {
+		return birthdayKey;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public String getBook() {
+		return book;
+	}
+
+	public void setBook(String book) {
+		this.book = book;
+	}
+
+    /**
+     * Normalise a mobile number into its lookup key: the digits of its international (E.164) form, without the '+'
+     * Numbers dialled within the UK (starting with a single 0) are taken as UK numbers; '00' prefixes are international.
+     * @param	mobileNumber	The mobile number (string), in any common format, e.g. "07777 777777" or "+44 7777 777777"
+     * @return					The lookup key (string), e.g. "447777777777", or null if the number holds no digits
+     */
+	public static String mobileKeyOf(String mobileNumber) {
+		if (mobileNumber == null) {
+			return null;
+		}
+		
+		boolean international = mobileNumber.trim().startsWith("+");
+		String digits = mobileNumber.replaceAll("[^0-9]", "");
+		if (digits.isEmpty()) {
+			return null;
+		}
+		if (!international && digits.startsWith("00")) {
+			return digits.substring(2);
+		}
+		if (!international && digits.startsWith("0")) {
+			return UK_COUNTRY_CODE + digits.substring(1);
+		}
+		return digits;
+	}
+
+    /**
+     * Normalise an email address into its lookup key: trimmed and lower-cased
+     * @param	emailAddress	The email address (string)
+     * @return					The lookup key (string), or null if the address is blank
+     */
+	public static String emailKeyOf(String emailAddress) {
+		if (emailAddress == null || emailAddress.isBlank()) {
+			return null;
+		}
+		return emailAddress.trim().toLowerCase(Locale.ROOT);
+	}
+
+    /**
+     * Turn a date (of birth) into its birthday key: its month and day, as month x 100 + day, which sort in calendar order
+     * @param	date	The date, e.g. 1993-04-06
+     * @return			The birthday key (int), e.g. 406 (229 for 29 February), or null if there is no date
+     */
+	public static Integer birthdayKeyOf(LocalDate date) {
+		if (date == null) {
+			return null;
+		}
+		return date.getMonthValue() * 100 + date.getDayOfMonth();
 	}
 
 	@Override
@@ -0,0 +1,163 @@
+package com.qa.contactbookapi.data.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Plain JDBC access for bulk writes: Hibernate cannot batch inserts of entities using GenerationType.IDENTITY, and deletes
+// in chunks of IDs need the IDs they removed, which a bulk JPQL DELETE does not return.
+
+@Repository
+public class ContactBatchRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO contacts (first_name, last_name, mobile_number, email_address, date_of_birth, mobile_key, email_key, birthday_key, book) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	
+	private static final String SELECT_MAX_ID_SQL = "SELECT MAX(id) FROM contacts WHERE book = ?";
+	
+	private static final String DELETE_SQL = "DELETE FROM contacts WHERE book = ? AND id IN ";
+	
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ContactBatchRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+    /**
+     * Insert contacts through a single batched JDBC statement, joining the current transaction if any
+     * @param	contacts	The contacts to be inserted; their IDs are set from the generated keys
+     */
+	public void insertAll(List<Contact> contacts) {
+		if (contacts.isEmpty()) {
+			return;
+		}
+		
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+				for (Contact contact : contacts) {
+					statement.setString(1, contact.getFirstName());
+					statement.setString(2, contact.getLastName());
+					statement.setString(3, contact.getMobileNumber());
+					statement.setString(4, contact.getEmailAddress());
+					statement.setDate(5, contact.getDateOfBirth() == null ? null : Date.valueOf(contact.getDateOfBirth()));
+					statement.setString(6, contact.getMobileKey());
+					statement.setString(7, contact.getEmailKey());
+					statement.setObject(8, contact.getBirthdayKey(), Types.INTEGER);
+					statement.setString(9, contact.getBook());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				
+				try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+					int i = 0;
+					while (generatedKeys.next()) {
+						contacts.get(i++).setId(generatedKeys.getLong(1));
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+    /**
+     * Find the highest ID of a book, which bounds a delete of every contact it holds now
+     * @param	book	The book (string) of the contacts
+     * @return			The highest ID (long), or 0 if the book is empty
+     */
+	public long findMaxId(String book) {
+		Long maxId = jdbcTemplate.queryForObject(SELECT_MAX_ID_SQL, Long.class, book);
+		return maxId == null ? 0 : maxId;
+	}
+
+    /**
+     * Find the next contacts of a book matching a filter (but its IDs), in ID order, via a range scan of the (book, id) index,
+     * without locking them: the rows scanned past are never locked, however many fail the filter
+     * @param	book	The book (string) of the contacts
+     * @param	filter	The criteria the contacts must match
+     * @param	afterId	The ID (long) after which to start
+     * @param	maxId	The highest ID (long) to find
+     * @param	limit	The maximum number of contacts (int) to find
+     * @return			The IDs found, in ascending order, to be locked through lockAmong
+     */
+	public List<Long> findNext(String book, ContactDeleteFilter filter, long afterId, long maxId, int limit) {
+		List<Object> args = new ArrayList<>(List.of(book, afterId, maxId));
+		String sql = "SELECT id FROM contacts WHERE book = ? AND id > ? AND id <= ?" + criteria(filter, args) + " ORDER BY id LIMIT ?";
+		args.add(limit);
+		return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+	}
+
+    /**
+     * Lock the contacts of a book among some IDs which match a filter (but its IDs)
+     * @param	book	The book (string) of the contacts
+     * @param	filter	The criteria the contacts must match
+     * @param	ids		The IDs (longs) of the contacts, in ascending order
+     * @return			The IDs locked, in ascending order, until the current transaction ends
+     */
+	public List<Long> lockAmong(String book, ContactDeleteFilter filter, List<Long> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		List<Object> args = new ArrayList<>(ids.size() + 5);
+		args.add(book);
+		args.addAll(ids);
+		String sql = "SELECT id FROM contacts WHERE book = ? AND id IN " + placeholders(ids.size()) + criteria(filter, args) + " ORDER BY id FOR UPDATE";
+		return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+	}
+
+    /**
+     * Delete contacts of a book through a single statement, joining the current transaction if any
+     * @param	book	The book (string) of the contacts
+     * @param	ids		The IDs (longs) of the contacts
+     * @return			The number of contacts (int) deleted
+     */
+	public int deleteAll(String book, List<Long> ids) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		List<Object> args = new ArrayList<>(ids.size() + 1);
+		args.add(book);
+		args.addAll(ids);
+		return jdbcTemplate.update(DELETE_SQL + placeholders(ids.size()), args.toArray());
+	}
+
+	// Conditions on the indexed look-up keys rather than on the values as supplied, as the look-ups by mobile and email do.
+	private static String criteria(ContactDeleteFilter filter, List<Object> args) {
+		StringBuilder criteria = new StringBuilder();
+		if (filter.getLastName() != null) {
+			criteria.append(" AND last_name = ?");
+			args.add(filter.getLastName());
+		}
+		if (filter.getMobileNumber() != null) {
+			criteria.append(" AND mobile_key = ?");
+			args.add(Contact.mobileKeyOf(filter.getMobileNumber()));
+		}
+		if (filter.getEmailAddress() != null) {
+			criteria.append(" AND email_key = ?");
+			args.add(Contact.emailKeyOf(filter.getEmailAddress()));
+		}
+		if (filter.getBornBefore() != null) {
+			criteria.append(" AND date_of_birth < ?");
+			args.add(Date.valueOf(filter.getBornBefore()));
+		}
+		return criteria.toString();
+	}
+
+	private static String placeholders(int count) {
+		return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.qa.contactbookapi.data.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Plain JDBC access to the count of contacts of each book. Every statement is a single conditional UPDATE (or a plain
+// read), meant to run on its own, outside of the write being counted: the row of a book is then locked for that statement
+// only, rather than until the write commits.
+
+@Repository
+public class ContactBookRepository {
+
+	// Attempts at reserving part of a count, when concurrent reservations change the room left in between.
+	private static final int MAX_RESERVE_ATTEMPTS = 5;
+
+	private static final String INSERT_SQL = "INSERT INTO contact_books (book, contact_count) VALUES (?, 0)";
+
+	private static final String RESERVE_SQL = "UPDATE contact_books SET contact_count = contact_count + ? WHERE book = ? AND contact_count + ? <= ?";
+
+	private static final String RELEASE_SQL = "UPDATE contact_books SET contact_count = GREATEST(contact_count - ?, 0) WHERE book = ?";
+
+	private static final String SELECT_SQL = "SELECT contact_count FROM contact_books WHERE book = ?";
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ContactBookRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+    /**
+     * Add contacts to the count of a book, only if it would stay within a maximum, via a single conditional UPDATE
+     * @param	book		The book (string) of the contacts
+     * @param	count		The number of contacts (int) to add
+     * @param	maxCount	The maximum number of contacts (long) of the book
+     * @return				Whether the contacts were added (boolean)
+     */
+	public boolean reserve(String book, int count, long maxCount) {
+		if (jdbcTemplate.update(RESERVE_SQL, count, book, count, maxCount) == 1) {
+			return true;
+		}
+		// Nothing updated: the book is full, or has no row yet, as the row of a new book is only created by its first write.
+		if (find(book) != null) {
+			return false;
+		}
+		create(book);
+		return jdbcTemplate.update(RESERVE_SQL, count, book, count, maxCount) == 1;
+	}
+
+    /**
+     * Add as many contacts to the count of a book as fit within a maximum, up to a number, via conditional UPDATEs
+     * @param	book		The book (string) of the contacts
+     * @param	count		The number of contacts (int) to add at most
+     * @param	maxCount	The maximum number of contacts (long) of the book
+     * @return				The number of contacts (int) added
+     */
+	public int reserveUpTo(String book, int count, long maxCount) {
+		if (reserve(book, count, maxCount)) {
+			return count;
+		}
+		// The room left is read without a lock: the UPDATE only applies if no concurrent reservation took it meanwhile.
+		for (int attempt = 1; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+			Long current = find(book);
+			int reserved = (int) Math.max(0, Math.min(count, maxCount - (current == null ? 0 : current)));
+			if (reserved == 0 || jdbcTemplate.update(RESERVE_SQL, reserved, book, reserved, maxCount) == 1) {
+				return reserved;
+			}
+		}
+		return 0;
+	}
+
+    /**
+     * Take contacts off the count of a book, which never goes below 0
+     * @param	book	The book (string) of the contacts
+     * @param	count	The number of contacts (int) removed
+     */
+	public void release(String book, int count) {
+		jdbcTemplate.update(RELEASE_SQL, count, book);
+	}
+
+    /**
+     * Read the count of a book, without locking it
+     * @param	book	The book (string) of the contacts
+     * @return			The number of contacts (long) of the book, which is 0 for a book never written to
+     */
+	public long count(String book) {
+		Long count = find(book);
+		return count == null ? 0 : count;
+	}
+
+	private Long find(String book) {
+		return jdbcTemplate.query(SELECT_SQL, resultSet -> resultSet.next() ? resultSet.getLong(1) : null, book);
+	}
+
+	private void create(String book) {
+		try {
+			jdbcTemplate.update(INSERT_SQL, book);
+		} catch (DuplicateKeyException e) {
+			// Created concurrently, which is just as good.
+		}
+	}
+
+}
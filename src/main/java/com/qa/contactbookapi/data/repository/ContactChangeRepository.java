@@ -0,0 +1,104 @@
+package com.qa.contactbookapi.data.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactChangeType;
+
+// Plain JDBC access to the outbox of contact changes, joining the transaction of the write being recorded if any.
+
+@Repository
+public class ContactChangeRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO contact_changes (change_type, contact_id, contact, changed_at, book) VALUES (?, ?, ?, ?, ?)";
+
+	private static final String SELECT_AFTER_SQL = "SELECT sequence, change_type, contact_id, contact, changed_at, book FROM contact_changes "
+			+ "WHERE book = ? AND sequence > ? AND sequence <= ? ORDER BY sequence LIMIT ?";
+
+	private static final String SELECT_SEQUENCES_AFTER_SQL = "SELECT sequence FROM contact_changes WHERE sequence > ? ORDER BY sequence LIMIT ?";
+
+	private static final String DELETE_BEFORE_SQL = "DELETE FROM contact_changes WHERE changed_at < ? AND sequence < ? LIMIT ?";
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ContactChangeRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+    /**
+     * Append a change to the outbox
+     * @param	type		The kind of change
+     * @param	contactId	The ID of the contact changed, or null if every contact was
+     * @param	contact		The JSON (string) of the contact as changed, or null if it was removed
+     * @param	changedAt	The time of the change
+     * @param	book		The book (string) of the contact changed
+     */
+	public void append(ContactChangeType type, Long contactId, String contact, Instant changedAt, String book) {
+		jdbcTemplate.update(INSERT_SQL, type.name(), contactId, contact, Timestamp.from(changedAt), book);
+	}
+
+    /**
+     * Append many changes to the outbox through a single batched statement
+     * @param	changes	The changes to append, whose sequence numbers are ignored
+     */
+	public void appendAll(List<ContactChange> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+
+		jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+			statement.setString(1, change.getType().name());
+			statement.setObject(2, change.getContactId());
+			statement.setString(3, change.getContact());
+			statement.setTimestamp(4, Timestamp.from(change.getChangedAt()));
+			statement.setString(5, change.getBook());
+		});
+	}
+
+    /**
+     * Find the changes of a book following a sequence number, up to another one, in order
+     * @param	book	The book (string) whose changes are found
+     * @param	since	The sequence number (long) after which the changes start
+     * @param	upTo	The sequence number (long) of the last change which may be found
+     * @param	limit	The maximum number of changes (int) to find
+     * @return			The changes found, in sequence order
+     */
+	public List<ContactChange> findAfter(String book, long since, long upTo, int limit) {
+		return jdbcTemplate.query(SELECT_AFTER_SQL, (resultSet, rowNumber) -> {
+			long contactId = resultSet.getLong("contact_id");
+			Long nullableContactId = resultSet.wasNull() ? null : contactId;
+			return new ContactChange(resultSet.getLong("sequence"), ContactChangeType.valueOf(resultSet.getString("change_type")),
+					nullableContactId, resultSet.getString("contact"), resultSet.getTimestamp("changed_at").toInstant(),
+					resultSet.getString("book"));
+		}, book, since, upTo, limit);
+	}
+
+    /**
+     * Find the sequence numbers of the changes of every book following a sequence number, in order
+     * @param	since	The sequence number (long) after which the sequence numbers start
+     * @param	limit	The maximum number of sequence numbers (int) to find
+     * @return			The sequence numbers (longs) found, in order
+     */
+	public List<Long> findSequencesAfter(long since, int limit) {
+		return jdbcTemplate.queryForList(SELECT_SEQUENCES_AFTER_SQL, Long.class, since, limit);
+	}
+
+    /**
+     * Delete the oldest changes, up to a given number at once
+     * @param	changedBefore	The time before which the changes were made
+     * @param	before			The sequence number (long) before which the changes come
+     * @param	limit			The maximum number of changes (int) to delete
+     * @return					The number of changes (int) deleted
+     */
+	public int deleteBefore(Instant changedBefore, long before, int limit) {
+		return jdbcTemplate.update(DELETE_BEFORE_SQL, Timestamp.from(changedBefore), before, limit);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.qa.contactbookapi.data.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.qa.contactbookapi.exports.ContactExportWriter;
+
+// Plain JDBC read of the whole contacts table for the bulk export: rows go from a forward-only, read-only cursor straight
+// to the writer, without any entity being built or managed.
+
+@Repository
+public class ContactExportRepository {
+
+	private static final String SELECT_ALL_SQL = "SELECT id, first_name, last_name, mobile_number, email_address, date_of_birth "
+			+ "FROM contacts WHERE book = ? ORDER BY id";
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public ContactExportRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+    /**
+     * Write every contact of a book, ordered by ID, as the rows are fetched
+     * @param	book	The book (string) of the contacts
+     * @param	writer	The writer of the contacts
+     * @throws	UncheckedIOException
+     * If the writer failed (e.g. the client went away), it would throw this exception, and the cursor would be closed.
+     */
+	public void writeAll(String book, ContactExportWriter writer) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setString(1, book);
+			statement.setFetchSize(Integer.parseInt(ContactRepository.STREAM_FETCH_SIZE));
+			return statement;
+		}, resultSet -> {
+			try {
+				writer.write(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+						resultSet.getString(5), resultSet.getObject(6, LocalDate.class));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+}
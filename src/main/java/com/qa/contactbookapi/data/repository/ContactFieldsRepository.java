@@ -0,0 +1,100 @@
+package com.qa.contactbookapi.data.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+
+import com.qa.contactbookapi.data.dto.ContactFields;
+
+// Sparse fieldset reads: only the columns of the requested fields are selected, and no entity is hydrated or managed.
+// The JPQL is built from the field names of ContactFields.FIELDS alone, never from the request itself.
+
+@Repository
+public class ContactFieldsRepository {
+
+	private EntityManager entityManager;
+
+	@Autowired
+	public ContactFieldsRepository(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+    /**
+     * Find one page of contacts, ordered by ID, starting after the given ID (keyset pagination)
+     * @param	book		The book (string) of the contacts
+     * @param	fields		The fields to select
+     * @param	afterId		The ID (long) of the last contact of the previous page (0 for the first page)
+     * @param	pageSize	The maximum number of contacts (int) to find
+     * @return				The page of contacts, which knows whether a following page exists
+     */
+	public Slice<Map<String, Object>> findPage(String book, ContactFields fields, long afterId, int pageSize) {
+		// One more row than the page tells whether a following page exists, without a count query.
+		List<Map<String, Object>> contacts = query(book, fields, "c.id > :value", afterId).setMaxResults(pageSize + 1).getResultList().stream()
+				.map(fields::valuesOf).collect(Collectors.toList());
+
+		boolean hasNext = contacts.size() > pageSize;
+		if (hasNext) {
+			contacts.remove(pageSize);
+		}
+		return new SliceImpl<>(contacts, PageRequest.of(0, pageSize), hasNext);
+	}
+
+    /**
+     * Stream all contacts, ordered by ID, through a forward-only cursor; the caller must hold a (read-only) transaction
+     * @param	book	The book (string) of the contacts
+     * @param	fields	The fields to select
+     * @return			The contacts, to be closed once consumed
+     */
+	public Stream<Map<String, Object>> streamAll(String book, ContactFields fields) {
+		return query(book, fields, null, null).setHint(QueryHints.HINT_FETCH_SIZE, Integer.valueOf(ContactRepository.STREAM_FETCH_SIZE))
+				.getResultStream().map(fields::valuesOf);
+	}
+
+    /**
+     * Find the contacts having a mobile number, by its normalised key
+     * @param	book		The book (string) of the contacts
+     * @param	fields		The fields to select
+     * @param	mobileKey	The normalised key (string) of the mobile number
+     * @return				The contacts having this number, ordered by ID
+     */
+	public List<Map<String, Object>> findByMobileKey(String book, ContactFields fields, String mobileKey) {
+		return query(book, fields, "c.mobileKey = :value", mobileKey).getResultList().stream().map(fields::valuesOf).collect(Collectors.toList());
+	}
+
+    /**
+     * Find the contacts having an email address, by its normalised key
+     * @param	book		The book (string) of the contacts
+     * @param	fields		The fields to select
+     * @param	emailKey	The normalised key (string) of the email address
+     * @return				The contacts having this address, ordered by ID
+     */
+	public List<Map<String, Object>> findByEmailKey(String book, ContactFields fields, String emailKey) {
+		return query(book, fields, "c.emailKey = :value", emailKey).getResultList().stream().map(fields::valuesOf).collect(Collectors.toList());
+	}
+
+	private TypedQuery<Tuple> query(String book, ContactFields fields, String condition, Object value) {
+
+		// Rows are read as tuples, which hold one value per column however many columns are selected.
+		String columns = fields.getFields().stream().map(field -> "c." + field).collect(Collectors.joining(", "));
+		String jpql = "select " + columns + " from Contact c where c.book = :book" + (condition == null ? "" : " and " + condition) + " order by c.id";
+
+		TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class).setParameter("book", book);
+		if (condition != null) {
+			query.setParameter("value", value);
+		}
+		return query;
+	}
+
+}
@@ -1,16 +1,103 @@
 package com.qa.contactbookapi.data.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.qa.contactbookapi.data.dto.ContactName;
 import com.qa.contactbookapi.data.entity.Contact;
 
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
 
-	boolean existsByLastNameAndFirstName(String lastName, String firstName);
+	// Number of rows the JDBC driver is asked to hold per round-trip when streaming contacts.
+	String STREAM_FETCH_SIZE = "500";
+
+	// Every finder is scoped to a book (the leading column of every index), except the stream of all books loading the search index.
+	Optional<Contact> findByIdAndBook(long id, String book);
+
+	boolean existsByIdAndBook(long id, String book);
+
+	boolean existsByBookAndLastNameAndFirstName(String book, String lastName, String firstName);
+
+	Contact findByBookAndLastNameAndFirstName(String book, String lastName, String firstName);
+
+	List<Contact> findByBookOrderById(String book);
+
+	// Superset of the existing (last name, first name) pairs: callers match the exact pairs in memory.
+	@Query("select c.lastName as lastName, c.firstName as firstName from Contact c "
+			+ "where c.book = :book and c.lastName in :lastNames and c.firstName in :firstNames")
+	List<ContactName> findNamesIn(@Param("book") String book, @Param("lastNames") Collection<String> lastNames,
+			@Param("firstNames") Collection<String> firstNames);
+
+	// Reverse look-ups, by the normalised keys of the mobile number and email address (index seeks).
+	List<Contact> findByBookAndMobileKeyOrderById(String book, String mobileKey);
+
+	List<Contact> findByBookAndEmailKeyOrderById(String book, String emailKey);
+
+	Slice<Contact> findByBookAndIdGreaterThan(String book, long id, Pageable pageable);
+
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("select c from Contact c where c.book = :book order by c.id")
+	Stream<Contact> streamByBookOrderById(@Param("book") String book);
+
+	// Birthdays within a range of birthday keys, in calendar order (an index range scan, in the order of the index).
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("select c from Contact c where c.book = :book and c.birthdayKey between :fromKey and :toKey order by c.birthdayKey, c.id")
+	Stream<Contact> streamByBookAndBirthdayKeyBetween(@Param("book") String book, @Param("fromKey") int fromKey, @Param("toKey") int toKey);
+
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("select c from Contact c order by c.id")
+	Stream<Contact> streamAllOrderedById();
+
+	// Single-statement writes: the number of affected rows (0 or 1) tells whether the contact (at the expected version) exists.
+	String UPDATE_CONTACT = "update Contact c set c.firstName = :#{#contact.firstName}, c.lastName = :#{#contact.lastName}, "
+			+ "c.mobileNumber = :#{#contact.mobileNumber}, c.emailAddress = :#{#contact.emailAddress}, "
+			+ "c.mobileKey = :#{#contact.mobileKey}, c.emailKey = :#{#contact.emailKey}, c.birthdayKey = :#{#contact.birthdayKey}, "
+			+ "c.dateOfBirth = :#{#contact.dateOfBirth}, c.version = c.version + 1";
+
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(UPDATE_CONTACT + " where c.id = :id and c.book = :book")
+	int updateContactById(@Param("id") long id, @Param("book") String book, @Param("contact") Contact contact);
+
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(UPDATE_CONTACT + " where c.id = :id and c.book = :book and c.version = :version")
+	int updateContactByIdAndVersion(@Param("id") long id, @Param("book") String book, @Param("version") long version,
+			@Param("contact") Contact contact);
+
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Contact c where c.id = :id and c.book = :book")
+	int deleteContactById(@Param("id") long id, @Param("book") String book);
 
-	Contact findByLastNameAndFirstName(String lastName, String firstName);
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Contact c where c.id = :id and c.book = :book and c.version = :version")
+	int deleteContactByIdAndVersion(@Param("id") long id, @Param("book") String book, @Param("version") long version);
 	
 }
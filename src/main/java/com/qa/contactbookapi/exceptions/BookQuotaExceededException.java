@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.exceptions;
+
+public class BookQuotaExceededException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+
+	public BookQuotaExceededException(String message) {
+		super(message);
+	}
+
+}
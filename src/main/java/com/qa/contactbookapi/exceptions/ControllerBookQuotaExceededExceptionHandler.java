@@ -0,0 +1,19 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerBookQuotaExceededExceptionHandler {
+
+	@ExceptionHandler(value = { BookQuotaExceededException.class })
+	public ResponseEntity<ContactProblem> bookQuotaExceededExceptions(BookQuotaExceededException bqee) {
+		ExceptionCounter.increment(bqee);
+		return ProblemResponses.of(HttpStatus.FORBIDDEN, bqee);
+	}
+}
@@ -7,11 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
 @ControllerAdvice
 public class ControllerDuplicateContactExceptionHandler {
 
 	@ExceptionHandler(value = { DuplicateContactException.class })
-	public ResponseEntity<String> duplicateContactExceptions(DuplicateContactException dce) {
-		return new ResponseEntity<String>(dce.getMessage(), HttpStatus.BAD_REQUEST);
+	public ResponseEntity<ContactProblem> duplicateContactExceptions(DuplicateContactException dce) {
+		ExceptionCounter.increment(dce);
+		return ProblemResponses.of(HttpStatus.BAD_REQUEST, dce);
 	}
 }
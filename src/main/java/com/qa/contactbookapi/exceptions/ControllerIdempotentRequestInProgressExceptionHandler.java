@@ -0,0 +1,20 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerIdempotentRequestInProgressExceptionHandler {
+
+	@ExceptionHandler(value = { IdempotentRequestInProgressException.class })
+	public ResponseEntity<ContactProblem> idempotentRequestInProgressExceptions(IdempotentRequestInProgressException irpe) {
+		ExceptionCounter.increment(irpe);
+		return ProblemResponses.of(HttpStatus.CONFLICT, irpe);
+	}
+}
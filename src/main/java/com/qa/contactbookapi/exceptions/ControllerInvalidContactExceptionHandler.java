@@ -6,11 +6,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
 @ControllerAdvice
 public class ControllerInvalidContactExceptionHandler {
 
 	@ExceptionHandler(value = { InvalidContactException.class })
-	public ResponseEntity<String> invalidContactExceptions(InvalidContactException ice) {
-		return new ResponseEntity<String>(ice.getMessage(), HttpStatus.NOT_FOUND);
+	public ResponseEntity<ContactProblem> invalidContactExceptions(InvalidContactException ice) {
+		ExceptionCounter.increment(ice);
+		return ProblemResponses.of(HttpStatus.NOT_FOUND, ice);
 	}
 }
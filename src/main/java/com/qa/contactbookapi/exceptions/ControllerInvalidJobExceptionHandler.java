@@ -0,0 +1,19 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerInvalidJobExceptionHandler {
+
+	@ExceptionHandler(value = { InvalidJobException.class })
+	public ResponseEntity<ContactProblem> invalidJobExceptions(InvalidJobException ije) {
+		ExceptionCounter.increment(ije);
+		return ProblemResponses.of(HttpStatus.NOT_FOUND, ije);
+	}
+}
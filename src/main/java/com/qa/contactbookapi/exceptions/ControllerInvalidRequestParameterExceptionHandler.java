@@ -0,0 +1,19 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerInvalidRequestParameterExceptionHandler {
+
+	@ExceptionHandler(value = { InvalidRequestParameterException.class })
+	public ResponseEntity<ContactProblem> invalidRequestParameterExceptions(InvalidRequestParameterException irpe) {
+		ExceptionCounter.increment(irpe);
+		return ProblemResponses.of(HttpStatus.BAD_REQUEST, irpe);
+	}
+}
@@ -0,0 +1,20 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerRateLimitedExceptionHandler {
+
+	@ExceptionHandler(value = { RateLimitedException.class })
+	public ResponseEntity<ContactProblem> rateLimitedExceptions(RateLimitedException rle) {
+		ExceptionCounter.increment(rle);
+		return ProblemResponses.of(HttpStatus.TOO_MANY_REQUESTS, rle, rle.getRetryAfterSeconds());
+	}
+}
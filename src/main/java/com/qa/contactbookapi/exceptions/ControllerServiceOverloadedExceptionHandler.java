@@ -0,0 +1,20 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerServiceOverloadedExceptionHandler {
+
+	@ExceptionHandler(value = { ServiceOverloadedException.class })
+	public ResponseEntity<ContactProblem> serviceOverloadedExceptions(ServiceOverloadedException soe) {
+		ExceptionCounter.increment(soe);
+		return ProblemResponses.of(HttpStatus.SERVICE_UNAVAILABLE, soe, soe.getRetryAfterSeconds());
+	}
+}
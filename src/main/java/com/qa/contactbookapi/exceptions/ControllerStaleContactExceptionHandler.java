@@ -0,0 +1,20 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import org.springframework.http.ResponseEntity;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+@ControllerAdvice
+public class ControllerStaleContactExceptionHandler {
+
+	@ExceptionHandler(value = { StaleContactException.class })
+	public ResponseEntity<ContactProblem> staleContactExceptions(StaleContactException sce) {
+		ExceptionCounter.increment(sce);
+		return ProblemResponses.of(HttpStatus.PRECONDITION_FAILED, sce);
+	}
+}
@@ -1,8 +1,6 @@
 package com.qa.contactbookapi.exceptions;
 
-import org.springframework.dao.DuplicateKeyException;
-
-public class DuplicateContactException extends DuplicateKeyException {
+public class DuplicateContactException extends StacklessException {
 
 	private static final long serialVersionUID = 1L;
 
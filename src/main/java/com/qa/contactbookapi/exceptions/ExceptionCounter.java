@@ -0,0 +1,19 @@
+package com.qa.contactbookapi.exceptions;
+
+import io.micrometer.core.instrument.Metrics;
+
+// Counts the exceptions turned into error responses, as 'contactbook.exceptions' tagged by exception, in the global registry
+// (to which Spring Boot adds its own), so that the handlers need no registry of their own.
+
+final class ExceptionCounter {
+
+	static final String METRIC_NAME = "contactbook.exceptions";
+
+	private ExceptionCounter() {
+	}
+
+	static void increment(Exception e) {
+		Metrics.counter(METRIC_NAME, "exception", e.getClass().getSimpleName()).increment();
+	}
+
+}
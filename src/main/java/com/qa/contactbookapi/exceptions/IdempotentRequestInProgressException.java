@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.exceptions;
+
+public class IdempotentRequestInProgressException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+
+	public IdempotentRequestInProgressException(String message) {
+		super(message);
+	}
+
+}
@@ -1,8 +1,6 @@
 package com.qa.contactbookapi.exceptions;
 
-import javax.persistence.EntityNotFoundException;
-
-public class InvalidContactException extends EntityNotFoundException {
+public class InvalidContactException extends StacklessException {
 
 	private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.exceptions;
+
+public class InvalidJobException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InvalidJobException(String message) {
+		super(message);
+	}
+
+}
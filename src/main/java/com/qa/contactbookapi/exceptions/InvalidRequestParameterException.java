@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.exceptions;
+
+public class InvalidRequestParameterException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InvalidRequestParameterException(String message) {
+		super(message);
+	}
+
+}
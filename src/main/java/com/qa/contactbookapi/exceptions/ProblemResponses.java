@@ -0,0 +1,38 @@
+package com.qa.contactbookapi.exceptions;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.qa.contactbookapi.data.dto.ContactProblem;
+
+// Builds the error responses of the handlers, with a problem detail body: only the status and the detail vary from one error
+// to the next, so the headers are built once. The content type is set up front, which also spares the content negotiation
+// against the Accept header of the request (e.g. text/csv on an export), which the problem could not satisfy anyway.
+
+final class ProblemResponses {
+
+	private static final HttpHeaders HEADERS = problemHeaders();
+
+	private ProblemResponses() {
+	}
+
+	static ResponseEntity<ContactProblem> of(HttpStatus status, Exception e) {
+		return new ResponseEntity<>(new ContactProblem(status, e.getMessage()), HEADERS, status);
+	}
+
+	static ResponseEntity<ContactProblem> of(HttpStatus status, Exception e, long retryAfterSeconds) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(HEADERS);
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		return new ResponseEntity<>(new ContactProblem(status, e.getMessage()), headers, status);
+	}
+
+	private static HttpHeaders problemHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+		return HttpHeaders.readOnlyHttpHeaders(headers);
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.qa.contactbookapi.exceptions;
+
+public class RateLimitedException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final long retryAfterSeconds;
+
+	public RateLimitedException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+}
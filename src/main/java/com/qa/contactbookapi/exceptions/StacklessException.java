@@ -0,0 +1,16 @@
+package com.qa.contactbookapi.exceptions;
+
+// Base of the exceptions raised for the expected outcomes of a request (not found, duplicate, stale, invalid input, quota
+// exceeded, rate limited, overloaded): each is counted and answered by its own handler, and never logged. They are thrown
+// the most when the service is probed or under the heaviest load, so no stack trace is filled in, nor any suppressed
+// exception recorded: the stack walk would cost more than the rest of the error path, for a trace nobody reads.
+
+public abstract class StacklessException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	protected StacklessException(String message) {
+		super(message, null, false, false);
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.qa.contactbookapi.exceptions;
+
+public class StaleContactException extends StacklessException {
+
+	private static final long serialVersionUID = 1L;
+
+	public StaleContactException(String message) {
+		super(message);
+	}
+
+}
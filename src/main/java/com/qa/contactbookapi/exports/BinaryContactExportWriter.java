@@ -0,0 +1,110 @@
+package com.qa.contactbookapi.exports;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Writes contacts in a compact, length-prefixed and columnar binary encoding, for backups and analytics extracts:
+//
+//   file   := "CBX" version(byte 1) block* end
+//   block  := rows(varint > 0) ids names(first) names(last) names(mobile) names(email) dates, each column holding 'rows' values
+//   end    := 0 (varint)
+//   ids    := the first ID of the block, then the difference of each ID with the previous one (zigzag varints)
+//   names  := for each value, 0 if null, else its UTF-8 length + 1 (varint) followed by its UTF-8 bytes
+//   dates  := for each value, 0 if null, else its epoch day (zigzag) + 1 (varint)
+//
+// Varints are unsigned LEB128 (7 bits per byte, least significant group first). Values of the same column being stored
+// together, and IDs as small deltas, the file compresses well. Only one block of rows is held in memory at a time.
+
+class BinaryContactExportWriter implements ContactExportWriter {
+
+	static final String MEDIA_TYPE_VALUE = "application/vnd.contactbook.contacts";
+
+	static final byte[] MAGIC = { 'C', 'B', 'X', 1 };
+
+	static final int BLOCK_ROWS = 1024;
+
+	private final OutputStream outputStream;
+
+	private final long[] ids = new long[BLOCK_ROWS];
+
+	private final String[][] names = new String[4][BLOCK_ROWS];
+
+	private final LocalDate[] dates = new LocalDate[BLOCK_ROWS];
+
+	private int rows;
+
+	BinaryContactExportWriter(OutputStream outputStream) throws IOException {
+		this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+		this.outputStream.write(MAGIC);
+	}
+
+	@Override
+	public void write(long id, String firstName, String lastName, String mobileNumber, String emailAddress, LocalDate dateOfBirth)
+			throws IOException {
+		ids[rows] = id;
+		names[0][rows] = firstName;
+		names[1][rows] = lastName;
+		names[2][rows] = mobileNumber;
+		names[3][rows] = emailAddress;
+		dates[rows] = dateOfBirth;
+		if (++rows == BLOCK_ROWS) {
+			writeBlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (rows > 0) {
+				writeBlock();
+			}
+			writeVarint(0);
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		writeVarint(rows);
+
+		long previousId = 0;
+		for (int i = 0; i < rows; i++) {
+			writeVarint(zigzag(ids[i] - previousId));
+			previousId = ids[i];
+		}
+		for (String[] column : names) {
+			for (int i = 0; i < rows; i++) {
+				if (column[i] == null) {
+					writeVarint(0);
+				} else {
+					byte[] bytes = column[i].getBytes(StandardCharsets.UTF_8);
+					writeVarint(bytes.length + 1L);
+					outputStream.write(bytes);
+				}
+				column[i] = null;
+			}
+		}
+		for (int i = 0; i < rows; i++) {
+			writeVarint(dates[i] == null ? 0 : zigzag(dates[i].toEpochDay()) + 1);
+			dates[i] = null;
+		}
+
+		rows = 0;
+	}
+
+	private void writeVarint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			outputStream.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		outputStream.write((int) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.qa.contactbookapi.exports;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Format of the files written by the bulk export, with the media type and file extension of each, and their writer.
+
+public enum ContactExportFormat {
+
+	CSV("text/csv", "csv"),
+	
+	VCARD("text/vcard", "vcf"),
+	
+	BINARY(BinaryContactExportWriter.MEDIA_TYPE_VALUE, "bin");
+	
+	private final String mediaType;
+	
+	private final String extension;
+
+	private ContactExportFormat(String mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+	
+    /**
+     * Open a writer of contacts in this format
+     * @param	outputStream	The stream to write to, buffered by the writer and closed along with it
+     * @return					The writer of the contacts
+     */
+	public ContactExportWriter open(OutputStream outputStream) throws IOException {
+		switch (this) {
+		case CSV:
+			return new CsvContactExportWriter(outputStream);
+		case VCARD:
+			return new VCardContactExportWriter(outputStream);
+		default:
+			return new BinaryContactExportWriter(outputStream);
+		}
+	}
+	
+}
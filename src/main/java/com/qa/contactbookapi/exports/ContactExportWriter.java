@@ -0,0 +1,28 @@
+package com.qa.contactbookapi.exports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+
+// Writes contacts to an exported file one at a time, straight from the columns read, so that no entity is built per row.
+// Output is buffered: nothing may reach the stream before the writer is closed, which completes the file.
+
+public interface ContactExportWriter extends Closeable {
+
+	// Size (bytes or chars) of the buffer of each writer, so that the response is written in few, large chunks.
+	int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Write one contact
+     * @param	id				The ID (long) of the contact
+     * @param	firstName		The first name (string) of the contact
+     * @param	lastName		The last name (string) of the contact
+     * @param	mobileNumber	The mobile number (string) of the contact
+     * @param	emailAddress	The email address (string) of the contact, or null
+     * @param	dateOfBirth		The date of birth of the contact, or null
+     * @throws	IOException
+     * If the stream could not be written (e.g. the client went away), it would throw this exception.
+     */
+	void write(long id, String firstName, String lastName, String mobileNumber, String emailAddress, LocalDate dateOfBirth) throws IOException;
+
+}
@@ -0,0 +1,68 @@
+package com.qa.contactbookapi.exports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Writes contacts as CSV (RFC 4180), under a header row naming the fields of a contact; files can be imported back as they are.
+
+class CsvContactExportWriter implements ContactExportWriter {
+
+	static final String HEADER = "id,firstName,lastName,mobileNumber,emailAddress,dateOfBirth";
+
+	private final Writer writer;
+
+	CsvContactExportWriter(OutputStream outputStream) throws IOException {
+		writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+		writer.write(HEADER);
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void write(long id, String firstName, String lastName, String mobileNumber, String emailAddress, LocalDate dateOfBirth)
+			throws IOException {
+		writer.write(Long.toString(id));
+		writer.write(',');
+		writeField(firstName);
+		writer.write(',');
+		writeField(lastName);
+		writer.write(',');
+		writeField(mobileNumber);
+		writer.write(',');
+		writeField(emailAddress);
+		writer.write(',');
+		if (dateOfBirth != null) {
+			writer.write(dateOfBirth.toString());
+		}
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	// Only fields holding a separator, a quote or a line break are quoted, their quotes doubled.
+	private void writeField(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		boolean quoted = false;
+		for (int i = 0; i < value.length() && !quoted; i++) {
+			char c = value.charAt(i);
+			quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quoted) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.qa.contactbookapi.exports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Writes contacts as vCard 3.0 (RFC 2426), one card each, which address books and the bulk import read back.
+
+class VCardContactExportWriter implements ContactExportWriter {
+
+	// Lines longer than this are folded onto continuation lines starting with a space.
+	private static final int MAX_LINE_LENGTH = 75;
+
+	private final Writer writer;
+
+	VCardContactExportWriter(OutputStream outputStream) {
+		writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	@Override
+	public void write(long id, String firstName, String lastName, String mobileNumber, String emailAddress, LocalDate dateOfBirth)
+			throws IOException {
+		writeLine("BEGIN:VCARD");
+		writeLine("VERSION:3.0");
+		writeLine("UID:contact-" + id);
+		writeLine("N:" + escape(lastName) + ";" + escape(firstName) + ";;;");
+		writeLine("FN:" + escape(firstName) + " " + escape(lastName));
+		if (mobileNumber != null) {
+			writeLine("TEL;TYPE=CELL:" + escape(mobileNumber));
+		}
+		if (emailAddress != null) {
+			writeLine("EMAIL;TYPE=INTERNET:" + escape(emailAddress));
+		}
+		if (dateOfBirth != null) {
+			writeLine("BDAY:" + dateOfBirth);
+		}
+		writeLine("END:VCARD");
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void writeLine(String line) throws IOException {
+		int start = 0;
+		while (line.length() - start > MAX_LINE_LENGTH) {
+			// Surrogate pairs are kept whole, as a lone surrogate could not be encoded.
+			int length = Character.isHighSurrogate(line.charAt(start + MAX_LINE_LENGTH - 1)) ? MAX_LINE_LENGTH - 1 : MAX_LINE_LENGTH;
+			writer.write(line, start, length);
+			writer.write("\r\n ");
+			start += length;
+		}
+		writer.write(line, start, line.length() - start);
+		writer.write("\r\n");
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		StringBuilder escaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == ',' || c == ';') {
+				escaped.append('\\').append(c);
+			} else if (c == '\n') {
+				escaped.append("\\n");
+			} else if (c != '\r') {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+}
@@ -0,0 +1,227 @@
+package com.qa.contactbookapi.idempotency;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.exceptions.IdempotentRequestInProgressException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Bounded, expiring store of the responses to the writes sent with an Idempotency-Key header, so that a retried write is
+// answered with the response to the first one, without being handled again. Keys are scoped by book, and remembered by this
+// instance only: a gateway retrying on another instance has the write handled again.
+// A key is taken when its first request starts; a retry while it runs is answered with a 409, and a key is given up if its
+// request fails, so that the failed request can be retried. Responses are weighed by the contacts they hold, a batch of
+// them counting one per contact.
+// Retries must match the first request: its method, path and body. A body already parsed is fingerprinted by its canonical
+// serialization; a streamed body is hashed (SHA-256) as the request reads it, the rest of it once the request is handled,
+// and the body of a retry in full before it is replayed.
+
+@Component
+public class IdempotencyStore {
+
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	// Set on replayed responses, so that clients can tell them apart.
+	public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private final Cache<String, Entry> entries;
+
+	// A request, handled only the first time its key is seen.
+	@FunctionalInterface
+	public interface IdempotentRequest<T> {
+
+		ResponseEntity<T> handle() throws IOException;
+
+	}
+
+	// A request reading its body as a stream, handled only the first time its key is seen.
+	@FunctionalInterface
+	public interface IdempotentStreamRequest<T> {
+
+		ResponseEntity<T> handle(InputStream body) throws IOException;
+
+	}
+
+	// The fingerprint of a request, known once it has been handled.
+	@FunctionalInterface
+	private interface Fingerprint {
+
+		String get() throws IOException;
+
+	}
+
+	// Hashes what is read through it; left open, for the rest of the body to be hashed once the request has read its part.
+	private static final class HashingInputStream extends DigestInputStream {
+
+		private HashingInputStream(InputStream body) {
+			super(body, sha256());
+		}
+
+		private String drainAndHash() throws IOException {
+			byte[] buffer = new byte[8192];
+			while (read(buffer) >= 0) {
+				// The bytes are hashed as they are read.
+			}
+			return Base64.getEncoder().encodeToString(getMessageDigest().digest());
+		}
+
+		private static MessageDigest sha256() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-256 is not available.", e);
+			}
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	// The response is null while the first request runs.
+	private static final class Entry {
+
+		private final String fingerprint;
+
+		private final ResponseEntity<?> response;
+
+		private Entry(String fingerprint, ResponseEntity<?> response) {
+			this.fingerprint = fingerprint;
+			this.response = response;
+		}
+
+		private int weight() {
+			Object body = response == null ? null : response.getBody();
+			return body instanceof ContactBatchResult ? 1 + ((ContactBatchResult) body).getItems().size() : 1;
+		}
+
+	}
+
+	@Autowired
+	public IdempotencyStore(@Value("${contactbook.idempotency.maximum-weight:100000}") long maximumWeight,
+			@Value("${contactbook.idempotency.time-to-live:24h}") Duration timeToLive, MeterRegistry meterRegistry) {
+		this(maximumWeight, timeToLive, Ticker.systemTicker());
+		CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency.keys");
+	}
+
+	IdempotencyStore(long maximumWeight, Duration timeToLive, Ticker ticker) {
+		this.entries = Caffeine.newBuilder().maximumWeight(maximumWeight).<String, Entry>weigher((key, entry) -> entry.weight())
+				.expireAfterWrite(timeToLive).ticker(ticker).recordStats().build();
+	}
+
+    /**
+     * Handle a request of the current book once per idempotency key, replaying its response to the retries
+     * @param	key			The idempotency key (string) sent with the request, or null to handle it every time
+     * @param	fingerprint	What identifies the request (string), e.g. its method, path and canonical body, which its retries must match
+     * @param	request		The handling of the request
+     * @return				The response to the request, replayed (with the 'Idempotent-Replayed' header) if the key was seen
+     * @throws	InvalidRequestParameterException
+     * If the key were blank or too long, or had been sent with another request, it would throw this exception.
+     * @throws	IdempotentRequestInProgressException
+     * If the first request with the key were still being handled, it would throw this exception.
+     */
+	public <T> ResponseEntity<T> execute(String key, String fingerprint, IdempotentRequest<T> request) throws IOException {
+
+		if (key == null) {
+			return request.handle();
+		}
+
+		String bookKey = bookKeyOf(key);
+		Entry taken = new Entry(fingerprint, null);
+		Entry existing = entries.asMap().putIfAbsent(bookKey, taken);
+		if (existing != null) {
+			return replay(key, fingerprint, existing);
+		}
+		return handleOnce(bookKey, taken, request, () -> fingerprint);
+	}
+
+    /**
+     * Handle a request of the current book reading its body as a stream once per idempotency key, replaying its response to
+     * the retries, whose bodies must hash the same
+     * @param	key			The idempotency key (string) sent with the request, or null to handle it every time
+     * @param	fingerprint	What identifies the request (string) but its body, e.g. its method and path, which its retries must match
+     * @param	body		The body of the request
+     * @param	request		The handling of the request, reading the body handed to it
+     * @return				The response to the request, replayed (with the 'Idempotent-Replayed' header) if the key was seen
+     * @throws	InvalidRequestParameterException
+     * If the key were blank or too long, or had been sent with another request, it would throw this exception.
+     * @throws	IdempotentRequestInProgressException
+     * If the first request with the key were still being handled, it would throw this exception.
+     */
+	public <T> ResponseEntity<T> execute(String key, String fingerprint, InputStream body, IdempotentStreamRequest<T> request) throws IOException {
+
+		if (key == null) {
+			return request.handle(body);
+		}
+
+		String bookKey = bookKeyOf(key);
+		HashingInputStream hashingBody = new HashingInputStream(body);
+		// The body is only hashed once read: until then, the key is taken without a fingerprint.
+		Entry taken = new Entry(null, null);
+		Entry existing = entries.asMap().putIfAbsent(bookKey, taken);
+		if (existing != null) {
+			return replay(key, existing.response == null ? null : fingerprint + " " + hashingBody.drainAndHash(), existing);
+		}
+		return handleOnce(bookKey, taken, () -> request.handle(hashingBody), () -> fingerprint + " " + hashingBody.drainAndHash());
+	}
+
+	private static String bookKeyOf(String key) {
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new InvalidRequestParameterException("Idempotency key is invalid, as it must hold 1 to " + MAX_KEY_LENGTH + " characters.");
+		}
+		return ContactBook.current() + '\u0000' + key;
+	}
+
+	private <T> ResponseEntity<T> handleOnce(String bookKey, Entry taken, IdempotentRequest<T> request, Fingerprint fingerprint) throws IOException {
+		boolean handled = false;
+		try {
+			ResponseEntity<T> response = request.handle();
+			entries.put(bookKey, new Entry(fingerprint.get(), response));
+			handled = true;
+			return response;
+		} finally {
+			if (!handled) {
+				entries.asMap().remove(bookKey, taken);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ResponseEntity<T> replay(String key, String fingerprint, Entry entry) {
+		if (entry.response == null) {
+			throw new IdempotentRequestInProgressException("Request with idempotency key " + key + " is still in progress; please retry once it has completed.");
+		}
+		if (!entry.fingerprint.equals(fingerprint)) {
+			throw new InvalidRequestParameterException("Idempotency key " + key + " is invalid, as it was sent with another request.");
+		}
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(entry.response.getHeaders());
+		headers.set(IDEMPOTENT_REPLAYED, "true");
+		return new ResponseEntity<T>((T) entry.response.getBody(), headers, entry.response.getStatusCode());
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.qa.contactbookapi.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Format of the files accepted by the bulk import, and the reader of each.
+
+public enum ContactImportFormat {
+
+	CSV,
+	
+	VCARD;
+	
+	public static final String CSV_VALUE = "text/csv";
+	
+	public static final String VCARD_VALUE = "text/vcard";
+	
+	// Media type of vCard files exported by older address books.
+	public static final String X_VCARD_VALUE = "text/x-vcard";
+	
+    /**
+     * Open a reader of the records of a file in this format
+     * @param	reader	The characters of the file, closed along with the reader returned
+     * @return			The reader of the records, in file order
+     * @throws	IOException
+     * If the file could not be read, or its CSV header did not name any field of a contact, it would throw this exception.
+     */
+	public ContactImportReader open(Reader reader) throws IOException {
+		return this == CSV ? new CsvContactImportReader(reader) : new VCardContactImportReader(reader);
+	}
+	
+}
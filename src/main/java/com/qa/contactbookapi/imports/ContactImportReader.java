@@ -0,0 +1,12 @@
+package com.qa.contactbookapi.imports;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+// Reads the records of an imported file one at a time, so that memory use does not grow with the size of the file.
+// Records which cannot be read are returned with their error, and the following ones are still read; a file which cannot
+// be read any further (e.g. an unterminated CSV quote) fails with an UncheckedIOException.
+
+public interface ContactImportReader extends Iterator<ContactImportRecord>, Closeable {
+
+}
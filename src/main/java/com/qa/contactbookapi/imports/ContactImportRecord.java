@@ -0,0 +1,48 @@
+package com.qa.contactbookapi.imports;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+// One record (CSV row or vCard) of an imported file: either the contact it holds, or the reason it could not be read.
+
+public class ContactImportRecord {
+
+	private long number;
+	
+	private Contact contact;
+	
+	private String error;
+
+	private ContactImportRecord(long number, Contact contact, String error) {
+		super();
+		this.number = number;
+		this.contact = contact;
+		this.error = error;
+	}
+
+	static ContactImportRecord of(long number, Contact contact) {
+		return new ContactImportRecord(number, contact, null);
+	}
+
+	static ContactImportRecord unreadable(long number, String error) {
+		return new ContactImportRecord(number, null, error);
+	}
+
+	// Position of the record in the file, from 1, not counting the CSV header.
+	public long getNumber() {
+		return number;
+	}
+
+	public Contact getContact() {
+		return contact;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "ContactImportRecord [number=" + number + ", contact=" + contact + ", error=" + error + "]";
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.qa.contactbookapi.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Reads contacts from CSV, one row at a time. The header row names the columns, in any order and case, after the fields of
+// a contact (firstName, lastName, mobileNumber, emailAddress, dateOfBirth); other columns are ignored.
+
+class CsvContactImportReader implements ContactImportReader {
+
+	private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+	private static final List<String> COLUMNS = List.of("firstname", "lastname", "mobilenumber", "emailaddress", "dateofbirth");
+
+	private final MappingIterator<List<String>> rows;
+
+	// Position of each of COLUMNS within a row, or -1 if the file has no such column.
+	private final int[] positions = new int[COLUMNS.size()];
+
+	private long number;
+
+	CsvContactImportReader(Reader reader) throws IOException {
+		rows = CSV_MAPPER.readerForListOf(String.class).with(CsvParser.Feature.WRAP_AS_ARRAY)
+				.with(CsvParser.Feature.SKIP_EMPTY_LINES).readValues(reader);
+
+		List<String> header = rows.hasNextValue() ? rows.nextValue() : List.of();
+		boolean anyColumn = false;
+		for (int c = 0; c < COLUMNS.size(); c++) {
+			positions[c] = -1;
+			for (int p = 0; p < header.size(); p++) {
+				// Spreadsheets may start the file with a byte order mark.
+				String name = header.get(p).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+				if (name.equals(COLUMNS.get(c))) {
+					positions[c] = p;
+					anyColumn = true;
+					break;
+				}
+			}
+		}
+		if (!anyColumn) {
+			rows.close();
+			throw new IOException("CSV header must name the columns after the fields of a contact "
+					+ "(firstName, lastName, mobileNumber, emailAddress, dateOfBirth).");
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return rows.hasNextValue();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public ContactImportRecord next() {
+		List<String> row;
+		try {
+			if (!rows.hasNextValue()) {
+				throw new NoSuchElementException();
+			}
+			row = rows.nextValue();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		number++;
+
+		String dateOfBirth = valueOf(row, 4);
+		LocalDate date = null;
+		if (dateOfBirth != null) {
+			try {
+				date = LocalDate.parse(dateOfBirth);
+			} catch (DateTimeParseException e) {
+				return ContactImportRecord.unreadable(number, "Date of birth " + dateOfBirth + " is invalid, as it must be a date (yyyy-mm-dd).");
+			}
+		}
+		return ContactImportRecord.of(number, new Contact(valueOf(row, 0), valueOf(row, 1), valueOf(row, 2), valueOf(row, 3), date));
+	}
+
+	@Override
+	public void close() throws IOException {
+		rows.close();
+	}
+
+	// Blank and missing cells are read as null, so that the constraints of the contact report them.
+	private String valueOf(List<String> row, int column) {
+		int position = positions[column];
+		if (position < 0 || position >= row.size()) {
+			return null;
+		}
+		String value = row.get(position).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+}
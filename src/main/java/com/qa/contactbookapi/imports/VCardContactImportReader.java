@@ -0,0 +1,169 @@
+package com.qa.contactbookapi.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Reads contacts from vCard (versions 2.1 to 4.0), one card at a time, out of the properties N (or FN), TEL (preferring
+// the mobile one), EMAIL and BDAY. Other properties are ignored, and so are lines outside of BEGIN:VCARD and END:VCARD.
+
+class VCardContactImportReader implements ContactImportReader {
+
+	private final BufferedReader reader;
+
+	// Next unfolded line, or null at the end of the file.
+	private String nextLine;
+
+	private ContactImportRecord nextRecord;
+
+	private long number;
+
+	VCardContactImportReader(Reader reader) throws IOException {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		nextLine = this.reader.readLine();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextRecord == null) {
+			try {
+				nextRecord = readCard();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return nextRecord != null;
+	}
+
+	@Override
+	public ContactImportRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ContactImportRecord record = nextRecord;
+		nextRecord = null;
+		return record;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private ContactImportRecord readCard() throws IOException {
+
+		String line;
+		do {
+			line = readLine();
+			if (line == null) {
+				return null;
+			}
+		} while (!line.equalsIgnoreCase("BEGIN:VCARD"));
+		number++;
+
+		String lastName = null;
+		String firstName = null;
+		String fullName = null;
+		String mobileNumber = null;
+		boolean mobileIsCell = false;
+		String emailAddress = null;
+		String birthday = null;
+
+		while ((line = readLine()) != null && !line.equalsIgnoreCase("END:VCARD")) {
+			int colon = line.indexOf(':');
+			if (colon < 0) {
+				continue;
+			}
+			String[] nameAndParameters = line.substring(0, colon).split(";");
+			// Properties may be grouped, as in "item1.TEL".
+			String name = nameAndParameters[0].substring(nameAndParameters[0].indexOf('.') + 1).toUpperCase(Locale.ROOT);
+			String value = line.substring(colon + 1);
+
+			switch (name) {
+			case "N":
+				String[] components = value.split("(?<!\\\\);", -1);
+				lastName = unescape(components[0]);
+				firstName = components.length > 1 ? unescape(components[1]) : null;
+				break;
+			case "FN":
+				fullName = unescape(value);
+				break;
+			case "TEL":
+				boolean cell = line.substring(0, colon).toUpperCase(Locale.ROOT).matches(".*[;=,]CELL([;,].*)?");
+				if (mobileNumber == null || (cell && !mobileIsCell)) {
+					// vCard 4.0 writes numbers as URIs.
+					mobileNumber = unescape(value.startsWith("tel:") ? value.substring(4) : value);
+					mobileIsCell = cell;
+				}
+				break;
+			case "EMAIL":
+				if (emailAddress == null) {
+					emailAddress = unescape(value);
+				}
+				break;
+			case "BDAY":
+				birthday = value.trim();
+				break;
+			default:
+				break;
+			}
+		}
+
+		// Without N, the full name is split on its last space.
+		if (lastName == null && fullName != null) {
+			int space = fullName.lastIndexOf(' ');
+			firstName = space < 0 ? null : fullName.substring(0, space);
+			lastName = fullName.substring(space + 1);
+		}
+
+		LocalDate dateOfBirth = null;
+		if (birthday != null && !birthday.isEmpty()) {
+			try {
+				dateOfBirth = LocalDate.parse(birthday, birthday.indexOf('-') < 0 ? DateTimeFormatter.BASIC_ISO_DATE : DateTimeFormatter.ISO_LOCAL_DATE);
+			} catch (DateTimeParseException e) {
+				return ContactImportRecord.unreadable(number, "Date of birth " + birthday + " is invalid, as it must be a date (yyyy-mm-dd).");
+			}
+		}
+		return ContactImportRecord.of(number, new Contact(blankToNull(firstName), blankToNull(lastName), blankToNull(mobileNumber),
+				blankToNull(emailAddress), dateOfBirth));
+	}
+
+	// Lines starting with a space or a tab continue the previous one (folding).
+	private String readLine() throws IOException {
+		if (nextLine == null) {
+			return null;
+		}
+		StringBuilder line = new StringBuilder(nextLine);
+		while ((nextLine = reader.readLine()) != null && !nextLine.isEmpty() && (nextLine.charAt(0) == ' ' || nextLine.charAt(0) == '\t')) {
+			line.append(nextLine, 1, nextLine.length());
+		}
+		return line.toString().trim();
+	}
+
+	private static String unescape(String value) {
+		StringBuilder unescaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char escaped = value.charAt(++i);
+				unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+			} else {
+				unescaped.append(c);
+			}
+		}
+		return unescaped.toString();
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+
+}
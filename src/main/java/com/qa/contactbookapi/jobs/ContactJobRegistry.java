@@ -0,0 +1,161 @@
+package com.qa.contactbookapi.jobs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactJob;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+
+// Background jobs of one kind (bulk imports or bulk deletes), run on their own bounded executor: once it is busy and its
+// queue full, new jobs are turned away with a time to retry after. Jobs are kept in this instance's memory, up to
+// retained-jobs of them, the oldest finished ones being forgotten first. A job runs on the book it was submitted to, and
+// is only found from that book.
+
+public class ContactJobRegistry<J extends ContactJob> {
+
+	private final String kind;
+
+	private final int retainedJobs;
+
+	private final long retryAfterSeconds;
+
+	private final Consumer<J> onForget;
+
+	private final ThreadPoolTaskExecutor executor;
+
+	// Jobs in submission order; guarded by itself.
+	private final Map<String, Entry<J>> entries = new LinkedHashMap<>();
+
+	private static class Entry<J> {
+
+		private final J job;
+
+		private final String book;
+
+		private Entry(J job, String book) {
+			this.job = job;
+			this.book = book;
+		}
+
+	}
+
+    /**
+     * Create a registry of jobs holding nothing once finished, and the executor of its jobs
+     * @param	kind			The kind of jobs (string), naming their threads and told to clients turned away, e.g. "delete"
+     * @param	concurrency		The number of jobs (int) run at once
+     * @param	queueCapacity	The number of jobs (int) which may wait to run
+     * @param	retainedJobs	The number of jobs (int) kept, finished or not
+     * @param	retryAfter		The time clients turned away are told to wait before retrying
+     */
+	public ContactJobRegistry(String kind, int concurrency, int queueCapacity, int retainedJobs, Duration retryAfter) {
+		this(kind, concurrency, queueCapacity, retainedJobs, retryAfter, job -> {
+		});
+	}
+
+    /**
+     * Create a registry, and the executor of its jobs
+     * @param	kind			The kind of jobs (string), naming their threads and told to clients turned away, e.g. "import"
+     * @param	concurrency		The number of jobs (int) run at once
+     * @param	queueCapacity	The number of jobs (int) which may wait to run
+     * @param	retainedJobs	The number of jobs (int) kept, finished or not
+     * @param	retryAfter		The time clients turned away are told to wait before retrying
+     * @param	onForget		The consumer of each finished job forgotten, to free what it still holds
+     */
+	public ContactJobRegistry(String kind, int concurrency, int queueCapacity, int retainedJobs, Duration retryAfter, Consumer<J> onForget) {
+		this.kind = kind;
+		this.retainedJobs = retainedJobs;
+		this.retryAfterSeconds = retryAfter.toSeconds();
+		this.onForget = onForget;
+
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(concurrency);
+		executor.setMaxPoolSize(concurrency);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("contact-" + kind + "-");
+		executor.initialize();
+	}
+
+    /**
+     * Queue a job on the current book
+     * @param	job		The job, to follow its progress
+     * @param	task	The task running the job, on the current book
+     * @return			The job queued
+     * @throws	ServiceOverloadedException
+     * If too many jobs are already queued, it would throw this exception.
+     */
+	public J submit(J job, Runnable task) {
+		Entry<J> entry = new Entry<>(job, ContactBook.current());
+		synchronized (entries) {
+			entries.put(job.getId(), entry);
+		}
+		try {
+			executor.execute(ContactBook.carry(task));
+		} catch (TaskRejectedException e) {
+			synchronized (entries) {
+				entries.remove(job.getId());
+			}
+			throw new ServiceOverloadedException("Too many " + kind + "s are queued; please retry in " + retryAfterSeconds + " second(s).", retryAfterSeconds);
+		}
+		forgetFinishedJobs();
+		return job;
+	}
+
+    /**
+     * Fetch a job of the current book
+     * @param	id	The ID (string) of the job
+     * @return		The job
+     * @throws	InvalidJobException
+     * If the job does not exist (or was forgotten), it would throw this exception.
+     */
+	public J fetch(String id) {
+		Entry<J> entry;
+		synchronized (entries) {
+			entry = entries.get(id);
+		}
+		if (entry == null || !entry.book.equals(ContactBook.current())) {
+			throw new InvalidJobException("Job " + id + " does not exist.");
+		}
+		return entry.job;
+	}
+
+    /**
+     * Stop the executor, and forget every job
+     */
+	public void shutdown() {
+		executor.shutdown();
+		List<J> forgotten = new ArrayList<>();
+		synchronized (entries) {
+			for (Entry<J> entry : entries.values()) {
+				forgotten.add(entry.job);
+			}
+			entries.clear();
+		}
+		forgotten.forEach(onForget);
+	}
+
+	private void forgetFinishedJobs() {
+		List<J> forgotten = new ArrayList<>();
+		synchronized (entries) {
+			Iterator<Entry<J>> iterator = entries.values().iterator();
+			while (entries.size() > retainedJobs && iterator.hasNext()) {
+				J job = iterator.next().job;
+				if (job.isDone()) {
+					iterator.remove();
+					forgotten.add(job);
+				}
+			}
+		}
+		forgotten.forEach(onForget);
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.qa.contactbookapi.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread, while a count is bound to it (i.e. during a request).
+// It only increments a counter, unlike 'show-sql' and the binder logging, so it is cheap enough for production.
+
+public class StatementCounter implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		AtomicInteger count = CURRENT.get();
+		if (count != null) {
+			count.incrementAndGet();
+		}
+		return sql;
+	}
+
+    /**
+     * Get the count bound to the current thread
+     * @return	The count of the request being handled on the current thread, or null if none is bound
+     */
+	public static AtomicInteger current() {
+		return CURRENT.get();
+	}
+
+    /**
+     * Bind a count to the current thread, e.g. when a request is handed over to another thread
+     * @param	count	The count to increment from now on, or null to stop counting
+     * @return			The count previously bound to the current thread, to be restored afterwards
+     */
+	public static AtomicInteger bind(AtomicInteger count) {
+		AtomicInteger previous = CURRENT.get();
+		if (count == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(count);
+		}
+		return previous;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.qa.contactbookapi.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Records the number of SQL statements issued per request, as the 'contactbook.db.statements' distribution summary,
+// tagged like 'http.server.requests' with the method and the URI pattern of the handler.
+
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+	public static final String METRIC_NAME = "contactbook.db.statements";
+
+	private static final String COUNT_ATTRIBUTE = StatementCountingFilter.class.getName() + ".COUNT";
+
+	private MeterRegistry meterRegistry;
+
+	public StatementCountingFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		
+		// An async request is filtered on its first and its last dispatch: the count is carried over between them.
+		AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+		if (count == null) {
+			count = new AtomicInteger();
+			request.setAttribute(COUNT_ATTRIBUTE, count);
+		}
+		
+		AtomicInteger previous = StatementCounter.bind(count);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			StatementCounter.bind(previous);
+			if (!isAsyncStarted(request)) {
+				record(request, count.get());
+			}
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	private void record(HttpServletRequest request, int statements) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder(METRIC_NAME)
+				.description("SQL statements issued per request")
+				.baseUnit("statements")
+				.tag("method", request.getMethod())
+				.tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+				.register(meterRegistry)
+				.record(statements);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.qa.contactbookapi.ratelimit;
+
+import java.time.Duration;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.qa.contactbookapi.exceptions.RateLimitedException;
+
+// Checks every request to the contacts against the rate limit of its client, so that one client hammering the service is
+// slowed down without slowing down the others. A client is named by its IP address, as forwarded by the trusted proxies in
+// front (server.forward-headers-strategy), and, when it sends an X-API-Key header, by its key as well: the request must
+// be within the limits of both. The API key is not authenticated here, so it only ever adds a limit: sending a new key
+// does not give a client a new budget, while a key used from many addresses is held to a single one.
+// Each client has two token buckets: one for the requests to the @Expensive handlers, with a small budget, and one for the
+// others. Buckets are lock-free, and held in a bounded cache (concurrent, rather than behind a lock) which forgets idle
+// clients.
+
+public class ClientRateLimitInterceptor implements AsyncHandlerInterceptor {
+
+	public static final String API_KEY = "X-API-Key";
+
+	private static final int MAX_API_KEY_LENGTH = 255;
+
+	private final double permitsPerSecond;
+
+	private final int burst;
+
+	private final double expensivePermitsPerSecond;
+
+	private final int expensiveBurst;
+
+	private final Cache<String, ClientBuckets> clients;
+
+	// Both buckets are created with the client, as it is first seen.
+	private final class ClientBuckets {
+
+		private final RateLimiter cheap = permitsPerSecond > 0 ? new RateLimiter(permitsPerSecond, burst) : null;
+
+		private final RateLimiter expensive = expensivePermitsPerSecond > 0 ? new RateLimiter(expensivePermitsPerSecond, expensiveBurst) : null;
+
+	}
+
+    /**
+     * @param	permitsPerSecond			The rate (double) of cheap requests allowed per client and per second, or 0 for no limit
+     * @param	burst						The number of cheap requests (int) a client may make at once
+     * @param	expensivePermitsPerSecond	The rate (double) of expensive requests allowed per client and per second, or 0 for no limit
+     * @param	expensiveBurst				The number of expensive requests (int) a client may make at once
+     * @param	maxClients					The number of clients (long) whose buckets are kept, the least recently seen being forgotten first
+     * @param	idleTimeout					The time after which the buckets of an idle client are forgotten (full again)
+     */
+	public ClientRateLimitInterceptor(double permitsPerSecond, int burst, double expensivePermitsPerSecond, int expensiveBurst,
+			long maxClients, Duration idleTimeout) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.expensivePermitsPerSecond = expensivePermitsPerSecond;
+		this.expensiveBurst = expensiveBurst;
+		this.clients = Caffeine.newBuilder().maximumSize(maxClients).expireAfterAccess(idleTimeout).build();
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		// The dispatch completing an async request is not a new request.
+		if (request.getDispatcherType() != DispatcherType.REQUEST) {
+			return true;
+		}
+
+		boolean expensive = ExpensiveHandlers.isExpensive(handler);
+		if ((expensive ? expensivePermitsPerSecond : permitsPerSecond) <= 0) {
+			return true;
+		}
+
+		acquire("ip:" + request.getRemoteAddr(), expensive);
+		String apiKey = request.getHeader(API_KEY);
+		if (apiKey != null && !apiKey.isBlank() && apiKey.length() <= MAX_API_KEY_LENGTH) {
+			acquire("key:" + apiKey, expensive);
+		}
+		return true;
+	}
+
+	private void acquire(String client, boolean expensive) {
+		ClientBuckets buckets = clients.get(client, key -> new ClientBuckets());
+		Duration wait = (expensive ? buckets.expensive : buckets.cheap).tryAcquire();
+		if (!wait.isZero()) {
+			long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+			throw new RateLimitedException("Client has made too many " + (expensive ? "expensive " : "") + "requests; please retry in "
+					+ retryAfterSeconds + " second(s).", retryAfterSeconds);
+		}
+	}
+
+}
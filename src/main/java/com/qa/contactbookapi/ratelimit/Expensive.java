@@ -0,0 +1,17 @@
+package com.qa.contactbookapi.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks the handlers whose requests read or write many contacts (whole-book reads, streams, exports and bulk writes): they
+// draw on the expensive budget of a client rather than the cheap one, and are shed first when the service is overloaded.
+
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Expensive {
+
+}
@@ -0,0 +1,21 @@
+package com.qa.contactbookapi.ratelimit;
+
+import org.springframework.web.method.HandlerMethod;
+
+// Tells the @Expensive handlers apart, for the interceptors which give them budgets and bounds of their own.
+
+final class ExpensiveHandlers {
+
+	private ExpensiveHandlers() {
+	}
+
+    /**
+     * Check whether a request goes to an @Expensive handler
+     * @param	handler	The handler of the request
+     * @return			True if the handler is a method annotated with @Expensive
+     */
+	static boolean isExpensive(Object handler) {
+		return handler instanceof HandlerMethod && ((HandlerMethod) handler).hasMethodAnnotation(Expensive.class);
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.qa.contactbookapi.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+
+// Bounds the requests to the contacts being handled at once, so that they are rejected (with 503 and Retry-After) before
+// they pile up in front of the connection pool, where they would only wait until they time out. The requests to the
+// @Expensive handlers, which hold a connection the longest, have a lower bound of their own: they are shed first, and
+// leave connections to the cheap requests. A request is counted from its handler until its response is complete,
+// including the streamed and async responses; the counts are taken and given back through compare-and-set, without a lock.
+
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String PERMIT_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".permit";
+
+	private final int maxRequests;
+
+	private final int maxExpensiveRequests;
+
+	private final long retryAfterSeconds;
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final AtomicInteger expensiveRequests = new AtomicInteger();
+
+	// Given back once, by whichever of the completion of the request and the end of its async handling comes first.
+	private final class Permit implements AsyncListener {
+
+		private final boolean expensive;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(boolean expensive) {
+			this.expensive = expensive;
+		}
+
+		private void release() {
+			if (released.compareAndSet(false, true)) {
+				requests.decrementAndGet();
+				if (expensive) {
+					expensiveRequests.decrementAndGet();
+				}
+			}
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+	}
+
+    /**
+     * @param	maxRequests				The number of requests (int) handled at once, beyond which they are rejected, or 0 for no limit
+     * @param	maxExpensiveRequests	The number of expensive requests (int) handled at once, beyond which they are rejected, or 0 for no limit
+     * @param	retryAfterSeconds		The time (long) after which rejected requests are to be retried, in seconds
+     */
+	public LoadSheddingInterceptor(int maxRequests, int maxExpensiveRequests, long retryAfterSeconds) {
+		this.maxRequests = maxRequests;
+		this.maxExpensiveRequests = maxExpensiveRequests;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		// The dispatch completing an async request is still counted as the request that started it.
+		if (request.getDispatcherType() != DispatcherType.REQUEST) {
+			return true;
+		}
+
+		boolean expensive = ExpensiveHandlers.isExpensive(handler);
+		if (!tryAcquire(requests, maxRequests)) {
+			throw new ServiceOverloadedException("Service is overloaded; please retry in " + retryAfterSeconds + " second(s).", retryAfterSeconds);
+		}
+		if (expensive && !tryAcquire(expensiveRequests, maxExpensiveRequests)) {
+			requests.decrementAndGet();
+			throw new ServiceOverloadedException("Service is overloaded with expensive requests; please retry in " + retryAfterSeconds + " second(s).",
+					retryAfterSeconds);
+		}
+		request.setAttribute(PERMIT_ATTRIBUTE, new Permit(expensive));
+		return true;
+	}
+
+	// Async responses may also end without a further dispatch (e.g. once the client is gone): the async context tells.
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+		if (permit != null) {
+			request.getAsyncContext().addListener(permit);
+		}
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+		if (permit != null) {
+			permit.release();
+		}
+	}
+
+    /**
+     * @return	The number of requests (int) being handled
+     */
+	public int getRequests() {
+		return requests.get();
+	}
+
+    /**
+     * @return	The number of expensive requests (int) being handled
+     */
+	public int getExpensiveRequests() {
+		return expensiveRequests.get();
+	}
+
+	private static boolean tryAcquire(AtomicInteger count, int max) {
+		if (max <= 0) {
+			count.incrementAndGet();
+			return true;
+		}
+		int current;
+		do {
+			current = count.get();
+			if (current >= max) {
+				return false;
+			}
+		} while (!count.compareAndSet(current, current + 1));
+		return true;
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.qa.contactbookapi.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token bucket, implemented as the generic cell rate algorithm: a single timestamp (the theoretical arrival time of the
+// next request) is advanced by one emission interval per request, through a compare-and-set, so that no lock is taken.
+// Requests are allowed as long as that time stays within the burst tolerance of now.
+
+public class RateLimiter {
+
+	private final long emissionIntervalNanos;
+
+	private final long burstToleranceNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * Create a bucket, full
+     * @param	permitsPerSecond	The rate (double) at which the bucket refills, in requests per second
+     * @param	burst				The capacity (int) of the bucket, i.e. the number of requests allowed at once
+     */
+	public RateLimiter(double permitsPerSecond, int burst) {
+		this(permitsPerSecond, burst, System::nanoTime);
+	}
+
+	RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+		this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+		this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, burst) - 1);
+		this.nanoClock = nanoClock;
+		this.theoreticalArrivalNanos = new AtomicLong(nanoClock.getAsLong());
+	}
+
+    /**
+     * Take a token from the bucket, if there is one
+     * @return	Zero if a token was taken, or else the time to wait for the next one
+     */
+	public Duration tryAcquire() {
+		long now = nanoClock.getAsLong();
+		while (true) {
+			long theoreticalArrival = theoreticalArrivalNanos.get();
+			long start = theoreticalArrival - now > 0 ? theoreticalArrival : now;
+			long wait = start - now - burstToleranceNanos;
+			if (wait > 0) {
+				return Duration.ofNanos(wait);
+			}
+			if (theoreticalArrivalNanos.compareAndSet(theoreticalArrival, start + emissionIntervalNanos)) {
+				return Duration.ZERO;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,406 @@
+package com.qa.contactbookapi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.entity.Contact;
+
+// In-memory index of contact names, answering prefix, case-insensitive and typo-tolerant searches without a query.
+// Names are split into tokens folded to lower case without accents or punctuation, kept in a trie which answers exact and
+// prefix matches, and is walked for fuzzy matches without entering the branches beyond the typos allowed.
+// Writes are applied once their transaction has committed, one at a time; searches never block.
+// Only the writes of this instance are seen: the index is loaded from the repository once, when the application starts.
+// Every book is searched apart: its tokens are keyed by the book in the trie, so a search never visits those of another.
+
+@Component
+public class ContactSearchIndex {
+
+	// A search stops after examining this many contacts, so that terms matching many contacts apart and few together
+	// cannot make it check all of them; the best matches are examined first.
+	private static final int MAX_EXAMINED_CONTACTS = 4096;
+
+	private final Map<Long, IndexedName> namesById = new ConcurrentHashMap<>();
+
+	private final TokenTrie idsByToken = new TokenTrie();
+
+	private final Object writeLock = new Object();
+
+	// IDs written since loading began, which the (older) rows being loaded must not override; null when not loading.
+	private Set<Long> writtenWhileLoading;
+
+    /**
+     * Search contacts whose names match every term of the query, best matches first
+     * The term starting the tokens of the fewest contacts drives the search: contacts having a token equal to it come first,
+     * then those having a token starting with it. Only if there are none, those having a token starting with it give or
+     * take one typo past the first letter are searched, and only if there are none either, those with two typos past the
+     * first two letters, for terms of 6 letters or more. The other terms must match a token of the same contact in any of
+     * these ways.
+     * @param	book	The book (string) whose contacts are searched
+     * @param	query	The terms (string) to search, separated by spaces, in any case and with or without accents
+     * @param	limit	The maximum number of contacts (int) to return
+     * @return			The best matching contacts, in order
+     */
+	public List<ContactSearchHit> search(String book, String query, int limit) {
+
+		List<String> terms = tokenize(query);
+		if (terms.isEmpty() || limit < 1) {
+			return List.of();
+		}
+
+		// A term starting no token at all is likely misspelt, and the longest term is the most selective among equals.
+		String prefix = keyPrefix(book);
+		String driver = terms.stream().min(Comparator.comparingInt((String term) -> {
+			int count = idsByToken.countStartingWith(prefix + term);
+			return count == 0 ? Integer.MAX_VALUE : count;
+		}).thenComparing(Comparator.comparingInt(String::length).reversed())).get();
+		List<String> filters = new ArrayList<>(terms);
+		filters.remove(driver);
+
+		Search search = new Search(book, filters, limit);
+		String driverKey = prefix + driver;
+		if (search.collect(driverKey, idsByToken.get(driverKey))) {
+			idsByToken.forEachExtending(driverKey, search::collect);
+		}
+		for (int edits = 1; edits <= maxEdits(driver) && search.hits.isEmpty() && search.needsMore(); edits++) {
+			// As many leading letters as edits are kept, since typos rarely hit them and each one kept divides the branches
+			// to walk by the size of the alphabet; the book is always kept.
+			idsByToken.forEachWithinEdits(driverKey, edits, prefix.length() + edits, search::collect);
+		}
+
+		return new ArrayList<>(search.hits.values());
+	}
+
+    /**
+     * Index the names of a contact, replacing the ones it had, once the current transaction (if any) has committed
+     * @param	contact	The contact written, bearing its ID
+     */
+	public void put(Contact contact) {
+		long id = contact.getId();
+		String book = contact.getBook();
+		String firstName = contact.getFirstName();
+		String lastName = contact.getLastName();
+		afterCommit(() -> putNow(id, book, firstName, lastName, true));
+	}
+
+    /**
+     * Index the names of many contacts, once the current transaction (if any) has committed
+     * @param	contacts	The contacts written, bearing their IDs
+     */
+	public void putAll(Collection<Contact> contacts) {
+		for (Contact contact : contacts) {
+			put(contact);
+		}
+	}
+
+    /**
+     * Remove a contact from the index, once the current transaction (if any) has committed
+     * @param	id	The ID (long) of the contact removed
+     */
+	public void remove(long id) {
+		afterCommit(() -> removeNow(id));
+	}
+
+    /**
+     * Start loading the contacts already in the repository
+     * Contacts written from now on are indexed as usual, and are not overridden by the rows loaded.
+     */
+	public void beginLoading() {
+		synchronized (writeLock) {
+			writtenWhileLoading = new LinkedHashSet<>();
+		}
+	}
+
+    /**
+     * Index a contact read from the repository, unless it has been written since loading began
+     * @param	contact	The contact read, bearing its ID
+     */
+	public void load(Contact contact) {
+		synchronized (writeLock) {
+			if (writtenWhileLoading == null || writtenWhileLoading.contains(contact.getId())) {
+				return;
+			}
+			putNow(contact.getId(), contact.getBook(), contact.getFirstName(), contact.getLastName(), false);
+		}
+	}
+
+    /**
+     * Finish loading the contacts already in the repository
+     */
+	public void endLoading() {
+		synchronized (writeLock) {
+			writtenWhileLoading = null;
+		}
+	}
+
+    /**
+     * Count the contacts indexed
+     * @return	The number (int) of contacts indexed
+     */
+	public int size() {
+		return namesById.size();
+	}
+
+	private void putNow(long id, String book, String firstName, String lastName, boolean written) {
+		synchronized (writeLock) {
+			if (written && writtenWhileLoading != null) {
+				writtenWhileLoading.add(id);
+			}
+
+			IndexedName name = new IndexedName(book, firstName, lastName);
+			IndexedName previousName = namesById.put(id, name);
+			if (previousName != null) {
+				for (String token : previousName.tokens) {
+					if (!name.hasToken(token)) {
+						idsByToken.remove(keyPrefix(book) + token, id);
+					}
+				}
+			}
+			for (String token : name.tokens) {
+				idsByToken.add(keyPrefix(book) + token, id);
+			}
+		}
+	}
+
+	private void removeNow(long id) {
+		synchronized (writeLock) {
+			if (writtenWhileLoading != null) {
+				writtenWhileLoading.add(id);
+			}
+
+			IndexedName name = namesById.remove(id);
+			if (name != null) {
+				removeTokens(id, name);
+			}
+		}
+	}
+
+	private void removeTokens(long id, IndexedName name) {
+		for (String token : name.tokens) {
+			idsByToken.remove(keyPrefix(name.book) + token, id);
+		}
+	}
+
+	// The separator sorts before every letter and digit, and never appears in a token.
+	private static String keyPrefix(String book) {
+		return book + '\u0000';
+	}
+
+	private static void afterCommit(Runnable write) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					write.run();
+				}
+			});
+		} else {
+			write.run();
+		}
+	}
+
+	static List<String> tokenize(String text) {
+		if (text == null) {
+			return List.of();
+		}
+
+		// Decomposed, so that accents become separate marks which are dropped along with apostrophes and dots.
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		Set<String> tokens = new LinkedHashSet<>();
+		StringBuilder token = new StringBuilder();
+		for (int i = 0; i < decomposed.length(); i++) {
+			char c = decomposed.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				token.append(c);
+			} else if (Character.getType(c) != Character.NON_SPACING_MARK && c != '\'' && c != '\u2019' && c != '.') {
+				addToken(tokens, token);
+			}
+		}
+		addToken(tokens, token);
+
+		return new ArrayList<>(tokens);
+	}
+
+	private static void addToken(Set<String> tokens, StringBuilder token) {
+		if (token.length() > 0) {
+			tokens.add(token.toString());
+			token.setLength(0);
+		}
+	}
+
+	static int maxEdits(String term) {
+		if (term.length() < 3) {
+			return 0;
+		}
+		return term.length() < 6 ? 1 : 2;
+	}
+
+    /**
+     * Count the edits (insertions, deletions, substitutions and transpositions of adjacent letters) turning a term into
+     * the closest prefix of a token
+     * @param	term		The term (string) searched
+     * @param	token		The token (string) indexed
+     * @param	maxEdits	The maximum number of edits (int) of interest
+     * @return				The number of edits (int), or any number above the maximum once it is certain to be exceeded
+     */
+	static int prefixEdits(String term, String token, int maxEdits) {
+
+		int termLength = term.length();
+		int prefixLength = Math.min(token.length(), termLength + maxEdits);
+
+		int[] beforePrevious = new int[prefixLength + 1];
+		int[] previous = new int[prefixLength + 1];
+		int[] current = new int[prefixLength + 1];
+		for (int j = 0; j <= prefixLength; j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= termLength; i++) {
+			current[0] = i;
+			int rowMinimum = i;
+			for (int j = 1; j <= prefixLength; j++) {
+				char termChar = term.charAt(i - 1);
+				char tokenChar = token.charAt(j - 1);
+				int edits = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + (termChar == tokenChar ? 0 : 1));
+				if (i > 1 && j > 1 && termChar == token.charAt(j - 2) && term.charAt(i - 2) == tokenChar) {
+					edits = Math.min(edits, beforePrevious[j - 2] + 1);
+				}
+				current[j] = edits;
+				rowMinimum = Math.min(rowMinimum, edits);
+			}
+			if (rowMinimum > maxEdits) {
+				return maxEdits + 1;
+			}
+
+			int[] recycled = beforePrevious;
+			beforePrevious = previous;
+			previous = current;
+			current = recycled;
+		}
+
+		int edits = maxEdits + 1;
+		for (int j = 0; j <= prefixLength; j++) {
+			edits = Math.min(edits, previous[j]);
+		}
+		return edits;
+	}
+
+	private class Search {
+
+		private final String book;
+
+		private final int prefixLength;
+
+		private final List<String> filters;
+
+		private final int limit;
+
+		private final Map<Long, ContactSearchHit> hits = new LinkedHashMap<>();
+
+		private int examinedContacts;
+
+		private Search(String book, List<String> filters, int limit) {
+			this.book = book;
+			this.prefixLength = keyPrefix(book).length();
+			this.filters = filters;
+			this.limit = limit;
+		}
+
+		private boolean needsMore() {
+			return hits.size() < limit && examinedContacts < MAX_EXAMINED_CONTACTS;
+		}
+
+		// Collects the contacts having a token (keyed by the book) and matching the other terms, and returns whether more are needed.
+		private boolean collect(String key, Set<Long> ids) {
+			if (ids == null) {
+				return needsMore();
+			}
+
+			String token = key.substring(prefixLength);
+			for (Long id : ids) {
+				if (!needsMore()) {
+					return false;
+				}
+				examinedContacts++;
+				// A concurrent rename may leave the ID under its old token for a moment: the name it points to is checked.
+				IndexedName name = namesById.get(id);
+				if (name != null && name.book.equals(book) && name.hasToken(token) && name.matchesAll(filters)) {
+					hits.putIfAbsent(id, new ContactSearchHit(id, name.firstName, name.lastName));
+				}
+			}
+			return needsMore();
+		}
+
+	}
+
+	private static class IndexedName {
+
+		private final String book;
+
+		private final String firstName;
+
+		private final String lastName;
+
+		private final String[] tokens;
+
+		private IndexedName(String book, String firstName, String lastName) {
+			this.book = book;
+			this.firstName = firstName;
+			this.lastName = lastName;
+
+			Set<String> nameTokens = new LinkedHashSet<>(tokenize(firstName));
+			nameTokens.addAll(tokenize(lastName));
+			this.tokens = nameTokens.toArray(new String[0]);
+		}
+
+		private boolean hasToken(String token) {
+			for (String nameToken : tokens) {
+				if (nameToken.equals(token)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean matchesAll(List<String> terms) {
+			for (String term : terms) {
+				if (!matches(term)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean matches(String term) {
+			int maxEdits = maxEdits(term);
+			for (String token : tokens) {
+				if (token.startsWith(term)) {
+					return true;
+				}
+				// The first letter is never taken for a typo, which rules out most tokens before computing any edits.
+				if (maxEdits > 0 && token.charAt(0) == term.charAt(0)) {
+					int edits = prefixEdits(term, token, maxEdits);
+					if (edits <= maxEdits && token.regionMatches(0, term, 0, edits)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
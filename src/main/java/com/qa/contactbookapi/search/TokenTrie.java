@@ -0,0 +1,296 @@
+package com.qa.contactbookapi.search;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Trie of the tokens indexed, each holding the IDs of the contacts having it, with children in letter order.
+// The children of a node are replaced as a whole when a token is added or removed, so that a reader walking the trie never
+// needs a lock; writers must be serialised by the caller.
+
+class TokenTrie {
+
+	private static final Children NO_CHILDREN = new Children(new char[0], new Node[0]);
+
+	private final Node root = new Node();
+
+	// Visits a token and the IDs of the contacts having it; returns false to stop the walk.
+	interface TokenVisitor {
+
+		boolean visit(String token, Set<Long> ids);
+
+	}
+
+	Set<Long> get(String token) {
+		Node node = find(token);
+		return node == null ? null : node.ids;
+	}
+
+	// Counts the IDs held by the tokens starting with a prefix, the prefix itself included, as many times as they are held.
+	int countStartingWith(String prefix) {
+		Node node = find(prefix);
+		return node == null ? 0 : node.count;
+	}
+
+	void add(String token, long id) {
+		Node[] path = new Node[token.length() + 1];
+		path[0] = root;
+		for (int i = 0; i < token.length(); i++) {
+			path[i + 1] = path[i].childOrAdd(token.charAt(i));
+		}
+
+		Node node = path[token.length()];
+		Set<Long> ids = node.ids;
+		if (ids == null) {
+			ids = new ConcurrentSkipListSet<>();
+			ids.add(id);
+			node.token = token;
+			node.ids = ids;
+		} else if (!ids.add(id)) {
+			return;
+		}
+		for (Node pathNode : path) {
+			pathNode.count++;
+		}
+	}
+
+	void remove(String token, long id) {
+		Node[] path = new Node[token.length() + 1];
+		path[0] = root;
+		for (int i = 0; i < token.length(); i++) {
+			path[i + 1] = path[i].child(token.charAt(i));
+			if (path[i + 1] == null) {
+				return;
+			}
+		}
+
+		Node node = path[token.length()];
+		if (node.ids == null || !node.ids.remove(id)) {
+			return;
+		}
+		for (Node pathNode : path) {
+			pathNode.count--;
+		}
+		if (!node.ids.isEmpty()) {
+			return;
+		}
+		node.ids = null;
+
+		// Nodes left with neither a token nor children are unlinked, from the bottom up.
+		for (int i = token.length(); i > 0 && path[i].ids == null && path[i].children.labels.length == 0; i--) {
+			path[i - 1].removeChild(token.charAt(i - 1));
+		}
+	}
+
+    /**
+     * Visit the tokens starting with a prefix, in order, the prefix itself excluded
+     * @param	prefix	The prefix (string) of the tokens to visit
+     * @param	visitor	The visitor of each token
+     */
+	void forEachExtending(String prefix, TokenVisitor visitor) {
+		Node node = find(prefix);
+		if (node != null) {
+			visitDescendants(node, visitor);
+		}
+	}
+
+    /**
+     * Visit, in order, the tokens whose closest prefix is exactly the given number of edits (insertions, deletions,
+     * substitutions and transpositions of adjacent letters) away from a term, and whose first letters are the term's
+     * Branches of the trie which cannot come within the edits are never entered.
+     * @param	term			The term (string) searched
+     * @param	edits			The number of edits (int)
+     * @param	keptLetters		The number of leading letters (int) of the term which must be kept, at most the length of the term
+     * @param	visitor			The visitor of each token
+     */
+	void forEachWithinEdits(String term, int edits, int keptLetters, TokenVisitor visitor) {
+
+		int maxDepth = term.length() + edits;
+		int[][] rows = new int[maxDepth + 1][term.length() + 1];
+		for (int i = 0; i <= term.length(); i++) {
+			rows[0][i] = i;
+		}
+
+		char[] path = new char[maxDepth];
+		Node node = root;
+		int closest = term.length();
+		for (int depth = 1; depth <= keptLetters; depth++) {
+			path[depth - 1] = term.charAt(depth - 1);
+			node = node.child(path[depth - 1]);
+			if (node == null) {
+				return;
+			}
+			fillRow(rows, depth, term, path);
+			closest = Math.min(closest, rows[depth][term.length()]);
+		}
+
+		new FuzzyWalk(term, edits, rows, path, visitor).visitChildren(node, keptLetters, closest);
+	}
+
+	private Node find(String token) {
+		Node node = root;
+		for (int i = 0; i < token.length() && node != null; i++) {
+			node = node.child(token.charAt(i));
+		}
+		return node;
+	}
+
+	private static boolean visitDescendants(Node node, TokenVisitor visitor) {
+		Children children = node.children;
+		for (Node child : children.nodes) {
+			Set<Long> ids = child.ids;
+			if (ids != null && !visitor.visit(child.token, ids)) {
+				return false;
+			}
+			if (!visitDescendants(child, visitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Fills the row of edits between every prefix of the term and the path prefix of the given depth, and returns its minimum.
+	private static int fillRow(int[][] rows, int depth, String term, char[] path) {
+
+		int[] row = rows[depth];
+		int[] previousRow = rows[depth - 1];
+		char pathChar = path[depth - 1];
+
+		row[0] = depth;
+		int rowMinimum = depth;
+		for (int i = 1; i < row.length; i++) {
+			char termChar = term.charAt(i - 1);
+			int edits = Math.min(Math.min(previousRow[i] + 1, row[i - 1] + 1), previousRow[i - 1] + (termChar == pathChar ? 0 : 1));
+			if (i > 1 && depth > 1 && termChar == path[depth - 2] && term.charAt(i - 2) == pathChar) {
+				edits = Math.min(edits, rows[depth - 2][i - 2] + 1);
+			}
+			row[i] = edits;
+			rowMinimum = Math.min(rowMinimum, edits);
+		}
+		return rowMinimum;
+	}
+
+	private static class FuzzyWalk {
+
+		private final String term;
+
+		private final int edits;
+
+		private final int[][] rows;
+
+		private final char[] path;
+
+		private final TokenVisitor visitor;
+
+		private FuzzyWalk(String term, int edits, int[][] rows, char[] path, TokenVisitor visitor) {
+			this.term = term;
+			this.edits = edits;
+			this.rows = rows;
+			this.path = path;
+			this.visitor = visitor;
+		}
+
+		// The closest edits along a path can only decrease with depth: a branch already closer than the edits was visited
+		// by a previous walk, and a branch whose row exceeds them everywhere cannot come closer than it already is.
+		private boolean visitChildren(Node node, int depth, int closest) {
+			Children children = node.children;
+			for (int c = 0; c < children.labels.length; c++) {
+				Node child = children.nodes[c];
+				path[depth] = children.labels[c];
+				boolean beyondEdits = fillRow(rows, depth + 1, term, path) > edits;
+				int childClosest = Math.min(closest, rows[depth + 1][term.length()]);
+				if (childClosest < edits || (beyondEdits && childClosest > edits)) {
+					continue;
+				}
+
+				Set<Long> ids = child.ids;
+				if (childClosest == edits && ids != null && !visitor.visit(child.token, ids)) {
+					return false;
+				}
+				// Once no longer prefix can come within the edits, the tokens of the branch are as close as the branch itself.
+				if (!beyondEdits && depth + 1 < path.length) {
+					if (!visitChildren(child, depth + 1, childClosest)) {
+						return false;
+					}
+				} else if (childClosest == edits && !visitDescendants(child, visitor)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private static class Children {
+
+		private final char[] labels;
+
+		private final Node[] nodes;
+
+		private Children(char[] labels, Node[] nodes) {
+			this.labels = labels;
+			this.nodes = nodes;
+		}
+
+	}
+
+	private static class Node {
+
+		private volatile Children children = NO_CHILDREN;
+
+		private volatile String token;
+
+		private volatile Set<Long> ids;
+
+		private volatile int count;
+
+		private Node child(char label) {
+			Children current = children;
+			int index = Arrays.binarySearch(current.labels, label);
+			return index < 0 ? null : current.nodes[index];
+		}
+
+		private Node childOrAdd(char label) {
+			Children current = children;
+			int index = Arrays.binarySearch(current.labels, label);
+			if (index >= 0) {
+				return current.nodes[index];
+			}
+
+			int insertion = -index - 1;
+			int size = current.labels.length;
+			char[] labels = new char[size + 1];
+			Node[] nodes = new Node[size + 1];
+			System.arraycopy(current.labels, 0, labels, 0, insertion);
+			System.arraycopy(current.nodes, 0, nodes, 0, insertion);
+			System.arraycopy(current.labels, insertion, labels, insertion + 1, size - insertion);
+			System.arraycopy(current.nodes, insertion, nodes, insertion + 1, size - insertion);
+			Node child = new Node();
+			labels[insertion] = label;
+			nodes[insertion] = child;
+
+			children = new Children(labels, nodes);
+			return child;
+		}
+
+		private void removeChild(char label) {
+			Children current = children;
+			int index = Arrays.binarySearch(current.labels, label);
+			if (index < 0) {
+				return;
+			}
+
+			int size = current.labels.length;
+			char[] labels = new char[size - 1];
+			Node[] nodes = new Node[size - 1];
+			System.arraycopy(current.labels, 0, labels, 0, index);
+			System.arraycopy(current.nodes, 0, nodes, 0, index);
+			System.arraycopy(current.labels, index + 1, labels, index, size - index - 1);
+			System.arraycopy(current.nodes, index + 1, nodes, index, size - index - 1);
+
+			children = size == 1 ? NO_CHILDREN : new Children(labels, nodes);
+		}
+
+	}
+
+}
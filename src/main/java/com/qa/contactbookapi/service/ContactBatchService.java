@@ -0,0 +1,250 @@
+package com.qa.contactbookapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookQuota;
+import com.qa.contactbookapi.cache.ContactCache;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactBatchItemResult;
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.dto.ContactName;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactBatchRepository;
+import com.qa.contactbookapi.data.repository.ContactRepository;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.search.ContactSearchIndex;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+public class ContactBatchService {
+
+	// Attempts per chunk when concurrent writers take some of its names between the duplicate check and the insert.
+	private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+	private ContactRepository contactRepository;
+	
+	private ContactBatchRepository contactBatchRepository;
+	
+	private Validator validator;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private ContactSearchIndex contactSearchIndex;
+	
+	private ContactChangeFeed contactChangeFeed;
+	
+	private ContactBookQuota contactBookQuota;
+	
+	private ContactCache contactCache;
+	
+	private int chunkSize;
+	
+	private int maxContacts;
+
+	@Autowired
+	public ContactBatchService(ContactRepository contactRepository, ContactBatchRepository contactBatchRepository,
+			Validator validator, TransactionTemplate transactionTemplate, ContactSearchIndex contactSearchIndex, ContactChangeFeed contactChangeFeed,
+			ContactBookQuota contactBookQuota, ContactCache contactCache, @Value("${contactbook.batch.chunk-size:500}") int chunkSize,
+			@Value("${contactbook.batch.max-contacts:10000}") int maxContacts) {
+		this.contactRepository = contactRepository;
+		this.contactBatchRepository = contactBatchRepository;
+		this.validator = validator;
+		this.transactionTemplate = transactionTemplate;
+		this.contactSearchIndex = contactSearchIndex;
+		this.contactChangeFeed = contactChangeFeed;
+		this.contactBookQuota = contactBookQuota;
+		this.contactCache = contactCache;
+		this.chunkSize = chunkSize;
+		this.maxContacts = maxContacts;
+	}
+
+    /**
+     * Generate every unique and valid contact, one chunk (and one transaction) at a time
+     * Contacts are read lazily from the iterator, so only one chunk is held in memory, and the outcomes of at most max-contacts.
+     * @param	contacts	The contacts to be generated, in request order
+     * @return				The outcome of each contact, the totals and the throughput
+     * @throws	InvalidRequestParameterException
+     * If there were more than max-contacts contacts, it would throw this exception; the chunks before may already be created.
+     */
+	@Timed(ContactService.SERVICE_METRIC)
+	public ContactBatchResult generateAll(Iterator<Contact> contacts) {
+		
+		long start = System.nanoTime();
+		ContactBatchResult result = new ContactBatchResult();
+		
+		List<Contact> chunk = new ArrayList<>(chunkSize);
+		int firstIndex = 0;
+		
+		while (contacts.hasNext()) {
+			if (firstIndex + chunk.size() == maxContacts) {
+				throw new InvalidRequestParameterException("Batch is too large, as it may hold at most " + maxContacts + " contacts.");
+			}
+			chunk.add(contacts.next());
+			if (chunk.size() == chunkSize) {
+				result.addAll(generateChunkResolvingRaces(chunk, firstIndex));
+				firstIndex += chunk.size();
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			result.addAll(generateChunkResolvingRaces(chunk, firstIndex));
+		}
+		
+		result.complete(System.nanoTime() - start);
+		return result;
+	}
+
+    /**
+     * Generate one chunk of contacts of the current book in a single transaction
+     * Duplicates are resolved with one query for the whole chunk, and new contacts are inserted with one JDBC batch.
+     * The contacts for which the book has no room left are rejected as invalid.
+     * @param	chunk		The contacts to be generated
+     * @param	firstIndex	The position (int) of the first contact of the chunk within the whole request
+     * @return				The outcome of each contact of the chunk, in order
+     */
+	public List<ContactBatchItemResult> generateChunk(List<Contact> chunk, int firstIndex) {
+		
+		String book = ContactBook.current();
+		ContactBatchItemResult[] results = new ContactBatchItemResult[chunk.size()];
+		List<Integer> candidates = new ArrayList<>(chunk.size());
+		
+		// 1. Validate each contact against the constraints declared on the entity, in parallel as the validator is thread-safe
+		List<Set<ConstraintViolation<Contact>>> chunkViolations = chunk.parallelStream().map(contact -> validator.validate(contact))
+				.collect(Collectors.toList());
+		for (int i = 0; i < chunk.size(); i++) {
+			Set<ConstraintViolation<Contact>> violations = chunkViolations.get(i);
+			if (violations.isEmpty()) {
+				candidates.add(i);
+			} else {
+				results[i] = ContactBatchItemResult.invalid(firstIndex + i, ContactConstraints.describe(violations));
+			}
+		}
+		
+		// 2. Reserve room for every valid contact ahead of the transaction; what duplicates leave unused is given back after it
+		int reserved = contactBookQuota.reserveUpTo(book, candidates.size());
+		int inserted;
+		try {
+			inserted = transactionTemplate.execute(status -> insertChunk(book, chunk, firstIndex, candidates, reserved, results));
+		} catch (RuntimeException e) {
+			contactBookQuota.release(book, reserved);
+			throw e;
+		}
+		contactBookQuota.release(book, reserved - inserted);
+		
+		return Arrays.asList(results);
+	}
+	
+    /**
+     * Generate one chunk of contacts in a single transaction, re-running it if concurrent writers took some of its names
+     * @param	chunk		The contacts to be generated
+     * @param	firstIndex	The position (int) of the first contact of the chunk within the whole request
+     * @return				The outcome of each contact of the chunk, in order
+     */
+	public List<ContactBatchItemResult> generateChunkResolvingRaces(List<Contact> chunk, int firstIndex) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return generateChunk(chunk, firstIndex);
+			} catch (DataIntegrityViolationException e) {
+				// The unique name index rejected the batch and its transaction was rolled back: re-running the chunk
+				// classifies the names taken in the meantime as duplicates.
+				if (attempt == MAX_CHUNK_ATTEMPTS || !ContactConstraints.isDuplicateName(e)) {
+					throw e;
+				}
+			}
+		}
+	}
+	
+    /**
+     * Remove one chunk of contacts of the current book among some IDs, which match a filter (its IDs aside), in a single transaction
+     * @param	filter	The criteria the contacts must match
+     * @param	ids		The IDs (longs) of the contacts, in ascending order; those which do not exist are skipped
+     * @return			The IDs of the contacts removed, in ascending order
+     */
+	public List<Long> removeChunk(ContactDeleteFilter filter, List<Long> ids) {
+		String book = ContactBook.current();
+		List<Long> removed = transactionTemplate.execute(status -> removeLocked(book, contactBatchRepository.lockAmong(book, filter, ids)));
+		contactBookQuota.release(book, removed.size());
+		return removed;
+	}
+	
+	// Returns the number of contacts inserted, at most the number reserved.
+	private int insertChunk(String book, List<Contact> chunk, int firstIndex, List<Integer> candidates, int reserved,
+			ContactBatchItemResult[] results) {
+		
+		// 3. Fetch, in one query, the existing contacts sharing a last and a first name with the chunk
+		Set<String> lastNames = new HashSet<>();
+		Set<String> firstNames = new HashSet<>();
+		for (int i : candidates) {
+			lastNames.add(chunk.get(i).getLastName());
+			firstNames.add(chunk.get(i).getFirstName());
+		}
+		Set<String> takenNames = new HashSet<>();
+		if (!candidates.isEmpty()) {
+			for (ContactName name : contactRepository.findNamesIn(book, lastNames, firstNames)) {
+				takenNames.add(nameKey(name.getLastName(), name.getFirstName()));
+			}
+		}
+		
+		// 4. Insert the contacts whose names are neither taken nor repeated earlier in the chunk, as far as the book has room
+		List<Contact> contactsToInsert = new ArrayList<>(candidates.size());
+		List<Integer> insertedPositions = new ArrayList<>(candidates.size());
+		for (int i : candidates) {
+			Contact contact = chunk.get(i);
+			if (!takenNames.add(nameKey(contact.getLastName(), contact.getFirstName()))) {
+				results[i] = ContactBatchItemResult.duplicate(firstIndex + i, "Contact with first name " + contact.getFirstName()
+						+ " and last name " + contact.getLastName() + " is a duplicate.");
+			} else if (contactsToInsert.size() == reserved) {
+				results[i] = ContactBatchItemResult.invalid(firstIndex + i, contactBookQuota.fullMessage(book));
+			} else {
+				contact.setId(null);
+				contact.setBook(book);
+				contactsToInsert.add(contact);
+				insertedPositions.add(i);
+			}
+		}
+		contactBatchRepository.insertAll(contactsToInsert);
+		contactSearchIndex.putAll(contactsToInsert);
+		contactChangeFeed.recordCreatedAll(contactsToInsert);
+		
+		for (int j = 0; j < contactsToInsert.size(); j++) {
+			int i = insertedPositions.get(j);
+			results[i] = ContactBatchItemResult.created(firstIndex + i, contactsToInsert.get(j).getId());
+		}
+		return contactsToInsert.size();
+	}
+	
+	// The contacts were locked when selected, so that every one of them is deleted, whatever concurrent edits do meanwhile;
+	// the book's room is given back once the transaction has committed.
+	private List<Long> removeLocked(String book, List<Long> ids) {
+		contactBatchRepository.deleteAll(book, ids);
+		for (long id : ids) {
+			contactCache.evict(id);
+			contactSearchIndex.remove(id);
+		}
+		contactChangeFeed.recordRemovedAll(ids);
+		return ids;
+	}
+	
+	private static String nameKey(String lastName, String firstName) {
+		return lastName + '\u0000' + firstName;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.qa.contactbookapi.service;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+// Recognises violations of the unique (last name, first name) index among data integrity violations,
+// and describes violations of the constraints declared on the Contact entity.
+
+final class ContactConstraints {
+
+	static final String UNIQUE_NAME_INDEX = "uk_contacts_book_last_name_first_name";
+
+	private ContactConstraints() {
+	}
+
+    /**
+     * Check whether a data integrity violation was raised by the unique (last name, first name) index
+     * H2 and MySQL both name the violated index in their error messages, whichever layer reports it.
+     * @param	e	The data integrity violation thrown by the repository
+     * @return		True if the violation was caused by a duplicate (last name, first name) pair
+     */
+	static boolean isDuplicateName(DataIntegrityViolationException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			String message = cause.getMessage();
+			if (message != null && message.toLowerCase(Locale.ROOT).contains(UNIQUE_NAME_INDEX)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+    /**
+     * Describe constraint violations in a stable order, e.g. "firstName: First name must be provided.; mobileNumber: ..."
+     * @param	violations	The constraint violations of one contact
+     * @return				The "property: message" pairs, sorted and separated by "; "
+     */
+	static String describe(Collection<? extends ConstraintViolation<?>> violations) {
+		return violations.stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.qa.contactbookapi.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookQuota;
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.dto.ContactDeleteJob;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactBatchRepository;
+import com.qa.contactbookapi.jobs.ContactJobRegistry;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+
+// Bulk deletes, by a list of IDs, by a filter or of a whole book, run in the background on a bounded executor. They remove
+// one chunk (and one transaction) at a time through ContactBatchService, so that no statement holds its locks, nor grows
+// the undo log, for long; between two chunks, the job pauses for pause-ratio times as long as the last chunk took, so that
+// replicas keep up. A delete of a whole book, or by filter, only removes the contacts up to the highest ID of the book at
+// submission: the contacts created meanwhile are kept. Jobs are queued, kept and found through a ContactJobRegistry.
+
+@Service
+public class ContactDeleteService implements DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContactDeleteService.class);
+
+	private ContactBatchService contactBatchService;
+
+	private ContactBatchRepository contactBatchRepository;
+
+	private ContactBookQuota contactBookQuota;
+
+	private int chunkSize;
+
+	private double pauseRatio;
+
+	private int maxIds;
+
+	private ContactJobRegistry<ContactDeleteJob> jobs;
+
+	@Autowired
+	public ContactDeleteService(ContactBatchService contactBatchService, ContactBatchRepository contactBatchRepository,
+			ContactBookQuota contactBookQuota, @Value("${contactbook.delete.chunk-size:1000}") int chunkSize,
+			@Value("${contactbook.delete.pause-ratio:1.0}") double pauseRatio, @Value("${contactbook.delete.max-ids:100000}") int maxIds,
+			@Value("${contactbook.delete.concurrency:1}") int concurrency, @Value("${contactbook.delete.queue-capacity:4}") int queueCapacity,
+			@Value("${contactbook.delete.retained-jobs:100}") int retainedJobs,
+			@Value("${contactbook.delete.retry-after:1m}") Duration retryAfter) {
+		this.contactBatchService = contactBatchService;
+		this.contactBatchRepository = contactBatchRepository;
+		this.contactBookQuota = contactBookQuota;
+		this.chunkSize = chunkSize;
+		this.pauseRatio = pauseRatio;
+		this.maxIds = maxIds;
+		this.jobs = new ContactJobRegistry<>("delete", concurrency, queueCapacity, retainedJobs, retryAfter);
+	}
+
+    /**
+     * Queue the removal of every contact of the current book
+     * @return	The job queued, to follow the delete
+     * @throws	ServiceOverloadedException
+     * If too many deletes are already queued, it would throw this exception.
+     */
+	public ContactDeleteJob submitAll() {
+		String book = ContactBook.current();
+		return submit(new ContactDeleteFilter(), contactBookQuota.count(book), book);
+	}
+
+    /**
+     * Queue the removal of the contacts of the current book matching a filter
+     * @param	filter	The criteria the contacts must match, at least one of them
+     * @return			The job queued, to follow the delete
+     * @throws	InvalidRequestParameterException
+     * If the filter held no criterion, too many IDs or an invalid mobile number or email address, it would throw this exception.
+     * @throws	ServiceOverloadedException
+     * If too many deletes are already queued, it would throw this exception.
+     */
+	public ContactDeleteJob submit(ContactDeleteFilter filter) {
+
+		if (filter.isEmpty()) {
+			throw new InvalidRequestParameterException("Filter is invalid, as it must hold at least one criterion.");
+		}
+		if (filter.getMobileNumber() != null && Contact.mobileKeyOf(filter.getMobileNumber()) == null) {
+			throw new InvalidRequestParameterException("Mobile number " + filter.getMobileNumber() + " is invalid, as it must hold digits.");
+		}
+		if (filter.getEmailAddress() != null && Contact.emailKeyOf(filter.getEmailAddress()) == null) {
+			throw new InvalidRequestParameterException("Email address is invalid, as it must not be blank.");
+		}
+
+		Long expected = null;
+		if (filter.getIds() != null) {
+			if (filter.getIds().size() > maxIds) {
+				throw new InvalidRequestParameterException("IDs are too many, as at most " + maxIds + " can be removed at once.");
+			}
+			// Sorted, so that chunks lock their rows in index order, as every other chunk and range scan does.
+			filter.setIds(filter.getIds().stream().distinct().sorted().collect(Collectors.toList()));
+			expected = (long) filter.getIds().size();
+		}
+		return submit(filter, expected, ContactBook.current());
+	}
+
+    /**
+     * Fetch the progress of a delete
+     * @param	id	The ID (string) of the job
+     * @return		The job
+     * @throws	InvalidJobException
+     * If the job does not exist (or was forgotten), it would throw this exception.
+     */
+	public ContactDeleteJob fetchJob(String id) {
+		return jobs.fetch(id);
+	}
+
+	@Override
+	public void destroy() {
+		jobs.shutdown();
+	}
+
+	private ContactDeleteJob submit(ContactDeleteFilter filter, Long expected, String book) {
+
+		long maxId = filter.getIds() == null ? contactBatchRepository.findMaxId(book) : 0;
+		ContactDeleteJob job = new ContactDeleteJob(expected);
+		return jobs.submit(job, () -> run(job, filter, maxId));
+	}
+
+	private void run(ContactDeleteJob job, ContactDeleteFilter filter, long maxId) {
+
+		job.start();
+		try {
+			if (filter.getIds() == null) {
+				removeUpTo(job, filter, maxId);
+			} else {
+				removeAmong(job, filter);
+			}
+			job.complete();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			job.fail("Delete was interrupted, as the service is shutting down.");
+		} catch (RuntimeException e) {
+			// The cause (e.g. the SQL of a failed statement) is for the log, not for the clients polling the job.
+			LOGGER.error("Delete job {} failed", job.getId(), e);
+			job.fail("Delete failed, as an unexpected error occurred.");
+		}
+	}
+
+	// Walks the (book, id) index without locking: each chunk finds the next IDs matching the filter after the last ID found
+	// by the previous one, then locks and removes only the contacts among them which still match it.
+	private void removeUpTo(ContactDeleteJob job, ContactDeleteFilter filter, long maxId) throws InterruptedException {
+		String book = ContactBook.current();
+		long afterId = 0;
+		while (afterId < maxId) {
+			long start = System.nanoTime();
+			List<Long> ids = contactBatchRepository.findNext(book, filter, afterId, maxId, chunkSize);
+			if (ids.isEmpty()) {
+				return;
+			}
+			job.addChunk(contactBatchService.removeChunk(filter, ids).size());
+			if (ids.size() < chunkSize) {
+				return;
+			}
+			afterId = ids.get(ids.size() - 1);
+			if (afterId < maxId) {
+				pause(start);
+			}
+		}
+	}
+
+	private void removeAmong(ContactDeleteJob job, ContactDeleteFilter filter) throws InterruptedException {
+		List<Long> ids = filter.getIds();
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			long start = System.nanoTime();
+			int to = Math.min(from + chunkSize, ids.size());
+			List<Long> removed = contactBatchService.removeChunk(filter, ids.subList(from, to));
+			job.addChunk(removed.size());
+			if (to < ids.size()) {
+				pause(start);
+			}
+		}
+	}
+
+	private void pause(long chunkStart) throws InterruptedException {
+		long pauseNanos = (long) ((System.nanoTime() - chunkStart) * pauseRatio);
+		if (pauseNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(pauseNanos);
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.qa.contactbookapi.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.repository.ContactExportRepository;
+import com.qa.contactbookapi.exports.ContactExportWriter;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+public class ContactExportService {
+
+	private ContactExportRepository contactExportRepository;
+
+	@Autowired
+	public ContactExportService(ContactExportRepository contactExportRepository) {
+		this.contactExportRepository = contactExportRepository;
+	}
+
+    /**
+     * Export every contact of the current book, ordered by ID, through a forward-only cursor, in a single read-only transaction
+     * Only one fetch batch of rows and the buffer of the writer are held in memory, whatever the number of contacts.
+     * @param	writer	The writer of the contacts, left open
+     */
+	@Timed(ContactService.SERVICE_METRIC)
+	@Transactional(readOnly = true)
+	public void exportAll(ContactExportWriter writer) {
+		contactExportRepository.writeAll(ContactBook.current(), writer);
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.qa.contactbookapi.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qa.contactbookapi.data.dto.ContactBatchItemResult;
+import com.qa.contactbookapi.data.dto.ContactBatchItemStatus;
+import com.qa.contactbookapi.data.dto.ContactImportJob;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+import com.qa.contactbookapi.imports.ContactImportFormat;
+import com.qa.contactbookapi.imports.ContactImportReader;
+import com.qa.contactbookapi.imports.ContactImportRecord;
+import com.qa.contactbookapi.jobs.ContactJobRegistry;
+
+// Bulk imports of CSV and vCard files, run in the background on a bounded executor. Memory stays constant whatever the size
+// of the file: the request body is spooled to a temporary file, read one record at a time, and written one chunk (and one
+// transaction) at a time through ContactBatchService; the records which were not created go to an error file, also on disk.
+// Jobs are queued, kept and found through a ContactJobRegistry; the error file of a job is deleted once it is forgotten.
+
+@Service
+public class ContactImportService implements DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContactImportService.class);
+
+	private static final String ERRORS_HEADER = "record,status,message";
+
+	private ContactBatchService contactBatchService;
+
+	private int chunkSize;
+
+	private ContactJobRegistry<ContactImportJob> jobs;
+
+	// Error file of each job kept by the registry.
+	private final Map<String, Path> errorFiles = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ContactImportService(ContactBatchService contactBatchService, @Value("${contactbook.batch.chunk-size:500}") int chunkSize,
+			@Value("${contactbook.import.concurrency:1}") int concurrency, @Value("${contactbook.import.queue-capacity:4}") int queueCapacity,
+			@Value("${contactbook.import.retained-jobs:100}") int retainedJobs,
+			@Value("${contactbook.import.retry-after:1m}") Duration retryAfter) {
+		this.contactBatchService = contactBatchService;
+		this.chunkSize = chunkSize;
+		this.jobs = new ContactJobRegistry<>("import", concurrency, queueCapacity, retainedJobs, retryAfter, this::deleteErrorFile);
+	}
+
+    /**
+     * Spool a file to disk and queue its import into the current book
+     * @param	format	The format of the file
+     * @param	file	The bytes of the file, read to the end but not closed
+     * @param	charset	The encoding of the file
+     * @return			The job queued, to follow the import
+     * @throws	ServiceOverloadedException
+     * If too many imports are already queued, it would throw this exception.
+     */
+	public ContactImportJob submit(ContactImportFormat format, InputStream file, Charset charset) throws IOException {
+
+		Path spoolFile = Files.createTempFile("contact-import-", ".spool");
+		Path errorFile = null;
+		try {
+			Files.copy(file, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+			errorFile = Files.createTempFile("contact-import-", "-errors.csv");
+
+			ContactImportJob job = new ContactImportJob(format);
+			Path jobErrorFile = errorFile;
+			jobs.submit(job, () -> run(job, jobErrorFile, spoolFile, charset));
+			errorFiles.put(job.getId(), jobErrorFile);
+			return job;
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(spoolFile);
+			if (errorFile != null) {
+				Files.deleteIfExists(errorFile);
+			}
+			throw e;
+		}
+	}
+
+    /**
+     * Fetch the progress of an import
+     * @param	id	The ID (string) of the job
+     * @return		The job
+     * @throws	InvalidJobException
+     * If the job does not exist (or was forgotten), it would throw this exception.
+     */
+	public ContactImportJob fetchJob(String id) {
+		return jobs.fetch(id);
+	}
+
+    /**
+     * Fetch the file of the records of an import which were not created (CSV: record, status, message), as it stands
+     * @param	id	The ID (string) of the job
+     * @return		The path of the error file
+     * @throws	InvalidJobException
+     * If the job does not exist (or was forgotten), it would throw this exception.
+     */
+	public Path fetchErrorFile(String id) {
+		return errorFiles.get(jobs.fetch(id).getId());
+	}
+
+	@Override
+	public void destroy() {
+		jobs.shutdown();
+	}
+
+	private void run(ContactImportJob job, Path errorFile, Path spoolFile, Charset charset) {
+
+		job.start();
+		try (ContactImportReader records = open(job.getFormat(), spoolFile, charset);
+				BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+
+			errors.write(ERRORS_HEADER);
+			errors.newLine();
+
+			List<Contact> chunk = new ArrayList<>(chunkSize);
+			List<Long> numbers = new ArrayList<>(chunkSize);
+			while (records.hasNext()) {
+				ContactImportRecord record = records.next();
+				if (record.getContact() == null) {
+					writeError(errors, record.getNumber(), ContactBatchItemStatus.INVALID, record.getError());
+					job.addUnreadable();
+					continue;
+				}
+				chunk.add(record.getContact());
+				numbers.add(record.getNumber());
+				if (chunk.size() == chunkSize) {
+					generateChunk(job, chunk, numbers, errors);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				generateChunk(job, chunk, numbers, errors);
+			}
+
+			job.complete();
+		} catch (UncheckedIOException e) {
+			// The file cannot be read any further (e.g. a missing header or an unterminated CSV quote): the client is told why.
+			job.fail(e.getCause().getMessage());
+		} catch (IOException | RuntimeException e) {
+			// The cause (e.g. the SQL of a failed statement) is for the log, not for the clients polling the job.
+			LOGGER.error("Import job {} failed", job.getId(), e);
+			job.fail("Import failed, as an unexpected error occurred.");
+		} finally {
+			try {
+				Files.deleteIfExists(spoolFile);
+			} catch (IOException e) {
+				spoolFile.toFile().deleteOnExit();
+			}
+		}
+	}
+
+	private void generateChunk(ContactImportJob job, List<Contact> chunk, List<Long> numbers, BufferedWriter errors) throws IOException {
+
+		List<ContactBatchItemResult> results = contactBatchService.generateChunkResolvingRaces(chunk, 0);
+		for (ContactBatchItemResult result : results) {
+			if (result.getStatus() != ContactBatchItemStatus.CREATED) {
+				writeError(errors, numbers.get(result.getIndex()), result.getStatus(), result.getMessage());
+			}
+		}
+		errors.flush();
+		job.addAll(results);
+
+		chunk.clear();
+		numbers.clear();
+	}
+
+	private void deleteErrorFile(ContactImportJob job) {
+		Path errorFile = errorFiles.remove(job.getId());
+		try {
+			Files.deleteIfExists(errorFile);
+		} catch (IOException e) {
+			errorFile.toFile().deleteOnExit();
+		}
+	}
+
+	// Opening the spooled file may fail on the server's side; reading its header, only on the client's.
+	private static ContactImportReader open(ContactImportFormat format, Path spoolFile, Charset charset) throws IOException {
+		BufferedReader reader = Files.newBufferedReader(spoolFile, charset);
+		try {
+			return format.open(reader);
+		} catch (IOException e) {
+			reader.close();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeError(BufferedWriter errors, long number, ContactBatchItemStatus status, String message) throws IOException {
+		errors.write(number + "," + status + "," + quote(message));
+		errors.newLine();
+	}
+
+	private static String quote(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+}
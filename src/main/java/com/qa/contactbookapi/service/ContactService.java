@@ -1,39 +1,193 @@
 package com.qa.contactbookapi.service;
 
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookQuota;
+import com.qa.contactbookapi.cache.ContactCache;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactFields;
+import com.qa.contactbookapi.data.dto.ContactPatch;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.dto.ContactVersion;
 import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactFieldsRepository;
 import com.qa.contactbookapi.data.repository.ContactRepository;
+import com.qa.contactbookapi.exceptions.BookQuotaExceededException;
 import com.qa.contactbookapi.exceptions.DuplicateContactException;
 import com.qa.contactbookapi.exceptions.InvalidContactException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.StaleContactException;
+import com.qa.contactbookapi.search.ContactSearchIndex;
+
+import io.micrometer.core.annotation.Timed;
+
+// Every method works on the contacts of the current book (see ContactBook), which it passes on to the repositories.
 
 @Service
 public class ContactService {
 	
+	// Latency of each method, tagged by class and method, with the percentiles configured in application.properties.
+	public static final String SERVICE_METRIC = "contactbook.service";
+	
+	// Birthday keys (month x 100 + day) bounding the year, and those of the end of February.
+	private static final int JANUARY_1 = 101;
+	
+	private static final int FEBRUARY_28 = 228;
+	
+	private static final int FEBRUARY_29 = 229;
+	
+	private static final int DECEMBER_31 = 1231;
+	
 	private ContactRepository contactRepository;
 	
+	private EntityManager entityManager;
+	
+	private ContactCache contactCache;
+	
+	private Validator validator;
+	
+	private ContactSearchIndex contactSearchIndex;
+	
+	private ContactFieldsRepository contactFieldsRepository;
+	
+	private ContactChangeFeed contactChangeFeed;
+	
+	private ContactBookQuota contactBookQuota;
+	
+	private TransactionTemplate transactionTemplate;
+	
 	@Autowired
-	public ContactService(ContactRepository contactRepository) {
+	public ContactService(ContactRepository contactRepository, EntityManager entityManager, ContactCache contactCache, Validator validator,
+			ContactSearchIndex contactSearchIndex, ContactFieldsRepository contactFieldsRepository, ContactChangeFeed contactChangeFeed,
+			ContactBookQuota contactBookQuota, TransactionTemplate transactionTemplate) {
 		this.contactRepository = contactRepository;
+		this.entityManager = entityManager;
+		this.contactCache = contactCache;
+		this.validator = validator;
+		this.contactSearchIndex = contactSearchIndex;
+		this.contactFieldsRepository = contactFieldsRepository;
+		this.contactChangeFeed = contactChangeFeed;
+		this.contactBookQuota = contactBookQuota;
+		this.transactionTemplate = transactionTemplate;
 	}
 
+	@Timed(SERVICE_METRIC)
 	public List<Contact> fetchAll() {
-		return contactRepository.findAll();
+		return contactRepository.findByBookOrderById(ContactBook.current());
+	}
+
+    /**
+     * Fetch one page of contacts, ordered by ID, starting after the given ID (keyset pagination)
+     * @param	afterId		The ID (long) of the last contact of the previous page (0 for the first page)
+     * @param	pageSize	The maximum number of contacts (int) to fetch
+     * @return				The page of contacts, which knows whether a following page exists
+     */
+	@Timed(SERVICE_METRIC)
+	public Slice<Contact> fetchPage(long afterId, int pageSize) {
+		return contactRepository.findByBookAndIdGreaterThan(ContactBook.current(), afterId, PageRequest.of(0, pageSize, Sort.by("id")));
+	}
+
+    /**
+     * Fetch one page of contacts, ordered by ID, selecting only the columns of the requested fields
+     * @param	fields		The fields to fetch (the ID always among them)
+     * @param	afterId		The ID (long) of the last contact of the previous page (0 for the first page)
+     * @param	pageSize	The maximum number of contacts (int) to fetch
+     * @return				The page of contacts, as their requested fields by name, which knows whether a following page exists
+     */
+	@Timed(SERVICE_METRIC)
+	public Slice<Map<String, Object>> fetchPage(ContactFields fields, long afterId, int pageSize) {
+		return contactFieldsRepository.findPage(ContactBook.current(), fields, afterId, pageSize);
+	}
+
+    /**
+     * Stream all contacts, ordered by ID, through a forward-only cursor
+     * Each contact is detached once consumed, so that only one fetch batch is held in memory at a time.
+     * @param	consumer	The consumer to which each contact is handed in turn
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional(readOnly = true)
+	public void streamAll(Consumer<Contact> consumer) {
+		try (Stream<Contact> contacts = contactRepository.streamByBookOrderById(ContactBook.current())) {
+			contacts.forEach(contact -> {
+				consumer.accept(contact);
+				entityManager.detach(contact);
+			});
+		}
+	}
+
+    /**
+     * Stream all contacts, ordered by ID, through a forward-only cursor, selecting only the columns of the requested fields
+     * @param	fields		The fields to fetch (the ID always among them)
+     * @param	consumer	The consumer to which the requested fields of each contact, by name, are handed in turn
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional(readOnly = true)
+	public void streamAll(ContactFields fields, Consumer<Map<String, Object>> consumer) {
+		try (Stream<Map<String, Object>> contacts = contactFieldsRepository.streamAll(ContactBook.current(), fields)) {
+			contacts.forEach(consumer);
+		}
+	}
+
+    /**
+     * Stream the contacts whose birthday falls within a number of days from a date, in calendar order, then by ID
+     * The birthdays are read through index ranges of their birthday keys: the cost follows the number of contacts found.
+     * In the years without a 29 February, the contacts born on that day have their birthday on 28 February.
+     * @param	from		The first day (date) of the range
+     * @param	days		The number of days (int) of the range, from 1 to 365, so that no birthday falls twice within it
+     * @param	consumer	The consumer to which each contact is handed in turn
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional(readOnly = true)
+	public void streamBirthdays(LocalDate from, int days, Consumer<Contact> consumer) {
+		String book = ContactBook.current();
+		for (int[] range : birthdayKeyRanges(from, from.plusDays(days - 1L))) {
+			try (Stream<Contact> contacts = contactRepository.streamByBookAndBirthdayKeyBetween(book, range[0], range[1])) {
+				contacts.forEach(contact -> {
+					consumer.accept(contact);
+					entityManager.detach(contact);
+				});
+			}
+		}
 	}
 
     /**
      * Fetch contact based on their ID
      * @param	id	An input ID number (long)
-     * @return		The contact fetched from the repository corresponding to the input ID	
+     * @return		The contact fetched from the cache, or else the repository, corresponding to the input ID	
      * @throws	InvalidContactException
      * If the ID were not found in the repository, it would throw this exception.
      */
+	@Timed(SERVICE_METRIC)
 	public Contact fetchById(long id) {
-		return contactRepository.findById(id).orElseThrow(() -> {
-			return new InvalidContactException("Cannot find contact with ID " + id + " , as it does not exist.");
+		String book = ContactBook.current();
+		return contactCache.getById(book, id).orElseGet(() -> {
+			long stamp = contactCache.stamp();
+			Contact contact = contactRepository.findByIdAndBook(id, book).orElseThrow(() -> {
+				return new InvalidContactException("Cannot find contact with ID " + id + " , as it does not exist.");
+			});
+			contactCache.put(contact, stamp);
+			return contact;
 		});
 	}
 	
@@ -41,10 +195,97 @@ public class ContactService {
      * Fetch contact based on their last and first names
      * @param	lastName	The last name (string) of the contact to fetch
      * @param	firstName	The first name (string) of the contact to fetch
-     * @return				The contact fetched from the repository corresponding to the input last and first names
+     * @return				The contact fetched from the cache, or else the repository, corresponding to the input last and first names
      */
+	@Timed(SERVICE_METRIC)
 	public Contact fetchByLastNameAndFirstName(String lastName, String firstName) {
-		return contactRepository.findByLastNameAndFirstName(lastName, firstName);
+		String book = ContactBook.current();
+		return contactCache.getByName(book, lastName, firstName).orElseGet(() -> {
+			long stamp = contactCache.stamp();
+			Contact contact = contactRepository.findByBookAndLastNameAndFirstName(book, lastName, firstName);
+			contactCache.put(contact, stamp);
+			return contact;
+		});
+	}
+
+    /**
+     * Fetch the contacts having a mobile number, however it is written (e.g. "07777 777777" or "+447777777777")
+     * @param	mobileNumber	The mobile number (string) to look up
+     * @return					The contacts having this number, ordered by ID (empty if there are none)
+     * @throws	InvalidRequestParameterException
+     * If the mobile number held no digits, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	public List<Contact> fetchByMobileNumber(String mobileNumber) {
+		return contactRepository.findByBookAndMobileKeyOrderById(ContactBook.current(), mobileKeyOf(mobileNumber));
+	}
+
+    /**
+     * Fetch the contacts having a mobile number, selecting only the columns of the requested fields
+     * @param	mobileNumber	The mobile number (string) to look up
+     * @param	fields			The fields to fetch (the ID always among them)
+     * @return					The contacts having this number, as their requested fields by name, ordered by ID
+     * @throws	InvalidRequestParameterException
+     * If the mobile number held no digits, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	public List<Map<String, Object>> fetchByMobileNumber(String mobileNumber, ContactFields fields) {
+		return contactFieldsRepository.findByMobileKey(ContactBook.current(), fields, mobileKeyOf(mobileNumber));
+	}
+
+    /**
+     * Fetch the contacts having an email address, in any case
+     * @param	emailAddress	The email address (string) to look up
+     * @return					The contacts having this address, ordered by ID (empty if there are none)
+     * @throws	InvalidRequestParameterException
+     * If the email address were blank, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	public List<Contact> fetchByEmailAddress(String emailAddress) {
+		return contactRepository.findByBookAndEmailKeyOrderById(ContactBook.current(), emailKeyOf(emailAddress));
+	}
+
+    /**
+     * Fetch the contacts having an email address, selecting only the columns of the requested fields
+     * @param	emailAddress	The email address (string) to look up
+     * @param	fields			The fields to fetch (the ID always among them)
+     * @return					The contacts having this address, as their requested fields by name, ordered by ID
+     * @throws	InvalidRequestParameterException
+     * If the email address were blank, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	public List<Map<String, Object>> fetchByEmailAddress(String emailAddress, ContactFields fields) {
+		return contactFieldsRepository.findByEmailKey(ContactBook.current(), fields, emailKeyOf(emailAddress));
+	}
+
+    /**
+     * Search contacts by name, from the in-memory search index
+     * Matching is case-insensitive, accent-insensitive and tolerant of typos; see ContactSearchIndex.search().
+     * @param	query	The terms (string) to search, separated by spaces
+     * @param	limit	The maximum number of contacts (int) to return
+     * @return			The best matching contacts, in order
+     */
+	@Timed(SERVICE_METRIC)
+	public List<ContactSearchHit> search(String query, int limit) {
+		return contactSearchIndex.search(ContactBook.current(), query, limit);
+	}
+	
+    /**
+     * Load the contacts of every book already in the repository into the search index
+     * Contacts written meanwhile are indexed as usual, and are not overridden by the rows loaded.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional(readOnly = true)
+	public void loadSearchIndex() {
+		contactSearchIndex.beginLoading();
+		try (Stream<Contact> contacts = contactRepository.streamAllOrderedById()) {
+			contacts.forEach(contact -> {
+				contactSearchIndex.load(contact);
+				entityManager.detach(contact);
+			});
+		} finally {
+			contactSearchIndex.endLoading();
+		}
 	}
 
     /**
@@ -53,46 +294,89 @@ public class ContactService {
      * @return			The contact generated
      * @throws	DuplicateContactException
      * If the contact were already in the repository, it would throw this exception.
+     * @throws	BookQuotaExceededException
+     * If the book already held as many contacts as it may, it would throw this exception.
      */
+	@Timed(SERVICE_METRIC)
 	public Contact generate(Contact contact) {
 		
-		// 1. Check if the contact were found based on their last and first names
-		if (!contactRepository.existsByLastNameAndFirstName(contact.getLastName(), contact.getFirstName())) {
-			
-			// 2. Create new contact if unique (based on their last and first names)
-			Contact persistedContact = contactRepository.save(contact);
-			return persistedContact;
-				
-		} else {
-			throw new DuplicateContactException("Contact " + contact + " is a duplicate; thus, a new contact with the same fields will not be created.");
+		// The book's room is reserved ahead of the transaction, and given back if the contact is not created.
+		String book = ContactBook.current();
+		contactBookQuota.reserve(book);
+		try {
+			return transactionTemplate.execute(status -> insert(contact, book));
+		} catch (RuntimeException e) {
+			contactBookQuota.release(book, 1);
+			throw e;
 		}
-
 	}
 	
     /**
-     * Edit contact's details (except for the ID) based on their ID
+     * Edit contact's details (except for the ID) based on their ID, via a single UPDATE
      * @param	id	An input ID number (long)
      * @return		The edited contact
      * @throws	InvalidContactException
      * If the ID were not found in the repository, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
      */
+	@Timed(SERVICE_METRIC)
+	@Transactional
 	public Contact editById(long id, Contact contact) {
+		return editById(id, contact, null);
+	}
+	
+    /**
+     * Edit contact's details (except for the ID) based on their ID, via a single UPDATE, if they are still at the expected version
+     * @param	id			An input ID number (long)
+     * @param	expected	The version the client expects to replace, or null to replace any version
+     * @return				The edited contact, whose version is only known (expected version + 1) if an expected version was given
+     * @throws	InvalidContactException
+     * If the ID were not found in the repository, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact were no longer at the expected version, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact editById(long id, Contact contact, ContactVersion expected) {
 		
-
-		if (contactRepository.existsById(id)) {
-
-			Contact contactToEdit = contactRepository.getById(id);
-			
-			contactToEdit.setFirstName(contact.getFirstName());
-			contactToEdit.setLastName(contact.getLastName());
-			contactToEdit.setMobileNumber(contact.getMobileNumber());
-			contactToEdit.setEmailAddress(contact.getEmailAddress());
-			contactToEdit.setDateOfBirth(contact.getDateOfBirth());
-			
-			return contactRepository.save(contactToEdit);
-		} else {
+		String book = ContactBook.current();
+		int editedRows = 0;
+		try {
+			if (expected == null) {
+				editedRows = contactRepository.updateContactById(id, book, contact);
+			} else if (expected.getId() == id) {
+				editedRows = contactRepository.updateContactByIdAndVersion(id, book, expected.getVersion(), contact);
+			}
+		} catch (DataIntegrityViolationException e) {
+			if (ContactConstraints.isDuplicateName(e)) {
+				throw new DuplicateContactException("Cannot edit contact with ID " + id + " , as contact with first name "
+						+ contact.getFirstName() + " and last name " + contact.getLastName() + " already exists.");
+			}
+			throw e;
+		}
+		
+		if (editedRows == 0) {
+			// Only a conditional edit needs the second round-trip telling a stale version from a missing contact.
+			if (expected != null && contactRepository.existsByIdAndBook(id, book)) {
+				throw new StaleContactException("Cannot edit contact with ID " + id + " , as it has been modified since it was fetched.");
+			}
 			throw new InvalidContactException("Cannot edit contact with ID " + id + " , as it does not exist.");
 		}
+		contactCache.evict(id);
+		
+		// Every column has just been overwritten, so the edited contact is known without reading it back.
+		Contact editedContact = new Contact(id, contact.getFirstName(), contact.getLastName(), contact.getMobileNumber(),
+				contact.getEmailAddress(), contact.getDateOfBirth());
+		editedContact.setBook(book);
+		if (expected != null) {
+			editedContact.setVersion(expected.getVersion() + 1);
+		}
+		contactSearchIndex.put(editedContact);
+		contactChangeFeed.recordUpdated(editedContact);
+		return editedContact;
 	}
 	
     /**
@@ -103,38 +387,281 @@ public class ContactService {
      * @throws	InvalidContactException
      * If the ID were not found in the repository, it would throw this exception.
      */	
+	@Timed(SERVICE_METRIC)
+	@Transactional
 	public Contact editByLastNameAndFirstName(String lastName, String firstName, Contact contact) {
+		return editByLastNameAndFirstName(lastName, firstName, contact, null);
+	}
+	
+    /**
+     * Edit contact's details (except for the ID, and the last and first names) based on their last and first names, if they are still at the expected version
+     * The contact is read once and its changes are flushed as a single UPDATE, guarded by its version.
+     * @param	lastName	The last name (string) of the contact to edit
+     * @param	firstName	The first name (string) of the contact to edit
+     * @param	expected	The version the client expects to replace, or null to replace any version
+     * @return				The edited contact
+     * @throws	InvalidContactException
+     * If the ID were not found in the repository, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact were no longer at the expected version, it would throw this exception.
+     */	
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact editByLastNameAndFirstName(String lastName, String firstName, Contact contact, ContactVersion expected) {
+		
+		Contact contactToEdit = contactRepository.findByBookAndLastNameAndFirstName(ContactBook.current(), lastName, firstName);
+		
+		if (contactToEdit == null) {
+			throw new InvalidContactException("Cannot edit contact with first name " + firstName + " and last name " + lastName + " , as it does not exist.");
+		}
+		checkVersion(contactToEdit, expected);
+		
+		contactToEdit.setMobileNumber(contact.getMobileNumber());
+		contactToEdit.setEmailAddress(contact.getEmailAddress());
+		contactToEdit.setDateOfBirth(contact.getDateOfBirth());
+		
+		return flushEdit(contactToEdit);
+	}
+
+    /**
+     * Patch the supplied fields of a contact based on their ID
+     * Only the supplied fields are validated, and only the columns whose values change are updated.
+     * @param	id		An input ID number (long)
+     * @param	patch	The supplied fields and their new values
+     * @return			The patched contact
+     * @throws	InvalidRequestParameterException
+     * If a supplied field were invalid, it would throw this exception.
+     * @throws	InvalidContactException
+     * If the ID were not found in the repository, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact patchById(long id, ContactPatch patch) {
+		return patchById(id, patch, null);
+	}
+	
+    /**
+     * Patch the supplied fields of a contact based on their ID, if they are still at the expected version
+     * Only the supplied fields are validated, and only the columns whose values change are updated.
+     * @param	id			An input ID number (long)
+     * @param	patch		The supplied fields and their new values
+     * @param	expected	The version the client expects to replace, or null to replace any version
+     * @return				The patched contact
+     * @throws	InvalidRequestParameterException
+     * If a supplied field were invalid, it would throw this exception.
+     * @throws	InvalidContactException
+     * If the ID were not found in the repository, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact were no longer at the expected version, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact patchById(long id, ContactPatch patch, ContactVersion expected) {
+		
+		validate(patch);
+		
+		Contact contactToPatch = contactRepository.findByIdAndBook(id, ContactBook.current()).orElseThrow(() -> {
+			return new InvalidContactException("Cannot edit contact with ID " + id + " , as it does not exist.");
+		});
+		checkVersion(contactToPatch, expected);
+		
+		patch.applyTo(contactToPatch);
+		return flushEdit(contactToPatch);
+	}
+	
+    /**
+     * Patch the supplied fields of a contact based on their last and first names
+     * Only the supplied fields are validated, and only the columns whose values change are updated.
+     * @param	lastName	The last name (string) of the contact to patch
+     * @param	firstName	The first name (string) of the contact to patch
+     * @param	patch		The supplied fields and their new values
+     * @return				The patched contact
+     * @throws	InvalidRequestParameterException
+     * If a supplied field were invalid, it would throw this exception.
+     * @throws	InvalidContactException
+     * If the last and first names were not found in the repository, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact patchByLastNameAndFirstName(String lastName, String firstName, ContactPatch patch) {
+		return patchByLastNameAndFirstName(lastName, firstName, patch, null);
+	}
+	
+    /**
+     * Patch the supplied fields of a contact based on their last and first names, if they are still at the expected version
+     * Only the supplied fields are validated, and only the columns whose values change are updated.
+     * @param	lastName	The last name (string) of the contact to patch
+     * @param	firstName	The first name (string) of the contact to patch
+     * @param	patch		The supplied fields and their new values
+     * @param	expected	The version the client expects to replace, or null to replace any version
+     * @return				The patched contact
+     * @throws	InvalidRequestParameterException
+     * If a supplied field were invalid, it would throw this exception.
+     * @throws	InvalidContactException
+     * If the last and first names were not found in the repository, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact were no longer at the expected version, it would throw this exception.
+     * @throws	DuplicateContactException
+     * If another contact already had the new last and first names, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	@Transactional
+	public Contact patchByLastNameAndFirstName(String lastName, String firstName, ContactPatch patch, ContactVersion expected) {
+		
+		validate(patch);
 		
-		if (contactRepository.existsByLastNameAndFirstName(lastName, firstName)) {
-			
-			Contact contactToEdit = contactRepository.findByLastNameAndFirstName(lastName, firstName);
-			
-			contactToEdit.setMobileNumber(contact.getMobileNumber());
-			contactToEdit.setEmailAddress(contact.getEmailAddress());
-			contactToEdit.setDateOfBirth(contact.getDateOfBirth());
+		Contact contactToPatch = contactRepository.findByBookAndLastNameAndFirstName(ContactBook.current(), lastName, firstName);
 		
-			return contactRepository.save(contactToEdit);
-		} else {
+		if (contactToPatch == null) {
 			throw new InvalidContactException("Cannot edit contact with first name " + firstName + " and last name " + lastName + " , as it does not exist.");
 		}
+		checkVersion(contactToPatch, expected);
+		
+		patch.applyTo(contactToPatch);
+		return flushEdit(contactToPatch);
 	}
 
     /**
-     * Remove contact based on their ID
+     * Remove contact based on their ID, via a single DELETE
      * @param	id	An input ID number (long) corresponding to the contact to be removed	
      * @throws	InvalidContactException
      * If the ID were not found in the repository, it would throw this exception.
      */
+	@Timed(SERVICE_METRIC)
 	public void remove(long id) {
-		if (contactRepository.existsById(id)) {
-			contactRepository.deleteById(id);
-		} else {
+		remove(id, null);
+	}
+	
+    /**
+     * Remove contact based on their ID, via a single DELETE, if they are still at the expected version
+     * @param	id			An input ID number (long) corresponding to the contact to be removed
+     * @param	expected	The version the client expects to remove, or null to remove any version
+     * @throws	InvalidContactException
+     * If the ID were not found in the repository, it would throw this exception.
+     * @throws	StaleContactException
+     * If the contact were no longer at the expected version, it would throw this exception.
+     */
+	@Timed(SERVICE_METRIC)
+	public void remove(long id, ContactVersion expected) {
+		
+		// The book's room is given back once the removal has committed.
+		String book = ContactBook.current();
+		transactionTemplate.executeWithoutResult(status -> delete(id, expected, book));
+		contactBookQuota.release(book, 1);
+	}
+	
+	private void delete(long id, ContactVersion expected, String book) {
+		
+		int removedRows = 0;
+		if (expected == null) {
+			removedRows = contactRepository.deleteContactById(id, book);
+		} else if (expected.getId() == id) {
+			removedRows = contactRepository.deleteContactByIdAndVersion(id, book, expected.getVersion());
+		}
+		
+		if (removedRows == 0) {
+			if (expected != null && contactRepository.existsByIdAndBook(id, book)) {
+				throw new StaleContactException("Cannot remove contact with ID " + id + " , as it has been modified since it was fetched.");
+			}
 			throw new InvalidContactException("Cannot remove contact with ID " + id + " , as it does not exist.");
 		}
+		contactCache.evict(id);
+		contactSearchIndex.remove(id);
+		contactChangeFeed.recordRemoved(id);
 	}
 	
-	public void removeAll() {
-		contactRepository.deleteAllInBatch();
+	// A single INSERT: the unique (book, last name, first name) index rejects duplicates, including concurrent ones.
+	// Any ID sent by the client is dropped, as saving a contact with an ID would merge it into the contact holding it.
+	private Contact insert(Contact contact, String book) {
+		
+		contact.setId(null);
+		contact.setBook(book);
+		try {
+			Contact savedContact = contactRepository.save(contact);
+			contactSearchIndex.put(savedContact);
+			contactChangeFeed.recordCreated(savedContact);
+			return savedContact;
+		} catch (DataIntegrityViolationException e) {
+			if (ContactConstraints.isDuplicateName(e)) {
+				throw new DuplicateContactException("Contact with first name " + contact.getFirstName() + " and last name " + contact.getLastName()
+						+ " is a duplicate; thus, a new contact with the same names will not be created.");
+			}
+			throw e;
+		}
+	}
+	
+	private void validate(ContactPatch patch) {
+		Set<ConstraintViolation<Contact>> violations = new HashSet<>();
+		for (String field : patch.getFields()) {
+			violations.addAll(validator.validateValue(Contact.class, field, patch.getValue(field)));
+		}
+		if (!violations.isEmpty()) {
+			throw new InvalidRequestParameterException("Patch is invalid: " + ContactConstraints.describe(violations));
+		}
+	}
+	
+	private static void checkVersion(Contact contact, ContactVersion expected) {
+		if (expected != null && (expected.getId() != contact.getId() || expected.getVersion() != contact.getVersion())) {
+			throw new StaleContactException("Cannot edit contact with ID " + contact.getId() + " , as it has been modified since it was fetched.");
+		}
+	}
+	
+	private Contact flushEdit(Contact contactToEdit) {
+		
+		// Flushed here, rather than on commit, so that a name clash surfaces as a duplicate and a concurrent edit as a stale contact;
+		// unchanged contacts issue no UPDATE.
+		try {
+			contactRepository.flush();
+		} catch (DataIntegrityViolationException e) {
+			if (ContactConstraints.isDuplicateName(e)) {
+				throw new DuplicateContactException("Cannot edit contact with ID " + contactToEdit.getId() + " , as contact with first name "
+						+ contactToEdit.getFirstName() + " and last name " + contactToEdit.getLastName() + " already exists.");
+			}
+			throw e;
+		} catch (ObjectOptimisticLockingFailureException e) {
+			throw new StaleContactException("Cannot edit contact with ID " + contactToEdit.getId() + " , as it has been modified since it was fetched.");
+		}
+		
+		contactCache.evict(contactToEdit.getId());
+		contactSearchIndex.put(contactToEdit);
+		contactChangeFeed.recordUpdated(contactToEdit);
+		return contactToEdit;
+	}
+
+	// One range of birthday keys, or two if the days wrap around the end of the year (the end of the range is less than a
+	// year after its start). 29 February is added to a range ending on 28 February of a year without it.
+	private static List<int[]> birthdayKeyRanges(LocalDate from, LocalDate to) {
+		int toKey = Contact.birthdayKeyOf(to);
+		if (toKey == FEBRUARY_28 && !to.isLeapYear()) {
+			toKey = FEBRUARY_29;
+		}
+		
+		if (from.getYear() == to.getYear()) {
+			return List.of(new int[] { Contact.birthdayKeyOf(from), toKey });
+		}
+		return List.of(new int[] { Contact.birthdayKeyOf(from), DECEMBER_31 }, new int[] { JANUARY_1, toKey });
+	}
+
+	private static String mobileKeyOf(String mobileNumber) {
+		String mobileKey = Contact.mobileKeyOf(mobileNumber);
+		if (mobileKey == null) {
+			throw new InvalidRequestParameterException("Mobile number " + mobileNumber + " is invalid, as it must hold digits.");
+		}
+		return mobileKey;
+	}
+
+	private static String emailKeyOf(String emailAddress) {
+		String emailKey = Contact.emailKeyOf(emailAddress);
+		if (emailKey == null) {
+			throw new InvalidRequestParameterException("Email address is invalid, as it must not be blank.");
+		}
+		return emailKey;
 	}
 
 }
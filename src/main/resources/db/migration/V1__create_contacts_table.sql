@@ -0,0 +1,13 @@
+-- Contacts table, as mapped by the 'Contact' entity (Spring's physical naming strategy: snake_case columns).
+-- Databases created earlier by 'spring.jpa.hibernate.ddl-auto' already have this table and are baselined at this version.
+
+CREATE TABLE contacts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    mobile_number VARCHAR(255) NOT NULL,
+    email_address VARCHAR(255),
+    date_of_birth DATE,
+
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,5 @@
+-- Contacts are identified by their (last name, first name) pair: look-ups by name become index seeks, and the
+-- database rejects concurrent duplicates that a check-then-insert would let through.
+-- Any duplicate rows already present must be merged or removed before this migration can run.
+
+CREATE UNIQUE INDEX uk_contacts_last_name_first_name ON contacts (last_name, first_name);
@@ -0,0 +1,4 @@
+-- Optimistic concurrency: the version of a contact is incremented by every update and surfaced as its ETag,
+-- so that conditional writes (If-Match) fail instead of silently overwriting a concurrent update.
+
+ALTER TABLE contacts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Reverse look-ups by mobile number and email address: both are kept in a normalised form (the digits of the E.164
+-- number, the trimmed lower-cased address) in indexed columns, so that a look-up is an index seek however the values
+-- were written. The application sets the keys on every write; the rows already present are normalised here, in the
+-- same way (numbers starting with a single 0 are UK numbers, '00' prefixes are international).
+
+ALTER TABLE contacts ADD COLUMN mobile_key VARCHAR(32);
+ALTER TABLE contacts ADD COLUMN email_key VARCHAR(255);
+
+UPDATE contacts SET mobile_key = REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(mobile_number, ' ', ''), '-', ''), '.', ''), '(', ''), ')', ''), '+', '');
+UPDATE contacts SET mobile_key = SUBSTRING(mobile_key, 3) WHERE mobile_key LIKE '00%' AND TRIM(mobile_number) NOT LIKE '+%';
+UPDATE contacts SET mobile_key = CONCAT('44', SUBSTRING(mobile_key, 2)) WHERE mobile_key LIKE '0%' AND TRIM(mobile_number) NOT LIKE '+%' AND TRIM(mobile_number) NOT LIKE '00%';
+UPDATE contacts SET mobile_key = NULL WHERE mobile_key = '';
+
+UPDATE contacts SET email_key = LOWER(TRIM(email_address));
+UPDATE contacts SET email_key = NULL WHERE email_key = '';
+
+CREATE INDEX ix_contacts_mobile_key ON contacts (mobile_key);
+CREATE INDEX ix_contacts_email_key ON contacts (email_key);
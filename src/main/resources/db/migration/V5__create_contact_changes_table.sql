@@ -0,0 +1,13 @@
+-- Transactional outbox of contact changes: every write to the contacts table appends its change here in the same
+-- transaction, so that consumers can follow the changes in sequence order (GET /contact/changes) instead of re-reading
+-- the whole table. The contact column holds the JSON of the contact once created or updated, and is null otherwise.
+
+CREATE TABLE contact_changes (
+    sequence BIGINT NOT NULL AUTO_INCREMENT,
+    change_type VARCHAR(16) NOT NULL,
+    contact_id BIGINT,
+    contact VARCHAR(4000),
+    changed_at TIMESTAMP NOT NULL,
+
+    PRIMARY KEY (sequence)
+);
@@ -0,0 +1,27 @@
+-- Contact books (tenants): every contact belongs to one book, the rows already present to the default book. The book is
+-- the leading column of every index, so that each book's contacts form their own ranges of the indexes: look-ups, pages
+-- and name checks of one book never walk through the rows of another, however large. Names are unique within a book.
+-- The contact_books table counts the contacts of each book, for the per-book quota; its row is locked by every write
+-- changing the count, so that concurrent writes to the same book cannot exceed it. Changes record their book too.
+
+ALTER TABLE contacts ADD COLUMN book VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+CREATE UNIQUE INDEX uk_contacts_book_last_name_first_name ON contacts (book, last_name, first_name);
+CREATE INDEX ix_contacts_book_id ON contacts (book, id);
+CREATE INDEX ix_contacts_book_mobile_key ON contacts (book, mobile_key);
+CREATE INDEX ix_contacts_book_email_key ON contacts (book, email_key);
+
+DROP INDEX uk_contacts_last_name_first_name ON contacts;
+DROP INDEX ix_contacts_mobile_key ON contacts;
+DROP INDEX ix_contacts_email_key ON contacts;
+
+CREATE TABLE contact_books (
+    book VARCHAR(64) NOT NULL,
+    contact_count BIGINT NOT NULL,
+
+    PRIMARY KEY (book)
+);
+
+INSERT INTO contact_books (book, contact_count) SELECT book, COUNT(*) FROM contacts GROUP BY book;
+
+ALTER TABLE contact_changes ADD COLUMN book VARCHAR(64) DEFAULT 'default' NOT NULL;
@@ -0,0 +1,10 @@
+-- Upcoming birthdays: the month and day of the date of birth are kept as a key (month x 100 + day, e.g. 406 for 6 April),
+-- in an indexed column led by the book, so that the birthdays within a range of days are an index range scan, in calendar
+-- order, costing in proportion to the contacts found rather than to the book. The application sets the key on every
+-- write; the rows already present are keyed here.
+
+ALTER TABLE contacts ADD COLUMN birthday_key INT;
+
+UPDATE contacts SET birthday_key = EXTRACT(MONTH FROM date_of_birth) * 100 + EXTRACT(DAY FROM date_of_birth) WHERE date_of_birth IS NOT NULL;
+
+CREATE INDEX ix_contacts_book_birthday_key ON contacts (book, birthday_key);
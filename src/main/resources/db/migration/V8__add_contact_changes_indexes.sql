@@ -0,0 +1,6 @@
+-- Change feed of each book: its changes are read through an index led by the book, in sequence order, so that a reader
+-- only walks through the changes of its own book. Changes past the retention period are purged oldest first, through the
+-- index on their time.
+
+CREATE INDEX ix_contact_changes_book_sequence ON contact_changes (book, sequence);
+CREATE INDEX ix_contact_changes_changed_at ON contact_changes (changed_at);
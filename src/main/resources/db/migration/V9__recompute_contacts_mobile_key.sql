@@ -0,0 +1,14 @@
+-- The mobile keys backfilled by V4 stripped only the usual separators (' ', '-', '.', '(', ')', '+'), whereas the
+-- application keeps only the digits of a number, so rows holding any other character (e.g. "07777/777777",
+-- "+44 (0)7777 777777 ext") were keyed differently and could not be found by number. The keys are recomputed here by
+-- the application's rule, in one pass so that each prefix rule applies to the digits as written: keep the digits; an
+-- international number ('+') is kept as is, a '00' prefix is dropped, a single leading 0 is a UK number.
+
+UPDATE contacts SET mobile_key = REGEXP_REPLACE(mobile_number, '[^0-9]', '');
+UPDATE contacts SET mobile_key = CASE
+        WHEN mobile_key = '' THEN NULL
+        WHEN TRIM(mobile_number) LIKE '+%' THEN mobile_key
+        WHEN mobile_key LIKE '00%' THEN SUBSTRING(mobile_key, 3)
+        WHEN mobile_key LIKE '0%' THEN CONCAT('44', SUBSTRING(mobile_key, 2))
+        ELSE mobile_key
+    END;
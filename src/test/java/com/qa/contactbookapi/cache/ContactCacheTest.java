@@ -0,0 +1,103 @@
+package com.qa.contactbookapi.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.entity.Contact;
+
+public class ContactCacheTest {
+
+	private AtomicLong nanos;
+	
+	private ContactCache contactCache;
+	
+	private Contact firstContact;
+	
+	@BeforeEach
+	public void init() {
+		nanos = new AtomicLong();
+		contactCache = new ContactCache(100, Duration.ofMinutes(10), nanos::get);
+		
+		firstContact = new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6));
+	}
+	
+	@Test
+	public void getByIdHitTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		assertThat(contactCache.getById(ContactBook.DEFAULT, 1L)).isEqualTo(Optional.of(firstContact));
+	}
+	
+	@Test
+	public void getByIdMissTest() {
+		assertThat(contactCache.getById(ContactBook.DEFAULT, 1L)).isEqualTo(Optional.empty());
+	}
+	
+	@Test
+	public void getByIdOtherBookTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		
+		assertThat(contactCache.getById("other", 1L)).isEqualTo(Optional.empty());
+		assertThat(contactCache.getByName("other", "Beckett", "Kate")).isEqualTo(Optional.empty());
+	}
+	
+	@Test
+	public void putStoresCopyTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		firstContact.setMobileNumber("07777777778");
+		
+		assertThat(contactCache.getById(ContactBook.DEFAULT, 1L).get().getMobileNumber()).isEqualTo("07777777777");
+	}
+	
+	@Test
+	public void getByNameHitTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		assertThat(contactCache.getByName(ContactBook.DEFAULT, "Beckett", "Kate")).isEqualTo(Optional.of(firstContact));
+	}
+	
+	@Test
+	public void getByNameAfterEvictionTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		contactCache.evict(1L);
+		
+		assertThat(contactCache.getByName(ContactBook.DEFAULT, "Beckett", "Kate")).isEqualTo(Optional.empty());
+	}
+	
+	@Test
+	public void getByOldNameAfterRenameTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		contactCache.evict(1L);
+		
+		Contact renamedContact = new Contact(1L, "Katie", "Backett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6));
+		contactCache.put(renamedContact, contactCache.stamp());
+		
+		assertThat(contactCache.getByName(ContactBook.DEFAULT, "Beckett", "Kate")).isEqualTo(Optional.empty());
+		assertThat(contactCache.getByName(ContactBook.DEFAULT, "Backett", "Katie")).isEqualTo(Optional.of(renamedContact));
+	}
+	
+	@Test
+	public void putAfterConcurrentEvictionTest() {
+		long stamp = contactCache.stamp();
+		contactCache.evict(1L);
+		contactCache.put(firstContact, stamp);
+		
+		assertThat(contactCache.getById(ContactBook.DEFAULT, 1L)).isEqualTo(Optional.empty());
+	}
+	
+	@Test
+	public void expiryTest() {
+		contactCache.put(firstContact, contactCache.stamp());
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+		
+		assertThat(contactCache.getById(ContactBook.DEFAULT, 1L)).isEqualTo(Optional.empty());
+	}
+	
+}
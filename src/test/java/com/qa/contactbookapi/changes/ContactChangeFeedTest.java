@@ -0,0 +1,230 @@
+package com.qa.contactbookapi.changes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactChangePage;
+import com.qa.contactbookapi.data.dto.ContactChangeType;
+import com.qa.contactbookapi.data.repository.ContactChangeRepository;
+
+public class ContactChangeFeedTest {
+
+	private ContactChangeRepository contactChangeRepository;
+	
+	private ContactChangeFeed contactChangeFeed;
+	
+	private List<ContactChange> outbox;
+	
+	@BeforeEach
+	public void init() {
+		ContactBook.bind(ContactBook.DEFAULT);
+		outbox = new CopyOnWriteArrayList<>();
+		contactChangeRepository = mock(ContactChangeRepository.class);
+		when(contactChangeRepository.findSequencesAfter(anyLong(), anyInt())).thenAnswer(invocation -> outbox.stream()
+				.map(ContactChange::getSequence)
+				.filter(sequence -> sequence > invocation.<Long>getArgument(0))
+				.limit(invocation.<Integer>getArgument(1))
+				.collect(Collectors.toList()));
+		when(contactChangeRepository.findAfter(anyString(), anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> outbox.stream()
+				.filter(change -> change.getBook().equals(invocation.getArgument(0)))
+				.filter(change -> change.getSequence() > invocation.<Long>getArgument(1) && change.getSequence() <= invocation.<Long>getArgument(2))
+				.limit(invocation.<Integer>getArgument(3))
+				.collect(Collectors.toList()));
+		contactChangeFeed = feed(Duration.ofSeconds(10));
+	}
+	
+	@AfterEach
+	public void destroy() {
+		ContactBook.bind(null);
+		contactChangeFeed.destroy();
+	}
+	
+	@Test
+	public void readWithholdsChangesAfterRecentGapTest() {
+		Instant now = Instant.now();
+		outbox.addAll(List.of(removed(1, now), removed(2, now), removed(4, now)));
+		
+		ContactChangePage page = contactChangeFeed.read(ContactBook.DEFAULT, 0, 10);
+		
+		assertThat(page.getChanges()).isEqualTo(outbox.subList(0, 2));
+		assertThat(page.getNextSince()).isEqualTo(2);
+	}
+	
+	@Test
+	public void readTimesGapFromFirstSightTest() {
+		// The changes were appended long ago, but may have committed just now.
+		Instant then = Instant.now().minusSeconds(60);
+		outbox.addAll(List.of(removed(3, then), removed(5, then)));
+		
+		assertThat(contactChangeFeed.read(ContactBook.DEFAULT, 0, 10).getChanges()).containsExactly(outbox.get(0));
+	}
+	
+	@Test
+	public void readSkipsOldGapTest() throws Exception {
+		ContactChangeFeed shortGapFeed = feed(Duration.ofMillis(100));
+		Instant now = Instant.now();
+		outbox.addAll(List.of(removed(1, now), removed(3, now)));
+		
+		assertThat(shortGapFeed.read(ContactBook.DEFAULT, 0, 10).getChanges()).containsExactly(outbox.get(0));
+		Thread.sleep(200);
+		assertThat(shortGapFeed.read(ContactBook.DEFAULT, 0, 10).getChanges()).isEqualTo(outbox);
+		shortGapFeed.destroy();
+	}
+	
+	@Test
+	public void readFiltersOtherBooksTest() {
+		Instant now = Instant.now();
+		ContactChange otherBookChange = new ContactChange(2, ContactChangeType.REMOVED, 2L, null, now, "other");
+		outbox.addAll(List.of(removed(1, now), otherBookChange, removed(3, now)));
+		
+		ContactChangePage page = contactChangeFeed.read(ContactBook.DEFAULT, 0, 10);
+		
+		assertThat(page.getChanges()).extracting(ContactChange::getSequence).containsExactly(1L, 3L);
+		assertThat(page.getNextSince()).isEqualTo(3);
+		assertThat(contactChangeFeed.read("other", 0, 10).getChanges()).containsExactly(otherBookChange);
+		verify(contactChangeRepository).findAfter(ContactBook.DEFAULT, 0, 3, 10);
+	}
+	
+	@Test
+	public void readStopsAtLimitTest() {
+		Instant now = Instant.now();
+		outbox.addAll(List.of(removed(1, now), removed(2, now), removed(3, now)));
+		
+		ContactChangePage page = contactChangeFeed.read(ContactBook.DEFAULT, 0, 2);
+		
+		assertThat(page.getChanges()).extracting(ContactChange::getSequence).containsExactly(1L, 2L);
+		assertThat(page.getNextSince()).isEqualTo(2);
+	}
+	
+	@Test
+	public void purgeKeepsWatermarkTest() {
+		Instant now = Instant.now();
+		outbox.addAll(List.of(removed(1, now), removed(2, now), removed(4, now)));
+		when(contactChangeRepository.deleteBefore(any(Instant.class), anyLong(), anyInt())).thenReturn(1000, 3);
+		
+		assertThat(contactChangeFeed.purge()).isEqualTo(1003);
+		verify(contactChangeRepository, times(2)).deleteBefore(any(Instant.class), eq(2L), eq(1000));
+	}
+	
+	@Test
+	public void recordRemovedTest() {
+		contactChangeFeed.recordRemoved(7L);
+		
+		verify(contactChangeRepository).append(eq(ContactChangeType.REMOVED), eq(7L), isNull(), any(Instant.class), eq(ContactBook.DEFAULT));
+	}
+	
+	@Test
+	public void pollReturnsStraightAwayTest() throws Exception {
+		outbox.add(removed(1, Instant.now()));
+		CompletableFuture<ContactChangePage> result = new CompletableFuture<>();
+		
+		contactChangeFeed.poll(ContactBook.DEFAULT, 0, 10, Duration.ofSeconds(5), result::complete);
+		
+		assertThat(result).isCompleted();
+		assertThat(result.get().getChanges()).isEqualTo(outbox);
+	}
+	
+	@Test
+	public void pollWaitsForChangesTest() throws Exception {
+		CompletableFuture<ContactChangePage> result = new CompletableFuture<>();
+		
+		contactChangeFeed.poll(ContactBook.DEFAULT, 0, 10, Duration.ofSeconds(5), result::complete);
+		assertThat(result).isNotDone();
+		
+		// Outside a transaction, the change wakes up the waiting reader straight away.
+		outbox.add(removed(1, Instant.now()));
+		contactChangeFeed.recordRemoved(1L);
+		
+		assertThat(result.get(5, TimeUnit.SECONDS).getChanges()).isEqualTo(outbox);
+	}
+	
+	@Test
+	public void pollTimesOutTest() throws Exception {
+		CompletableFuture<ContactChangePage> result = new CompletableFuture<>();
+		
+		contactChangeFeed.poll(ContactBook.DEFAULT, 0, 10, Duration.ofMillis(100), result::complete);
+		
+		assertThat(result.get(5, TimeUnit.SECONDS).getChanges()).isEmpty();
+	}
+	
+	@Test
+	public void followTest() throws Exception {
+		Instant now = Instant.now();
+		List<ContactChange> received = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		outbox.addAll(List.of(removed(1, now), removed(2, now), removed(3, now)));
+		
+		Runnable unsubscribe = contactChangeFeed.follow(ContactBook.DEFAULT, 0, 2, change -> {
+			received.add(change);
+			if (change.getSequence() == 3) {
+				done.complete(null);
+			}
+			return true;
+		});
+		done.get(5, TimeUnit.SECONDS);
+		unsubscribe.run();
+		
+		assertThat(received).extracting(ContactChange::getSequence).containsExactly(1L, 2L, 3L);
+	}
+	
+	@Test
+	public void stalledFollowerDoesNotHoldUpOthersTest() throws Exception {
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		outbox.add(removed(1, Instant.now()));
+		
+		Runnable unsubscribe = contactChangeFeed.follow(ContactBook.DEFAULT, 0, 10, change -> {
+			stalled.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		});
+		assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+		
+		CompletableFuture<ContactChangePage> result = new CompletableFuture<>();
+		contactChangeFeed.poll(ContactBook.DEFAULT, 1, 10, Duration.ofSeconds(5), result::complete);
+		outbox.add(removed(2, Instant.now()));
+		contactChangeFeed.recordRemoved(2L);
+		
+		assertThat(result.get(5, TimeUnit.SECONDS).getChanges()).containsExactly(outbox.get(1));
+		release.countDown();
+		unsubscribe.run();
+	}
+	
+	private ContactChangeFeed feed(Duration gapTimeout) {
+		return new ContactChangeFeed(contactChangeRepository, new ObjectMapper(), gapTimeout, Duration.ofMinutes(1), Duration.ofDays(7), Duration.ofHours(1));
+	}
+	
+	private static ContactChange removed(long sequence, Instant changedAt) {
+		return new ContactChange(sequence, ContactChangeType.REMOVED, sequence, null, changedAt);
+	}
+	
+}
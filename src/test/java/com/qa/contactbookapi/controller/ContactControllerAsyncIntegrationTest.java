@@ -0,0 +1,94 @@
+package com.qa.contactbookapi.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.InvalidContactException;
+import com.qa.contactbookapi.service.ContactService;
+
+// Async execution mode with a single permit, so that a second concurrent request is rejected.
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:asyncTestDB",
+		"contactbook.async.enabled=true",
+		"contactbook.async.pool-size=1",
+		"contactbook.async.queue-capacity=0",
+		"contactbook.async.retry-after=2s" })
+@AutoConfigureMockMvc
+public class ContactControllerAsyncIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@MockBean
+	private ContactService contactService;
+	
+	@Test
+	public void fetchContactByIdAsyncTest() throws Exception {
+		
+		when(contactService.fetchById(1L)).thenReturn(new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)));
+		
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/1").accept(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-0\""))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Kate"));
+	}
+	
+	@Test
+	public void fetchContactByIdAsyncExceptionTest() throws Exception {
+		
+		when(contactService.fetchById(55L)).thenThrow(new InvalidContactException("Cannot find contact with ID 55 , as it does not exist."));
+		
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/55"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult)).andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void overloadedTest() throws Exception {
+		
+		CountDownLatch release = new CountDownLatch(1);
+		when(contactService.fetchById(1L)).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6));
+		});
+		
+		MvcResult blockedResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/1"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		
+		try {
+			mockMvc.perform(MockMvcRequestBuilders.get("/contact/1"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "2"));
+		} finally {
+			release.countDown();
+		}
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(blockedResult)).andExpect(status().isOk());
+	}
+	
+}
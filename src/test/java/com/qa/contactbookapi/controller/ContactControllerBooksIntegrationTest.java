@@ -0,0 +1,145 @@
+package com.qa.contactbookapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.idempotency.IdempotencyStore;
+
+// Runs against its own in-memory database, with a small quota and a slow rate limit: each test works on its own book,
+// since every book has its own quota and rate limit. Not transactional, as the quota is counted by committed writes.
+// Every request comes from the same client: its rate limits are lifted, so that only those of the books apply.
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:booksTestDB", "contactbook.books.max-contacts=2",
+		"contactbook.books.rate-limit=0.1", "contactbook.books.burst=10", "contactbook.clients.rate-limit=0",
+		"contactbook.clients.expensive-rate-limit=0" })
+@AutoConfigureMockMvc
+public class ContactControllerBooksIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Test
+	public void booksAreIsolatedTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-12/contact")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json("[]"));
+		
+		// The same names as a contact of the default book.
+		String body = createContact("/books/precinct-12/contact", new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com",
+				LocalDate.of(1993, 4, 6))).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readTree(body).get("id").asLong();
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-12/contact/" + id)).andExpect(status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-12/contact/search?q=beckett"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(id));
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-21/contact/" + id)).andExpect(status().isNotFound());
+		mockMvc.perform(MockMvcRequestBuilders.delete("/books/precinct-21/contact/" + id)).andExpect(status().isNotFound());
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-21/contact/search?q=beckett"))
+				.andExpect(MockMvcResultMatchers.content().json("[]"));
+	}
+	
+	@Test
+	public void createWithIdOfOtherBookTest() throws Exception {
+		
+		String body = createContact("/books/precinct-65/contact", new Contact("Kevin", "Ryan", "07777777757", "kevin.ryan@mycoolmail.com",
+				LocalDate.of(1985, 2, 7))).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readTree(body).get("id").asLong();
+		
+		Contact contact = new Contact("Jenny", "Ryan", "07777777767", "jenny.ryan@mycoolmail.com", LocalDate.of(1986, 3, 8));
+		contact.setId(id);
+		body = createContact("/books/precinct-66/contact", contact).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+		assertThat(objectMapper.readTree(body).get("id").asLong()).isNotEqualTo(id);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-65/contact/" + id)).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Kevin"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-66/contact/" + id)).andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void locationHeaderTest() throws Exception {
+		createContact("/books/precinct-33/contact", new Contact("Javier", "Esposito", "07777777747", "javier.esposito@mycoolmail.com",
+				LocalDate.of(1990, 1, 3))).andExpect(status().isCreated())
+				.andExpect(header().string("Location", startsWith("/books/precinct-33/contact/")));
+	}
+	
+	@Test
+	public void quotaExceededTest() throws Exception {
+		createContact("/books/precinct-54/contact", new Contact("Javier", "Esposito", "07777777747", "javier.esposito@mycoolmail.com",
+				LocalDate.of(1990, 1, 3))).andExpect(status().isCreated());
+		createContact("/books/precinct-54/contact", new Contact("Lanie", "Parish", "07777777737", "lanie.parish@mycoolmail.com",
+				LocalDate.of(1989, 5, 2))).andExpect(status().isCreated());
+		
+		createContact("/books/precinct-54/contact", new Contact("Roy", "Montgomery", "07777777727", "roy.montgomery@mygoodmail.com",
+				LocalDate.of(1960, 5, 4))).andExpect(status().isForbidden())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.detail").value("Book precinct-54 is full, as it holds at most 2 contacts."));
+	}
+	
+	@Test
+	public void idempotentRetryTest() throws Exception {
+		Contact contact = new Contact("Kevin", "Ryan", "07777777757", "kevin.ryan@mygoodmail.com", LocalDate.of(1991, 2, 4));
+		
+		String body = createContact("/books/precinct-42/contact", contact, "retry-1").andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(IdempotencyStore.IDEMPOTENT_REPLAYED)).andReturn().getResponse().getContentAsString();
+		
+		// Answered with the first response, rather than as a duplicate, nor counted against the quota of 2.
+		createContact("/books/precinct-42/contact", contact, "retry-1").andExpect(status().isCreated())
+				.andExpect(header().string(IdempotencyStore.IDEMPOTENT_REPLAYED, "true"))
+				.andExpect(MockMvcResultMatchers.content().json(body, true));
+		createContact("/books/precinct-42/contact", new Contact("Lanie", "Parish", "07777777737", "lanie.parish@mycoolmail.com",
+				LocalDate.of(1989, 5, 2))).andExpect(status().isCreated());
+		
+		createContact("/books/precinct-42/contact", new Contact("Roy", "Montgomery", "07777777727", "roy.montgomery@mygoodmail.com",
+				LocalDate.of(1960, 5, 4)), "retry-1").andExpect(status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.detail").value("Idempotency key retry-1 is invalid, as it was sent with another request."));
+	}
+	
+	@Test
+	public void rateLimitedTest() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-99/contact")).andExpect(status().isOk());
+		}
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-99/contact")).andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After"));
+		// Other books keep their own allowance.
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/precinct-98/contact")).andExpect(status().isOk());
+	}
+	
+	@Test
+	public void invalidBookTest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/books/Precinct_12/contact")).andExpect(status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.detail").value(
+						"Book Precinct_12 is invalid, as it must be 1 to 64 lower case letters, digits or hyphens."));
+	}
+	
+	private ResultActions createContact(String path, Contact contact) throws Exception {
+		return mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(contact)));
+	}
+	
+	private ResultActions createContact(String path, Contact contact, String idempotencyKey) throws Exception {
+		return mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON)
+				.header(IdempotencyStore.IDEMPOTENCY_KEY, idempotencyKey).content(objectMapper.writeValueAsString(contact)));
+	}
+	
+}
@@ -0,0 +1,100 @@
+package com.qa.contactbookapi.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.entity.Contact;
+
+// Not transactional, unlike the other system tests: changes are only handed to waiting readers once committed.
+// Runs against its own in-memory database, as the contacts it creates are kept.
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:changesTestDB")
+@AutoConfigureMockMvc
+public class ContactControllerChangesIntegrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private ContactChangeFeed contactChangeFeed;
+	
+	@Test
+	public void fetchChangesLongPollTest() throws Exception {
+		
+		long since = lastSequence();
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/changes?wait=10&since=" + since))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		Contact contact = new Contact("Javier", "Esposito", "07777777747", "javier.esposito@mycoolmail.com", LocalDate.of(1990, 1, 3));
+		long id = createContact(contact);
+		
+		String changesJson = "[{\"sequence\":" + (since + 1) + ",\"type\":\"CREATED\",\"contactId\":" + id + ",\"contact\":"
+				+ "{\"id\":" + id + ",\"firstName\":\"Javier\",\"lastName\":\"Esposito\",\"mobileNumber\":\"07777777747\","
+				+ "\"emailAddress\":\"javier.esposito@mycoolmail.com\",\"dateOfBirth\":\"1990-01-03\"}}]";
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json(changesJson));
+	}
+	
+	@Test
+	public void streamChangesTest() throws Exception {
+		
+		long since = lastSequence();
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/changes").accept(MediaType.TEXT_EVENT_STREAM)
+				.header("Last-Event-ID", since)).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		long id = createContact(new Contact("Lanie", "Parish", "07777777737", "lanie.parish@mycoolmail.com", LocalDate.of(1989, 5, 2)));
+		mockMvc.perform(MockMvcRequestBuilders.delete("/contact/" + id)).andExpect(status().isAccepted());
+		
+		String expectedEvents = "id:" + (since + 2) + "\nevent:REMOVED\ndata:{\"sequence\":" + (since + 2) + ",\"type\":\"REMOVED\",\"contactId\":" + id;
+		for (int i = 0; i < 50 && !asyncResult.getResponse().getContentAsString().contains(expectedEvents); i++) {
+			Thread.sleep(100);
+		}
+		
+		String events = asyncResult.getResponse().getContentAsString();
+		assertThat(events).contains("id:" + (since + 1) + "\nevent:CREATED\n").contains(expectedEvents);
+	}
+	
+	@Test
+	public void purgeChangesKeepsRecentChangesTest() throws Exception {
+		
+		createContact(new Contact("Roy", "Montgomery", "07777777727", "roy.montgomery@mycoolmail.com", LocalDate.of(1960, 8, 12)));
+		long since = lastSequence();
+		
+		assertThat(contactChangeFeed.purge()).isZero();
+		assertThat(lastSequence()).isEqualTo(since);
+	}
+	
+	private long lastSequence() throws Exception {
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/changes?limit=1000")).andReturn();
+		String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult)).andReturn().getResponse().getContentAsString();
+		
+		JsonNode changes = objectMapper.readTree(body);
+		return changes.size() == 0 ? 0 : changes.get(changes.size() - 1).get("sequence").asLong();
+	}
+	
+	private long createContact(Contact contact) throws Exception {
+		String body = mockMvc.perform(MockMvcRequestBuilders.post("/contact").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(contact))).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).get("id").asLong();
+	}
+	
+}
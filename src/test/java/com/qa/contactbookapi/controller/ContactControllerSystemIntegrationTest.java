@@ -2,47 +2,70 @@ package com.qa.contactbookapi.controller;
 
 import com.qa.contactbookapi.data.entity.Contact;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import javax.transaction.Transactional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import org.mockito.Mock;
-import org.mockito.Mockito;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.LocalManagementPort;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+// Every request comes from the same client: its rate limits are lifted, as this runs many more than a client may make.
+// Responses are compressed from a lower size than configured, so that the seeded contacts are enough to be compressed.
 
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "contactbook.clients.rate-limit=0",
+		"contactbook.clients.expensive-rate-limit=0", "server.compression.min-response-size=256" })
 @AutoConfigureMockMvc
 @Transactional
 public class ContactControllerSystemIntegrationTest {
 
-	@Mock
-	ContactController contactController;
-	
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
 	@Autowired
 	private MockMvc mockMvc;
 
 	@Autowired
 	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+	
+	@LocalManagementPort
+	private int managementPort;
 	
 	private List<Contact> expectedContactsList;
 	
@@ -81,6 +104,241 @@ public class ContactControllerSystemIntegrationTest {
 		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
 	}
 	
+	@Test
+	public void fetchAllContactsSmileTest() throws Exception {
+
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.GET, "/contact");
+		mockRequest.accept(SMILE);
+
+		byte[] contactsSmile = mockMvc.perform(mockRequest).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		assertThat(smileConverter.getObjectMapper().readValue(contactsSmile, Contact[].class)).containsExactlyElementsOf(expectedContactsList);
+	}
+	
+	@Test
+	public void fetchAllContactsGzipTest() throws Exception {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+		ResponseEntity<byte[]> response = restTemplate.exchange("/contact", HttpMethod.GET, new HttpEntity<Void>(headers), byte[].class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (InputStream contactsJson = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+			assertThat(objectMapper.readValue(contactsJson, Contact[].class)).containsExactlyElementsOf(expectedContactsList);
+		}
+	}
+	
+	@Test
+	public void fetchContactsPagedTest() throws Exception {
+
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.GET, "/contact?limit=2");
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+
+		String firstPageJson = objectMapper.writeValueAsString(expectedContactsList.subList(0, 2));
+		ResultMatcher statusMatcher = MockMvcResultMatchers.status().isOk();
+		ResultMatcher contentMatcher = MockMvcResultMatchers.content().json(firstPageJson);
+		ResultMatcher linkMatcher = MockMvcResultMatchers.header().string(HttpHeaders.LINK, "</contact?cursor=" + ContactCursor.encode(2L) + "&limit=2>; rel=\"next\"");
+
+		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher).andExpect(linkMatcher);
+		
+		mockRequest = MockMvcRequestBuilders.request(HttpMethod.GET, "/contact?limit=2&cursor=" + ContactCursor.encode(2L));
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+		
+		String lastPageJson = objectMapper.writeValueAsString(expectedContactsList.subList(2, 3));
+		contentMatcher = MockMvcResultMatchers.content().json(lastPageJson);
+		
+		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher).andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LINK));
+	}
+	
+	@Test
+	public void fetchContactFieldsPagedTest() throws Exception {
+		
+		String firstPageJson = "[{\"id\":1,\"firstName\":\"Kate\",\"lastName\":\"Beckett\"},{\"id\":2,\"firstName\":\"Richard\",\"lastName\":\"Castle\"}]";
+		ResultMatcher linkMatcher = MockMvcResultMatchers.header().string(HttpHeaders.LINK,
+				"</contact?fields=id,firstName,lastName&cursor=" + ContactCursor.encode(2L) + "&limit=2>; rel=\"next\"");
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact?fields=lastName,firstName&limit=2")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json(firstPageJson, true)).andExpect(linkMatcher);
+	}
+	
+	@Test
+	public void fetchContactFieldsUnknownFieldTest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact?fields=firstName,version")).andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void fetchContactFieldsByIdTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId + "?fields=mobileNumber")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json("{\"id\":1,\"mobileNumber\":\"07777777777\"}", true));
+	}
+	
+	@Test
+	public void fetchContactFieldsByIdNotModifiedTest() throws Exception {
+		
+		// The tag of the full contact does not stand for its sparse fieldset, nor that of one fieldset for another.
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId + "?fields=mobileNumber").header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-0-id.mobileNumber\""));
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId + "?fields=id").header(HttpHeaders.IF_NONE_MATCH, "\"1-0-id.mobileNumber\""))
+				.andExpect(status().isOk());
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId + "?fields=mobileNumber").header(HttpHeaders.IF_NONE_MATCH, "\"1-0-id.mobileNumber\""))
+				.andExpect(status().isNotModified());
+	}
+	
+	@Test
+	public void fetchContactFieldsByEmailAddressTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/by-email/kate.beckett@mycoolmail.com?fields=id")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json("[{\"id\":1}]", true));
+	}
+	
+	@Test
+	public void fetchContactsInvalidCursorTest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact?cursor=@@@")).andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void streamContactsTest() throws Exception {
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.GET, "/contact");
+		mockRequest.accept(MediaType.APPLICATION_NDJSON);
+		
+		MvcResult asyncResult = mockMvc.perform(mockRequest).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		StringBuilder expectedBody = new StringBuilder();
+		for (Contact contact : expectedContactsList) {
+			expectedBody.append(objectMapper.writeValueAsString(contact)).append('\n');
+		}
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.content().string(expectedBody.toString()));
+	}
+	
+	@Test
+	public void streamBirthdaysTest() throws Exception {
+		
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/birthdays?from=2023-03-01&days=40"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		// Castle on 5 March, then Beckett on 6 April; Ryan's birthday (4 February) is out of range.
+		String expectedBody = objectMapper.writeValueAsString(expectedContactsList.get(1)) + "\n"
+				+ objectMapper.writeValueAsString(expectedContactsList.get(0)) + "\n";
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.content().string(expectedBody));
+	}
+	
+	@Test
+	public void streamBirthdaysInvalidDaysTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/birthdays?days=366")).andExpect(status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.detail").value("Days 366 is invalid, as it must be between 1 and 365."));
+	}
+	
+	@Test
+	public void streamContactFieldsTest() throws Exception {
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.GET, "/contact?fields=dateOfBirth");
+		mockRequest.accept(MediaType.APPLICATION_NDJSON);
+		
+		MvcResult asyncResult = mockMvc.perform(mockRequest).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("{\"id\":1,\"dateOfBirth\":\"1993-04-06\"}\n"
+					+ "{\"id\":2,\"dateOfBirth\":\"1992-03-05\"}\n{\"id\":3,\"dateOfBirth\":\"1991-02-04\"}\n"));
+	}
+	
+	@Test
+	public void exportContactsTest() throws Exception {
+		
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/export"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contacts.csv\""))
+			.andExpect(MockMvcResultMatchers.content().string("id,firstName,lastName,mobileNumber,emailAddress,dateOfBirth\r\n"
+					+ "1,Kate,Beckett,07777777777,kate.beckett@mycoolmail.com,1993-04-06\r\n"
+					+ "2,Richard,Castle,07777777767,richard.castle@mygreatmail.com,1992-03-05\r\n"
+					+ "3,Kevin,Ryan,07777777757,kevin.ryan@mygoodmail.com,1991-02-04\r\n"));
+	}
+	
+	@Test
+	public void exportContactsGzippedTest() throws Exception {
+		
+		MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/contact/export?format=vcard&gzip=true"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		byte[] body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType("application/gzip"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contacts.vcf.gz\""))
+			.andReturn().getResponse().getContentAsByteArray();
+		
+		try (InputStream vCards = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			String file = new String(vCards.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(file).startsWith("BEGIN:VCARD\r\nVERSION:3.0\r\nUID:contact-1\r\nN:Beckett;Kate;;;\r\n");
+			assertThat(file.split("BEGIN:VCARD", -1)).hasSize(4);
+		}
+	}
+	
+	@Test
+	public void exportContactsUnknownFormatTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/export?format=xml")).andExpect(status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.detail").value("Format xml does not exist."));
+	}
+
+	@Test
+	public void fetchMissingContactProblemTest() throws Exception {
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/55").accept(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound())
+				.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(MockMvcResultMatchers.content().json("{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,"
+						+ "\"detail\":\"Cannot find contact with ID 55 , as it does not exist.\"}", true));
+	}
+
+	@Test
+	public void searchContactsTest() throws Exception {
+		
+		String hitsJson = "[{\"id\":1,\"firstName\":\"Kate\",\"lastName\":\"Beckett\"}]";
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/search?q=bekc")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json(hitsJson, true));
+	}
+	
+	@Test
+	public void fetchContactsByMobileNumberTest() throws Exception {
+		
+		String contactsJson = objectMapper.writeValueAsString(List.of(expectedFirstContact));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/by-mobile/+44 7777 777777")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json(contactsJson));
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/by-mobile/07777000000")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json("[]", true));
+	}
+	
+	@Test
+	public void fetchContactsByEmailAddressTest() throws Exception {
+		
+		String contactsJson = objectMapper.writeValueAsString(List.of(expectedFirstContact));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/by-email/Kate.Beckett@MyCoolMail.com")).andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json(contactsJson));
+	}
+	
 	@Test
 	public void fetchContactByIdTest() throws Exception {
 				
@@ -96,6 +354,46 @@ public class ContactControllerSystemIntegrationTest {
 		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
 	}
 
+	@Test
+	public void fetchContactByIdNotModifiedTest() throws Exception {
+		
+		String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId))
+				.andExpect(status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-0\""))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(MockMvcResultMatchers.content().string(""));
+	}
+	
+	@Test
+	public void cacheMetricsTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId)).andExpect(status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/" + firstContactId)).andExpect(status().isOk());
+		
+		assertThat(fetchMetric("cache.gets?tag=cache:contacts.byId&tag=result:hit").read("$.measurements[0].value", Double.class))
+				.isGreaterThanOrEqualTo(1.0);
+	}
+	
+	@Test
+	public void hotPathMetricsTest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact?limit=2")).andExpect(status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/contact/55")).andExpect(status().isNotFound());
+		
+		List<Number> totals = fetchMetric("contactbook.db.statements?tag=uri:/contact&tag=method:GET").read("$.measurements[?(@.statistic == 'TOTAL')].value");
+		assertThat(totals).anySatisfy(total -> assertThat(total.doubleValue()).isGreaterThanOrEqualTo(1.0));
+		
+		fetchMetric("contactbook.service?tag=method:fetchPage");
+		fetchMetric("http.server.requests.percentile?tag=phi:0.99");
+		fetchMetric("hikaricp.connections.acquire");
+		
+		assertThat(fetchMetric("contactbook.exceptions?tag=exception:InvalidContactException").read("$.measurements[0].value", Double.class))
+				.isGreaterThanOrEqualTo(1.0);
+	}
+	
 	@Test
 	public void fetchContactByLastNameAndFirstNameTest() throws Exception {
 		
@@ -135,6 +433,45 @@ public class ContactControllerSystemIntegrationTest {
 		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
 	}
 
+	@Test
+	public void generateContactsDuplicateAndInvalidTest() throws Exception {
+		
+		List<Contact> contactsToPersist = List.of(
+				new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
+				new Contact("Katie", "Brockett", "0877", "katie.brockett@mycoolmail.com", LocalDate.of(1983, 2, 1)));
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.POST, "/contact/batch");
+		mockRequest.contentType(MediaType.APPLICATION_JSON);
+		mockRequest.content(objectMapper.writeValueAsString(contactsToPersist));
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+		
+		mockMvc.perform(mockRequest)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.created").value(0))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.duplicates").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.invalid").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.items[0].status").value("DUPLICATE"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.items[1].index").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status").value("INVALID"));
+	}
+	
+	@Test
+	public void generateContactsFromNdjsonTest() throws Exception {
+		
+		String ndjson = objectMapper.writeValueAsString(expectedContactsList.get(1)) + "\n"
+				+ objectMapper.writeValueAsString(expectedContactsList.get(2)) + "\n";
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.POST, "/contact/batch");
+		mockRequest.contentType(MediaType.APPLICATION_NDJSON);
+		mockRequest.content(ndjson);
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+		
+		mockMvc.perform(mockRequest)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.duplicates").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.rowsPerSecond").isNumber());
+	}
+	
 	@Test
 	public void editContactByIdTest() throws Exception {
 		
@@ -153,6 +490,53 @@ public class ContactControllerSystemIntegrationTest {
 		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
 	}
 
+	@Test
+	public void editContactByIdSmileTest() throws Exception {
+		
+		Contact editedContact = new Contact("Katie", "Backett", "07777777777", "katie.backett@mycoolmail.com", LocalDate.of(1992, 4, 6));
+		Contact expectedContact = new Contact(firstContactId, "Katie", "Backett", "07777777777", "katie.backett@mycoolmail.com", LocalDate.of(1992, 4, 6));
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PUT, "/contact/" + firstContactId);
+		mockRequest.contentType(SMILE);
+		mockRequest.content(smileConverter.getObjectMapper().writeValueAsBytes(editedContact));
+		mockRequest.accept(SMILE);
+
+		byte[] contactSmile = mockMvc.perform(mockRequest).andExpect(status().isAccepted())
+				.andExpect(MockMvcResultMatchers.content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		assertThat(smileConverter.getObjectMapper().readValue(contactSmile, Contact.class)).isEqualTo(expectedContact);
+	}
+
+	@Test
+	public void editContactByIdIfMatchTest() throws Exception {
+		
+		Contact editedContact = new Contact("Katie", "Backett", "07777777777", "katie.backett@mycoolmail.com", LocalDate.of(1992, 4, 6));
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PUT, "/contact/" + firstContactId);
+		mockRequest.contentType(MediaType.APPLICATION_JSON);
+		mockRequest.content(objectMapper.writeValueAsString(editedContact));
+		mockRequest.header(HttpHeaders.IF_MATCH, "\"1-0\"");
+		
+		mockMvc.perform(mockRequest).andExpect(status().isAccepted()).andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-1\""));
+		
+		// The same edit, conditional on the version it has just replaced, is now stale.
+		ResultMatcher contentMatcher = MockMvcResultMatchers.jsonPath("$.detail").value("Cannot edit contact with ID 1 , as it has been modified since it was fetched.");
+		
+		mockMvc.perform(mockRequest).andExpect(status().isPreconditionFailed()).andExpect(contentMatcher);
+	}
+	
+	@Test
+	public void patchContactStaleIfMatchTest() throws Exception {
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PATCH, "/contact/Kate/Beckett");
+		mockRequest.contentType(ContactController.MERGE_PATCH_JSON_VALUE);
+		mockRequest.content("{\"mobileNumber\": \"07777777700\"}");
+		mockRequest.header(HttpHeaders.IF_MATCH, "\"1-7\"");
+		
+		mockMvc.perform(mockRequest).andExpect(status().isPreconditionFailed());
+	}
+	
 	@Test
 	public void editContactByLastNameAndFirstNameTest() throws Exception {
 		
@@ -171,16 +555,80 @@ public class ContactControllerSystemIntegrationTest {
 		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
 	}
 	
+	@Test
+	public void patchContactByIdTest() throws Exception {
+		
+		Contact expectedContact = new Contact(firstContactId, "Kate", "Beckett", "07777777700", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6));
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PATCH, "/contact/" + firstContactId);
+		mockRequest.contentType(ContactController.MERGE_PATCH_JSON_VALUE);
+		mockRequest.content("{\"mobileNumber\": \"07777777700\"}");
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+
+		String contactJson = objectMapper.writeValueAsString(expectedContact);
+		ResultMatcher statusMatcher = MockMvcResultMatchers.status().isAccepted();
+		ResultMatcher contentMatcher = MockMvcResultMatchers.content().json(contactJson);
+
+		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
+	}
+	
+	@Test
+	public void patchContactByLastNameAndFirstNameTest() throws Exception {
+		
+		Contact expectedContact = new Contact(firstContactId, "Kate", "Beckett", "07777777777", null, LocalDate.of(1993, 4, 6));
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PATCH, "/contact/Kate/Beckett");
+		mockRequest.contentType(ContactController.MERGE_PATCH_JSON_VALUE);
+		mockRequest.content("{\"emailAddress\": null}");
+		mockRequest.accept(MediaType.APPLICATION_JSON);
+
+		String contactJson = objectMapper.writeValueAsString(expectedContact);
+		ResultMatcher statusMatcher = MockMvcResultMatchers.status().isAccepted();
+		ResultMatcher contentMatcher = MockMvcResultMatchers.content().json(contactJson);
+
+		mockMvc.perform(mockRequest).andExpect(statusMatcher).andExpect(contentMatcher);
+	}
+	
+	@Test
+	public void patchContactInvalidFieldTest() throws Exception {
+		
+		MockHttpServletRequestBuilder mockRequest = MockMvcRequestBuilders.request(HttpMethod.PATCH, "/contact/" + firstContactId);
+		mockRequest.contentType(ContactController.MERGE_PATCH_JSON_VALUE);
+		mockRequest.content("{\"mobileNumber\": \"0777\"}");
+		
+		ResultMatcher contentMatcher = MockMvcResultMatchers.jsonPath("$.detail").value("Patch is invalid: mobileNumber: Mobile number must be 11-digit long (when dialling within the UK).");
+		
+		mockMvc.perform(mockRequest).andExpect(status().isBadRequest()).andExpect(contentMatcher);
+	}
+	
+    // Works on a book of its own, as removing contacts updates the search index and the cache, which are not rolled back.
     @Test
     public void removeContactTest() throws Exception {
-        Mockito.when(contactController.removeContact(firstContactId)).thenReturn(ResponseEntity.accepted().build());
-        mockMvc.perform(MockMvcRequestBuilders.delete("/contact", firstContactId)).andExpect(status().isAccepted());
+        String location = mockMvc.perform(MockMvcRequestBuilders.post("/books/precinct-12/contact").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(expectedFirstContact)))
+                .andExpect(status().isCreated()).andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        mockMvc.perform(MockMvcRequestBuilders.delete(location)).andExpect(status().isAccepted());
     }
 	
+    // Works on a book of its own, as the delete runs (and commits) in the background, outside of the test transaction.
     @Test
-    public void removeAllContactsTest() throws Exception {  
-        Mockito.when(contactController.removeAllContacts()).thenReturn(ResponseEntity.accepted().build());
-        mockMvc.perform(MockMvcRequestBuilders.delete("/contact")).andExpect(status().isAccepted());
+    public void removeAllContactsTest() throws Exception {
+        String location = mockMvc.perform(MockMvcRequestBuilders.delete("/books/precinct-12/contact"))
+                .andExpect(status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(location).startsWith("/books/precinct-12/contact/delete/");
+        
+        mockMvc.perform(MockMvcRequestBuilders.get(location)).andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.expected").value(0));
+        mockMvc.perform(MockMvcRequestBuilders.get(location.replace("/books/precinct-12", ""))).andExpect(status().isNotFound());
     }
     
+	// The actuator is served on its own port, outside of the MockMvc of the application.
+	private DocumentContext fetchMetric(String query) {
+		ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/metrics/" + query, String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return JsonPath.parse(response.getBody());
+	}
+
 }
@@ -1,27 +1,72 @@
 package com.qa.contactbookapi.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactChangePage;
+import com.qa.contactbookapi.data.dto.ContactChangeType;
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.dto.ContactDeleteJob;
+import com.qa.contactbookapi.data.dto.ContactFields;
+import com.qa.contactbookapi.data.dto.ContactImportJob;
+import com.qa.contactbookapi.data.dto.ContactPatch;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.dto.ContactVersion;
 import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.StaleContactException;
+import com.qa.contactbookapi.exports.ContactExportWriter;
+import com.qa.contactbookapi.idempotency.IdempotencyStore;
+import com.qa.contactbookapi.imports.ContactImportFormat;
+import com.qa.contactbookapi.service.ContactBatchService;
+import com.qa.contactbookapi.service.ContactDeleteService;
+import com.qa.contactbookapi.service.ContactExportService;
+import com.qa.contactbookapi.service.ContactImportService;
 import com.qa.contactbookapi.service.ContactService;
 
 
@@ -34,6 +79,27 @@ public class ContactControllerWebIntegrationTest {
 	@MockBean
 	private ContactService contactService;
 	
+	@MockBean
+	private ContactBatchService contactBatchService;
+	
+	@MockBean
+	private ContactChangeFeed contactChangeFeed;
+	
+	@MockBean
+	private ContactImportService contactImportService;
+	
+	@MockBean
+	private ContactExportService contactExportService;
+	
+	@MockBean
+	private ContactDeleteService contactDeleteService;
+	
+	@MockBean
+	private IdempotencyStore idempotencyStore;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
 	private List<Contact> contacts;
 	private Contact contactToCreate;
 	private Contact validContact;
@@ -41,7 +107,14 @@ public class ContactControllerWebIntegrationTest {
 	private Contact updatedContactWithoutId;
 	
 	@BeforeEach
-	public void init() {
+	public void init() throws IOException {
+		ContactBook.bind(ContactBook.DEFAULT);
+		// Every request is handled, as if sent without an idempotency key.
+		when(idempotencyStore.execute(any(), any(), any(IdempotencyStore.IdempotentRequest.class)))
+				.thenAnswer(invocation -> invocation.<IdempotencyStore.IdempotentRequest<?>>getArgument(2).handle());
+		when(idempotencyStore.execute(any(), any(), any(), any()))
+				.thenAnswer(invocation -> invocation.<IdempotencyStore.IdempotentStreamRequest<?>>getArgument(3).handle(invocation.getArgument(2)));
+		
 		contacts = new ArrayList<>();
 		contacts.addAll(List.of(
 				new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
@@ -55,21 +128,168 @@ public class ContactControllerWebIntegrationTest {
 		updatedContactWithoutId = new Contact("Katrina", "Becketts", "07777777779", "katrina.becketts@mycoolmail.com", LocalDate.of(1992, 4, 6));
 	}
 	
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
 	@Test
 	public void fetchAllContactsTest() {
 		ResponseEntity<List<Contact>> expected = new ResponseEntity<List<Contact>>(contacts, HttpStatus.OK);
 
-		when(contactService.fetchAll()).thenReturn(contacts);
+		when(contactService.fetchPage(0L, 100)).thenReturn(new SliceImpl<Contact>(contacts));
 		
-		ResponseEntity<List<Contact>> actual = controller.fetchContacts();
+		ResponseEntity<List<Contact>> actual = controller.fetchContacts(null, null);
 		assertThat(expected).isEqualTo(actual);
 		
-		verify(contactService, times(1)).fetchAll();
+		verify(contactService, times(1)).fetchPage(0L, 100);
+	}
+	
+	@Test
+	public void fetchContactsFirstPageTest() {
+		List<Contact> firstPage = contacts.subList(0, 2);
+		
+		when(contactService.fetchPage(0L, 2)).thenReturn(new SliceImpl<Contact>(firstPage, PageRequest.of(0, 2), true));
+		
+		ResponseEntity<List<Contact>> actual = controller.fetchContacts(null, 2);
+		
+		assertThat(actual.getBody()).isEqualTo(firstPage);
+		assertThat(actual.getHeaders().getFirst(HttpHeaders.LINK)).isEqualTo("</contact?cursor=" + ContactCursor.encode(2L) + "&limit=2>; rel=\"next\"");
+		
+		verify(contactService, times(1)).fetchPage(0L, 2);
+	}
+	
+	@Test
+	public void fetchContactFieldsTest() {
+		ContactFields fields = new ContactFields(List.of("lastName"));
+		List<Map<String, Object>> page = List.of(Map.of("id", 1L, "lastName", "Beckett"), Map.of("id", 2L, "lastName", "Castle"));
+		
+		when(contactService.fetchPage(fields, 0L, 2)).thenReturn(new SliceImpl<Map<String, Object>>(page, PageRequest.of(0, 2), true));
+		
+		ResponseEntity<List<Map<String, Object>>> actual = controller.fetchContactFields("lastName", null, 2);
+		
+		assertThat(actual.getBody()).isEqualTo(page);
+		assertThat(actual.getHeaders().getFirst(HttpHeaders.LINK)).isEqualTo("</contact?fields=id,lastName&cursor=" + ContactCursor.encode(2L) + "&limit=2>; rel=\"next\"");
+	}
+	
+	@Test
+	public void fetchContactFieldsInvalidTest() {
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.fetchContactFields("firstName, mobileKey", null, null);
+		});
+		assertThat(e.getMessage()).isEqualTo("Field mobileKey does not exist.");
+		
+		e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.fetchContactFields(" ", null, null);
+		});
+		assertThat(e.getMessage()).isEqualTo("Fields are invalid, as they must not be blank.");
+	}
+	
+	@Test
+	public void fetchContactFieldsByIdTest() {
+		when(contactService.fetchById(1)).thenReturn(validContact);
+		
+		ResponseEntity<Map<String, Object>> actual = controller.fetchContactFieldsById(1, "emailAddress,firstName");
+		
+		assertThat(actual.getHeaders().getETag()).isEqualTo("\"4-0-id.firstName.emailAddress\"");
+		assertThat(actual.getBody()).containsExactly(entry("id", validContact.getId()), entry("firstName", validContact.getFirstName()),
+				entry("emailAddress", validContact.getEmailAddress()));
+	}
+	
+	@Test
+	public void fetchContactsNextPageTest() {
+		List<Contact> lastPage = contacts.subList(2, 3);
+		
+		when(contactService.fetchPage(2L, 2)).thenReturn(new SliceImpl<Contact>(lastPage, PageRequest.of(0, 2), false));
+		
+		ResponseEntity<List<Contact>> actual = controller.fetchContacts(ContactCursor.encode(2L), 2);
+		
+		assertThat(actual.getBody()).isEqualTo(lastPage);
+		assertThat(actual.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+	}
+	
+	@Test
+	public void fetchContactsPageSizeCappedTest() {
+		when(contactService.fetchPage(0L, 1000)).thenReturn(new SliceImpl<Contact>(contacts));
+		
+		controller.fetchContacts(null, 5000);
+		
+		verify(contactService, times(1)).fetchPage(0L, 1000);
+	}
+	
+	@Test
+	public void fetchContactsInvalidCursorTest() {
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.fetchContacts("not-a-cursor", null);
+		});
+		
+		assertThat(e.getMessage()).isEqualTo("Cursor not-a-cursor is invalid.");
+	}
+	
+	@Test
+	public void searchContactsTest() {
+		List<ContactSearchHit> hits = List.of(new ContactSearchHit(1L, "Kate", "Beckett"));
+		
+		when(contactService.search("bekc", 10)).thenReturn(hits);
+		
+		assertThat(controller.searchContacts("bekc", null)).isEqualTo(ResponseEntity.ok(hits));
+		
+		controller.searchContacts("bekc", 500);
+		verify(contactService, times(1)).search("bekc", 100);
+	}
+	
+	@Test
+	public void searchContactsBlankQueryTest() {
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.searchContacts(" ", null);
+		});
+		
+		assertThat(e.getMessage()).isEqualTo("Query is invalid, as it must not be blank.");
+	}
+	
+	@Test
+	public void fetchContactsByMobileNumberTest() {
+		when(contactService.fetchByMobileNumber("+44 7777 777777")).thenReturn(List.of(validContact));
+		
+		assertThat(controller.fetchContactsByMobileNumber("+44 7777 777777")).isEqualTo(ResponseEntity.ok(List.of(validContact)));
+	}
+	
+	@Test
+	public void fetchContactsByEmailAddressTest() {
+		when(contactService.fetchByEmailAddress("Kate.Beckett@mycoolmail.com")).thenReturn(List.of(validContact));
+		
+		assertThat(controller.fetchContactsByEmailAddress("Kate.Beckett@mycoolmail.com")).isEqualTo(ResponseEntity.ok(List.of(validContact)));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void fetchChangesTest() {
+		List<ContactChange> changes = List.of(new ContactChange(8L, ContactChangeType.REMOVED, 1L, null, Instant.now()));
+		
+		doAnswer(invocation -> {
+			invocation.getArgument(4, Consumer.class).accept(new ContactChangePage(changes, 9L));
+			return null;
+		}).when(contactChangeFeed).poll(eq(ContactBook.DEFAULT), eq(7L), eq(1000), eq(Duration.ofSeconds(30)), any());
+		
+		DeferredResult<ResponseEntity<List<ContactChange>>> result = controller.fetchChanges(7L, 5000, 600L);
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.LINK, "</contact/changes?since=9&limit=1000>; rel=\"next\"");
+		assertThat(result.getResult()).isEqualTo(new ResponseEntity<>(changes, headers, HttpStatus.OK));
+	}
+	
+	@Test
+	public void fetchChangesNegativeWaitTest() {
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.fetchChanges(0L, null, -1L);
+		});
+		
+		assertThat(e.getMessage()).isEqualTo("Wait -1 is invalid, as it must not be negative.");
 	}
 	
 	@Test
 	public void fetchContactByIdTest() {
-		ResponseEntity<Contact> expected = ResponseEntity.of(Optional.of(validContact));
+		ResponseEntity<Contact> expected = ResponseEntity.ok().eTag("\"4-0\"").body(validContact);
 		
 		when(contactService.fetchById(1)).thenReturn(validContact);
 		
@@ -82,7 +302,7 @@ public class ContactControllerWebIntegrationTest {
 	
 	@Test
 	public void fetchContactByLastNameAndFirstNameTest() {
-		ResponseEntity<Contact> expected = ResponseEntity.of(Optional.of(validContact));
+		ResponseEntity<Contact> expected = ResponseEntity.ok().eTag("\"4-0\"").body(validContact);
 		
 		when(contactService.fetchByLastNameAndFirstName("Beckett", "Kate")).thenReturn(validContact);
 		
@@ -94,19 +314,104 @@ public class ContactControllerWebIntegrationTest {
 	}
 	
 	@Test
-	public void generateContactTest() {
+	public void generateContactTest() throws Exception {
 		HttpHeaders headers = new HttpHeaders();
 		headers.add("Location", "/contact/" + String.valueOf(validContact.getId()));
+		headers.setETag("\"4-0\"");
 		ResponseEntity<Contact> expected = new ResponseEntity<Contact>(validContact, headers, HttpStatus.CREATED);
 		
 		when(contactService.generate(contactToCreate)).thenReturn(validContact);
 		
-		ResponseEntity<Contact> actual = controller.generateContact(contactToCreate);
+		ResponseEntity<Contact> actual = controller.generateContact(contactToCreate, null);
 		assertEquals(expected, actual);
 		
 		verify(contactService).generate(contactToCreate);
 	}
 	
+	@Test
+	public void generateContactsTest() throws Exception {
+		ContactBatchResult batchResult = new ContactBatchResult();
+		ResponseEntity<ContactBatchResult> expected = ResponseEntity.ok(batchResult);
+		
+		when(contactBatchService.generateAll(any())).thenReturn(batchResult);
+		
+		ResponseEntity<ContactBatchResult> actual = controller.generateContacts(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), null);
+		assertEquals(expected, actual);
+		
+		verify(contactBatchService).generateAll(any());
+	}
+	
+	@Test
+	public void generateContactsMalformedBodyTest() {
+		when(contactBatchService.generateAll(any())).thenAnswer(invocation -> {
+			Iterator<?> contacts = invocation.getArgument(0);
+			while (contacts.hasNext()) {
+				contacts.next();
+			}
+			return new ContactBatchResult();
+		});
+		
+		Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.generateContacts(new ByteArrayInputStream("[{\"firstName\": ".getBytes(StandardCharsets.UTF_8)), null);
+		});
+	}
+	
+	@Test
+	public void exportContactsTest() throws Exception {
+		doAnswer(invocation -> {
+			ContactExportWriter writer = invocation.getArgument(0);
+			writer.write(1L, "Kate", "Beckett", "07777777777", null, null);
+			return null;
+		}).when(contactExportService).exportAll(any());
+		
+		ResponseEntity<StreamingResponseBody> actual = controller.exportContacts("Binary", false);
+		assertEquals(HttpStatus.OK, actual.getStatusCode());
+		assertEquals("application/vnd.contactbook.contacts", actual.getHeaders().getContentType().toString());
+		assertEquals("attachment; filename=\"contacts.bin\"", actual.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+		
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		actual.getBody().writeTo(body);
+		assertThat(body.toByteArray()).startsWith('C', 'B', 'X', 1, 1, 2);
+		
+		verify(contactExportService).exportAll(any());
+	}
+	
+	@Test
+	public void exportContactsUnknownFormatTest() {
+		Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.exportContacts("xml", true);
+		});
+		
+		verify(contactExportService, never()).exportAll(any());
+	}
+	
+	@Test
+	public void importContactsTest() throws Exception {
+		ContactImportJob job = new ContactImportJob(ContactImportFormat.VCARD);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/import/" + job.getId());
+		ResponseEntity<ContactImportJob> expected = new ResponseEntity<ContactImportJob>(job, headers, HttpStatus.ACCEPTED);
+		InputStream body = new ByteArrayInputStream("BEGIN:VCARD\r\nEND:VCARD\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		
+		when(contactImportService.submit(ContactImportFormat.VCARD, body, StandardCharsets.ISO_8859_1)).thenReturn(job);
+		
+		ResponseEntity<ContactImportJob> actual = controller.importContacts("text/x-vcard;charset=ISO-8859-1", body, null);
+		assertEquals(expected, actual);
+		
+		verify(contactImportService).submit(ContactImportFormat.VCARD, body, StandardCharsets.ISO_8859_1);
+	}
+	
+	@Test
+	public void fetchImportTest() {
+		ContactImportJob job = new ContactImportJob(ContactImportFormat.CSV);
+		
+		when(contactImportService.fetchJob(job.getId())).thenReturn(job);
+		
+		assertEquals(new ResponseEntity<ContactImportJob>(job, HttpStatus.OK), controller.fetchImport(job.getId()));
+		
+		verify(contactImportService).fetchJob(job.getId());
+	}
+	
 	@Test
 	public void editContactByIdTest() {
 		
@@ -116,12 +421,36 @@ public class ContactControllerWebIntegrationTest {
 		headers.add("Location", "/contact/" + String.valueOf(contactId));
 		ResponseEntity<Contact> expected = new ResponseEntity<Contact>(updatedContactWithId, headers, HttpStatus.ACCEPTED);
 		
-		when(contactService.editById(contactId, updatedContactWithoutId)).thenReturn(updatedContactWithId);
+		when(contactService.editById(contactId, updatedContactWithoutId, null)).thenReturn(updatedContactWithId);
 		
-		ResponseEntity<Contact> result = controller.editContactById(contactId, updatedContactWithoutId);
+		ResponseEntity<Contact> result = controller.editContactById(contactId, updatedContactWithoutId, null);
 		
 		assertEquals(expected, result);
-		verify(contactService).editById(contactId, updatedContactWithoutId);
+		verify(contactService).editById(contactId, updatedContactWithoutId, null);
+	}
+	
+	@Test
+	public void editContactByIdIfMatchTest() {
+		
+		long contactId = updatedContactWithId.getId();
+		Contact editedContact = new Contact(1L, "Katrina", "Becketts", "07777777779", "katrina.becketts@mycoolmail.com", LocalDate.of(1992, 4, 6));
+		editedContact.setVersion(3L);
+		
+		when(contactService.editById(contactId, updatedContactWithoutId, new ContactVersion(1L, 2L))).thenReturn(editedContact);
+		
+		ResponseEntity<Contact> result = controller.editContactById(contactId, updatedContactWithoutId, "\"1-2\"");
+		
+		assertThat(result.getHeaders().getETag()).isEqualTo("\"1-3\"");
+	}
+	
+	@Test
+	public void editContactByIdMalformedIfMatchTest() {
+		
+		Assertions.assertThrows(StaleContactException.class, () -> {
+			controller.editContactById(1L, updatedContactWithoutId, "W/\"1-2\"");
+		});
+		
+		verify(contactService, never()).editById(eq(1L), any(Contact.class), any());
 	}
 	
 	@Test
@@ -132,14 +461,72 @@ public class ContactControllerWebIntegrationTest {
 		
 		HttpHeaders headers = new HttpHeaders();
 		headers.add("Location", "/contact/" + String.valueOf(firstName) + '/' + String.valueOf(lastName));
+		headers.setETag("\"1-0\"");
 		ResponseEntity<Contact> expected = new ResponseEntity<Contact>(updatedContactWithId, headers, HttpStatus.ACCEPTED);
 		
-		when(contactService.editByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId)).thenReturn(updatedContactWithId);
+		when(contactService.editByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId, null)).thenReturn(updatedContactWithId);
 		
-		ResponseEntity<Contact> result = controller.editContactByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId);
+		ResponseEntity<Contact> result = controller.editContactByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId, null);
 		
 		assertEquals(expected, result);
-		verify(contactService).editByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId);
+		verify(contactService).editByLastNameAndFirstName(lastName, firstName, updatedContactWithoutId, null);
+	}
+	
+	@Test
+	public void patchContactByIdTest() throws Exception {
+		
+		long contactId = updatedContactWithId.getId();
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/" + String.valueOf(contactId));
+		headers.setETag("\"1-0\"");
+		ResponseEntity<Contact> expected = new ResponseEntity<Contact>(updatedContactWithId, headers, HttpStatus.ACCEPTED);
+		
+		ArgumentCaptor<ContactPatch> patch = ArgumentCaptor.forClass(ContactPatch.class);
+		when(contactService.patchById(eq(contactId), patch.capture(), eq(null))).thenReturn(updatedContactWithId);
+		
+		ResponseEntity<Contact> result = controller.patchContactById(contactId, objectMapper.readTree("{\"mobileNumber\": \"07777777779\", \"emailAddress\": null}"), null);
+		
+		assertEquals(expected, result);
+		assertThat(patch.getValue().getFields()).isEqualTo(Set.of("mobileNumber", "emailAddress"));
+		assertThat(patch.getValue().getValue("mobileNumber")).isEqualTo("07777777779");
+		assertThat(patch.getValue().getValue("emailAddress")).isNull();
+	}
+	
+	@Test
+	public void patchContactByLastNameAndFirstNameTest() throws Exception {
+		
+		String lastName = updatedContactWithId.getLastName();
+		String firstName = updatedContactWithId.getFirstName();
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/" + String.valueOf(firstName) + '/' + String.valueOf(lastName));
+		headers.setETag("\"1-0\"");
+		ResponseEntity<Contact> expected = new ResponseEntity<Contact>(updatedContactWithId, headers, HttpStatus.ACCEPTED);
+		
+		when(contactService.patchByLastNameAndFirstName(eq(lastName), eq(firstName), any(ContactPatch.class), eq(new ContactVersion(1L, 0L)))).thenReturn(updatedContactWithId);
+		
+		ResponseEntity<Contact> result = controller.patchContactByLastNameAndFirstName(lastName, firstName, objectMapper.readTree("{\"mobileNumber\": \"07777777779\"}"), "\"1-0\"");
+		
+		assertEquals(expected, result);
+	}
+	
+	@Test
+	public void patchContactIdTest() {
+		
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.patchContactById(1L, objectMapper.readTree("{\"id\": 2}"), null);
+		});
+		
+		assertThat(e.getMessage()).isEqualTo("Field id cannot be patched.");
+		verify(contactService, never()).patchById(eq(1L), any(ContactPatch.class), any());
+	}
+	
+	@Test
+	public void patchContactNotObjectTest() {
+		Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			controller.patchContactById(1L, objectMapper.readTree("[]"), null);
+		});
 	}
 	
 	@Test
@@ -147,18 +534,49 @@ public class ContactControllerWebIntegrationTest {
 		
 		long contactId = 1;
 		ResponseEntity<?> expected = ResponseEntity.accepted().build();
-		ResponseEntity<?> result = controller.removeContact(contactId);
+		ResponseEntity<?> result = controller.removeContact(contactId, null);
 		
 		assertEquals(expected, result);
-		verify(contactService).remove(contactId);
+		verify(contactService).remove(contactId, null);
 	}
 	
 	@Test
 	public void removeAllContactTest() {
-		ResponseEntity<?> expected = ResponseEntity.accepted().build();
-		ResponseEntity<?> result = controller.removeAllContacts();
+		ContactDeleteJob job = new ContactDeleteJob(3L);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/delete/" + job.getId());
+		ResponseEntity<ContactDeleteJob> expected = new ResponseEntity<ContactDeleteJob>(job, headers, HttpStatus.ACCEPTED);
+		
+		when(contactDeleteService.submitAll()).thenReturn(job);
+		
+		ResponseEntity<ContactDeleteJob> result = controller.removeAllContacts();
 		
 		assertEquals(expected, result);
-		verify(contactService).removeAll();
+		verify(contactDeleteService).submitAll();
+	}
+	
+	@Test
+	public void removeContactsTest() {
+		ContactDeleteFilter filter = new ContactDeleteFilter(null, "Castle", null, null, null);
+		ContactDeleteJob job = new ContactDeleteJob(null);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/delete/" + job.getId());
+		ResponseEntity<ContactDeleteJob> expected = new ResponseEntity<ContactDeleteJob>(job, headers, HttpStatus.ACCEPTED);
+		
+		when(contactDeleteService.submit(filter)).thenReturn(job);
+		
+		assertEquals(expected, controller.removeContacts(filter));
+		verify(contactDeleteService).submit(filter);
+	}
+	
+	@Test
+	public void fetchDeleteTest() {
+		ContactDeleteJob job = new ContactDeleteJob(3L);
+		
+		when(contactDeleteService.fetchJob(job.getId())).thenReturn(job);
+		
+		assertEquals(new ResponseEntity<ContactDeleteJob>(job, HttpStatus.OK), controller.fetchDelete(job.getId()));
+		
+		verify(contactDeleteService).fetchJob(job.getId());
 	}
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.qa.contactbookapi.data.entity;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDate;
@@ -50,5 +51,32 @@ public class ContactTest {
     public void equalNegativeTest() {
         assertFalse(firstContact.equals(firstContactWithFirstAndLastNamesInverted));
     }
+    
+    @Test
+    public void mobileKeyTest() {
+        assertEquals("447777777777", firstContact.getMobileKey());
+        assertEquals("447777777777", Contact.mobileKeyOf("07777 777777"));
+        assertEquals("447777777777", Contact.mobileKeyOf("+44 7777 777777"));
+        assertEquals("447777777777", Contact.mobileKeyOf("0044-7777-777777"));
+        assertEquals("33612345678", Contact.mobileKeyOf("+33 6 12 34 56 78"));
+        assertNull(Contact.mobileKeyOf("unknown"));
+    }
+    
+    @Test
+    public void birthdayKeyTest() {
+        assertEquals(Integer.valueOf(406), firstContact.getBirthdayKey());
+        assertEquals(Integer.valueOf(229), Contact.birthdayKeyOf(LocalDate.of(2000, 2, 29)));
+        assertEquals(Integer.valueOf(1231), Contact.birthdayKeyOf(LocalDate.of(1999, 12, 31)));
+        assertNull(Contact.birthdayKeyOf(null));
+    }
+    
+    @Test
+    public void emailKeyTest() {
+        assertEquals("kate.beckett@mycoolmail.com", Contact.emailKeyOf(" Kate.Beckett@MyCoolMail.com "));
+        assertNull(Contact.emailKeyOf(" "));
+        
+        firstContact.setEmailAddress("KATE@NYPD.GOV");
+        assertEquals("kate@nypd.gov", firstContact.getEmailKey());
+    }
 	
 }
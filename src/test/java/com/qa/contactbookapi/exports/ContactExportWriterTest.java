@@ -0,0 +1,147 @@
+package com.qa.contactbookapi.exports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.imports.ContactImportFormat;
+import com.qa.contactbookapi.imports.ContactImportReader;
+
+public class ContactExportWriterTest {
+
+	private static final List<Contact> CONTACTS = List.of(
+			new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
+			new Contact(3L, "Kevin", "Ryan, Jr", "07777777757", null, null),
+			new Contact(7L, "Zoë", "\"Lanie\" Parish", "07777777737", "lanie.parish@mygoodmail.com", LocalDate.of(1969, 12, 2)));
+	
+	@Test
+	public void writeCsvTest() throws IOException {
+		String csv = new String(export(ContactExportFormat.CSV), StandardCharsets.UTF_8);
+		
+		assertThat(csv).isEqualTo("id,firstName,lastName,mobileNumber,emailAddress,dateOfBirth\r\n"
+				+ "1,Kate,Beckett,07777777777,kate.beckett@mycoolmail.com,1993-04-06\r\n"
+				+ "3,Kevin,\"Ryan, Jr\",07777777757,,\r\n"
+				+ "7,Zoë,\"\"\"Lanie\"\" Parish\",07777777737,lanie.parish@mygoodmail.com,1969-12-02\r\n");
+		assertThat(importBack(ContactImportFormat.CSV, csv)).isEqualTo(withoutIds(CONTACTS));
+	}
+	
+	@Test
+	public void writeVCardTest() throws IOException {
+		String vCards = new String(export(ContactExportFormat.VCARD), StandardCharsets.UTF_8);
+		
+		assertThat(vCards).startsWith("BEGIN:VCARD\r\nVERSION:3.0\r\nUID:contact-1\r\nN:Beckett;Kate;;;\r\nFN:Kate Beckett\r\n"
+				+ "TEL;TYPE=CELL:07777777777\r\nEMAIL;TYPE=INTERNET:kate.beckett@mycoolmail.com\r\nBDAY:1993-04-06\r\nEND:VCARD\r\n");
+		assertThat(vCards).contains("N:Ryan\\, Jr;Kevin;;;\r\n");
+		assertThat(importBack(ContactImportFormat.VCARD, vCards)).isEqualTo(withoutIds(CONTACTS));
+	}
+	
+	@Test
+	public void writeBinaryTest() throws IOException {
+		byte[] file = export(ContactExportFormat.BINARY);
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(file));
+		byte[] magic = new byte[4];
+		input.readFully(magic);
+		assertThat(magic).isEqualTo(BinaryContactExportWriter.MAGIC);
+		
+		int rows = (int) readVarint(input);
+		assertThat(rows).isEqualTo(3);
+		long[] ids = new long[rows];
+		long previousId = 0;
+		for (int i = 0; i < rows; i++) {
+			ids[i] = previousId + unzigzag(readVarint(input));
+			previousId = ids[i];
+		}
+		String[][] names = new String[4][rows];
+		for (String[] column : names) {
+			for (int i = 0; i < rows; i++) {
+				int length = (int) readVarint(input);
+				if (length > 0) {
+					byte[] bytes = new byte[length - 1];
+					input.readFully(bytes);
+					column[i] = new String(bytes, StandardCharsets.UTF_8);
+				}
+			}
+		}
+		List<Contact> contacts = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			long date = readVarint(input);
+			contacts.add(new Contact(ids[i], names[0][i], names[1][i], names[2][i], names[3][i],
+					date == 0 ? null : LocalDate.ofEpochDay(unzigzag(date - 1))));
+		}
+		
+		assertThat(contacts).isEqualTo(CONTACTS);
+		assertThat(readVarint(input)).isZero();
+		assertThat(input.read()).isEqualTo(-1);
+	}
+	
+	@Test
+	public void writeBinaryBlocksTest() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (ContactExportWriter writer = ContactExportFormat.BINARY.open(output)) {
+			for (int i = 1; i <= BinaryContactExportWriter.BLOCK_ROWS + 1; i++) {
+				writer.write(i, null, null, null, null, null);
+			}
+		}
+		
+		// Each block holds its row count, its first ID then a one-byte delta per ID, and one null byte per other value;
+		// the second block starts at ID 1025, a two-byte varint, and the file ends with 0.
+		int blockBytes = 2 + BinaryContactExportWriter.BLOCK_ROWS * 6;
+		assertThat(output.size()).isEqualTo(4 + blockBytes + (1 + 2 + 5) + 1);
+	}
+	
+	private static byte[] export(ContactExportFormat format) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (ContactExportWriter writer = format.open(output)) {
+			for (Contact contact : CONTACTS) {
+				writer.write(contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getMobileNumber(),
+						contact.getEmailAddress(), contact.getDateOfBirth());
+			}
+		}
+		return output.toByteArray();
+	}
+	
+	private static List<Contact> importBack(ContactImportFormat format, String file) throws IOException {
+		List<Contact> contacts = new ArrayList<>();
+		try (ContactImportReader reader = format.open(new StringReader(file))) {
+			reader.forEachRemaining(record -> contacts.add(record.getContact()));
+		}
+		return contacts;
+	}
+	
+	private static List<Contact> withoutIds(List<Contact> contacts) {
+		List<Contact> contactsWithoutIds = new ArrayList<>();
+		for (Contact contact : contacts) {
+			contactsWithoutIds.add(new Contact(contact.getFirstName(), contact.getLastName(), contact.getMobileNumber(),
+					contact.getEmailAddress(), contact.getDateOfBirth()));
+		}
+		return contactsWithoutIds;
+	}
+	
+	private static long readVarint(DataInputStream input) throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = input.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+	
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+}
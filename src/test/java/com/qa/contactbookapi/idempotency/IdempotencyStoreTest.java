@@ -0,0 +1,158 @@
+package com.qa.contactbookapi.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.exceptions.IdempotentRequestInProgressException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+
+public class IdempotencyStoreTest {
+
+	private AtomicLong nanos;
+
+	private IdempotencyStore idempotencyStore;
+
+	private AtomicInteger handled;
+
+	@BeforeEach
+	public void init() {
+		ContactBook.bind(ContactBook.DEFAULT);
+		nanos = new AtomicLong();
+		idempotencyStore = new IdempotencyStore(100, Duration.ofHours(24), nanos::get);
+		handled = new AtomicInteger();
+	}
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
+	@Test
+	public void executeWithoutKeyTest() throws IOException {
+		idempotencyStore.execute(null, "POST /contact", this::create);
+		idempotencyStore.execute(null, "POST /contact", this::create);
+
+		assertThat(handled.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void replayTest() throws IOException {
+		ResponseEntity<String> first = idempotencyStore.execute("key-1", "POST /contact", this::create);
+		ResponseEntity<String> retry = idempotencyStore.execute("key-1", "POST /contact", this::create);
+
+		assertThat(handled.get()).isEqualTo(1);
+		assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(retry.getBody()).isEqualTo(first.getBody());
+		assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+		assertThat(retry.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+		assertThat(first.getHeaders().containsKey(IdempotencyStore.IDEMPOTENT_REPLAYED)).isFalse();
+	}
+
+	@Test
+	public void keyOfOtherBookTest() throws IOException {
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+		ContactBook.bind("other");
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+
+		assertThat(handled.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void keyOfOtherRequestTest() throws IOException {
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+
+		assertThatThrownBy(() -> idempotencyStore.execute("key-1", "POST /contact/batch", this::create))
+				.isInstanceOf(InvalidRequestParameterException.class)
+				.hasMessage("Idempotency key key-1 is invalid, as it was sent with another request.");
+	}
+
+	@Test
+	public void retryInProgressTest() throws IOException {
+		idempotencyStore.execute("key-1", "POST /contact", () -> {
+			assertThatThrownBy(() -> idempotencyStore.execute("key-1", "POST /contact", this::create))
+					.isInstanceOf(IdempotentRequestInProgressException.class);
+			return create();
+		});
+
+		assertThat(handled.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void retryAfterFailureTest() throws IOException {
+		assertThatThrownBy(() -> idempotencyStore.execute("key-1", "POST /contact", () -> {
+			throw new IllegalStateException("Database is down.");
+		})).isInstanceOf(IllegalStateException.class);
+
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+		assertThat(handled.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void expiryTest() throws IOException {
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+		nanos.addAndGet(TimeUnit.HOURS.toNanos(25));
+		idempotencyStore.execute("key-1", "POST /contact", this::create);
+
+		assertThat(handled.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void invalidKeyTest() {
+		assertThatThrownBy(() -> idempotencyStore.execute(" ", "POST /contact", this::create))
+				.isInstanceOf(InvalidRequestParameterException.class)
+				.hasMessage("Idempotency key is invalid, as it must hold 1 to 255 characters.");
+	}
+
+	@Test
+	public void replayStreamedBodyTest() throws IOException {
+		// The first request reads only part of its body: the rest is hashed once it is handled.
+		idempotencyStore.execute("key-1", "POST /contact/batch", body("[{\"firstName\":\"Kate\"}]"), body -> {
+			body.read(new byte[4]);
+			return create();
+		});
+		ResponseEntity<String> retry = idempotencyStore.execute("key-1", "POST /contact/batch", body("[{\"firstName\":\"Kate\"}]"),
+				body -> create());
+
+		assertThat(handled.get()).isEqualTo(1);
+		assertThat(retry.getHeaders().getFirst(IdempotencyStore.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+	}
+
+	@Test
+	public void keyOfOtherStreamedBodyTest() throws IOException {
+		idempotencyStore.execute("key-1", "POST /contact/batch", body("[{\"firstName\":\"Kate\"}]"), body -> create());
+
+		assertThatThrownBy(() -> idempotencyStore.execute("key-1", "POST /contact/batch", body("[{\"firstName\":\"Rick\"}]"), body -> create()))
+				.isInstanceOf(InvalidRequestParameterException.class)
+				.hasMessage("Idempotency key key-1 is invalid, as it was sent with another request.");
+		assertThat(handled.get()).isEqualTo(1);
+	}
+
+	private static InputStream body(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private ResponseEntity<String> create() {
+		int id = handled.incrementAndGet();
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("Location", "/contact/" + id);
+		return new ResponseEntity<String>("contact " + id, headers, HttpStatus.CREATED);
+	}
+
+}
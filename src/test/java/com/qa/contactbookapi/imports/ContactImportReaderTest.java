@@ -0,0 +1,83 @@
+package com.qa.contactbookapi.imports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.qa.contactbookapi.data.entity.Contact;
+
+public class ContactImportReaderTest {
+
+	@Test
+	public void readCsvTest() throws IOException {
+		String csv = "\uFEFFLastName,firstName,Company,mobileNumber,emailAddress,dateOfBirth\n"
+				+ "Beckett,Kate,NYPD,07777777777,kate.beckett@mycoolmail.com,1993-04-06\n"
+				+ "\n"
+				+ "\"Ryan, Jr\",Kevin,NYPD,07777777757,,\n"
+				+ "Esposito,Javier,NYPD,07777777747,javier.esposito@mygoodmail.com,03/01/1990\n";
+		
+		List<ContactImportRecord> records = readAll(ContactImportFormat.CSV, csv);
+		
+		assertThat(records).hasSize(3);
+		assertThat(records.get(0).getNumber()).isEqualTo(1);
+		assertThat(records.get(0).getContact()).isEqualTo(new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)));
+		assertThat(records.get(1).getContact()).isEqualTo(new Contact("Kevin", "Ryan, Jr", "07777777757", null, null));
+		assertThat(records.get(2).getNumber()).isEqualTo(3);
+		assertThat(records.get(2).getContact()).isNull();
+		assertThat(records.get(2).getError()).isEqualTo("Date of birth 03/01/1990 is invalid, as it must be a date (yyyy-mm-dd).");
+	}
+	
+	@Test
+	public void readCsvWithoutContactColumnsTest() {
+		assertThatThrownBy(() -> ContactImportFormat.CSV.open(new StringReader("name,phone\nKate Beckett,07777777777\n")))
+				.isInstanceOf(IOException.class);
+	}
+	
+	@Test
+	public void readVCardTest() throws IOException {
+		String vCards = "BEGIN:VCARD\r\n"
+				+ "VERSION:3.0\r\n"
+				+ "N:Beckett;Kate;;;\r\n"
+				+ "FN:Kate Beckett\r\n"
+				+ "TEL;TYPE=WORK,VOICE:02077777777\r\n"
+				+ "item1.TEL;TYPE=CELL:07777777777\r\n"
+				+ "EMAIL;TYPE=INTERNET:kate.beckett@mycool\r\n"
+				+ " mail.com\r\n"
+				+ "BDAY:19930406\r\n"
+				+ "END:VCARD\r\n"
+				+ "BEGIN:VCARD\r\n"
+				+ "VERSION:4.0\r\n"
+				+ "FN:Richard Alexander Castle\r\n"
+				+ "TEL;VALUE=uri;TYPE=cell:tel:07777777767\r\n"
+				+ "BDAY:1992-03-05\r\n"
+				+ "END:VCARD\r\n"
+				+ "BEGIN:VCARD\r\n"
+				+ "N:Esposito;Javier\r\n"
+				+ "BDAY:--0103\r\n"
+				+ "END:VCARD\r\n";
+		
+		List<ContactImportRecord> records = readAll(ContactImportFormat.VCARD, vCards);
+		
+		assertThat(records).hasSize(3);
+		assertThat(records.get(0).getContact()).isEqualTo(new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)));
+		assertThat(records.get(1).getContact()).isEqualTo(new Contact("Richard Alexander", "Castle", "07777777767", null, LocalDate.of(1992, 3, 5)));
+		assertThat(records.get(2).getNumber()).isEqualTo(3);
+		assertThat(records.get(2).getError()).isEqualTo("Date of birth --0103 is invalid, as it must be a date (yyyy-mm-dd).");
+	}
+	
+	private static List<ContactImportRecord> readAll(ContactImportFormat format, String file) throws IOException {
+		List<ContactImportRecord> records = new ArrayList<>();
+		try (ContactImportReader reader = format.open(new StringReader(file))) {
+			reader.forEachRemaining(records::add);
+		}
+		return records;
+	}
+	
+}
@@ -0,0 +1,99 @@
+package com.qa.contactbookapi.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactDeleteJob;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+
+public class ContactJobRegistryTest {
+
+	private List<ContactDeleteJob> forgotten;
+	
+	private ContactJobRegistry<ContactDeleteJob> registry;
+	
+	@BeforeEach
+	public void init() {
+		ContactBook.bind(ContactBook.DEFAULT);
+		forgotten = new CopyOnWriteArrayList<>();
+		registry = new ContactJobRegistry<>("delete", 1, 1, 1, Duration.ofSeconds(30), forgotten::add);
+	}
+	
+	@AfterEach
+	public void destroy() {
+		ContactBook.bind(null);
+		registry.shutdown();
+	}
+	
+	@Test
+	public void submitRunsJobOnBookTest() throws Exception {
+		ContactDeleteJob job = new ContactDeleteJob(null);
+		CountDownLatch done = new CountDownLatch(1);
+		List<String> books = new CopyOnWriteArrayList<>();
+		
+		registry.submit(job, () -> {
+			books.add(ContactBook.current());
+			done.countDown();
+		});
+		
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(books).containsExactly(ContactBook.DEFAULT);
+		assertThat(registry.fetch(job.getId())).isSameAs(job);
+	}
+	
+	@Test
+	public void fetchJobOfOtherBookTest() {
+		ContactDeleteJob job = registry.submit(new ContactDeleteJob(null), () -> {
+		});
+		ContactBook.bind("other");
+		
+		assertThrows(InvalidJobException.class, () -> registry.fetch(job.getId()));
+	}
+	
+	@Test
+	public void submitTurnsAwayJobsOnceQueueIsFullTest() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Runnable blocked = () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		registry.submit(new ContactDeleteJob(null), blocked);
+		registry.submit(new ContactDeleteJob(null), blocked);
+		ContactDeleteJob rejected = new ContactDeleteJob(null);
+		
+		ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class, () -> registry.submit(rejected, blocked));
+		assertThat(e.getMessage()).isEqualTo("Too many deletes are queued; please retry in 30 second(s).");
+		assertThrows(InvalidJobException.class, () -> registry.fetch(rejected.getId()));
+		release.countDown();
+	}
+	
+	@Test
+	public void submitForgetsOldestFinishedJobsTest() {
+		ContactDeleteJob finished = new ContactDeleteJob(null);
+		finished.complete();
+		registry.submit(finished, () -> {
+		});
+		
+		registry.submit(new ContactDeleteJob(null), () -> {
+		});
+		
+		assertThat(forgotten).containsExactly(finished);
+		assertThrows(InvalidJobException.class, () -> registry.fetch(finished.getId()));
+	}
+	
+}
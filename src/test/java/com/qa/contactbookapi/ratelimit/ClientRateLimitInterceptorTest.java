@@ -0,0 +1,110 @@
+package com.qa.contactbookapi.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import javax.servlet.DispatcherType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.qa.contactbookapi.exceptions.RateLimitedException;
+
+public class ClientRateLimitInterceptorTest {
+
+	private ClientRateLimitInterceptor interceptor;
+
+	private HandlerMethod cheap;
+
+	private HandlerMethod expensive;
+
+	public static class Handlers {
+
+		public void cheap() {
+		}
+
+		@Expensive
+		public void expensive() {
+		}
+
+	}
+
+	@BeforeEach
+	public void init() throws NoSuchMethodException {
+		interceptor = new ClientRateLimitInterceptor(1, 2, 1, 1, 100, Duration.ofMinutes(10));
+		cheap = new HandlerMethod(new Handlers(), Handlers.class.getMethod("cheap"));
+		expensive = new HandlerMethod(new Handlers(), Handlers.class.getMethod("expensive"));
+	}
+
+	@Test
+	public void cheapBudgetTest() {
+		assertThat(preHandle(request("10.0.0.1", null), cheap)).isTrue();
+		assertThat(preHandle(request("10.0.0.1", null), cheap)).isTrue();
+
+		assertThatThrownBy(() -> preHandle(request("10.0.0.1", null), cheap)).isInstanceOf(RateLimitedException.class)
+				.hasMessage("Client has made too many requests; please retry in 1 second(s).");
+	}
+
+	@Test
+	public void expensiveBudgetTest() {
+		assertThat(preHandle(request("10.0.0.1", null), expensive)).isTrue();
+
+		assertThatThrownBy(() -> preHandle(request("10.0.0.1", null), expensive)).isInstanceOf(RateLimitedException.class)
+				.hasMessage("Client has made too many expensive requests; please retry in 1 second(s).");
+		assertThat(preHandle(request("10.0.0.1", null), cheap)).isTrue();
+	}
+
+	@Test
+	public void clientsTest() {
+		preHandle(request("10.0.0.1", null), expensive);
+
+		assertThat(preHandle(request("10.0.0.2", null), expensive)).isTrue();
+		assertThat(preHandle(request("10.0.0.3", "key-1"), expensive)).isTrue();
+		assertThatThrownBy(() -> preHandle(request("10.0.0.4", "key-1"), expensive)).isInstanceOf(RateLimitedException.class);
+	}
+
+	@Test
+	public void apiKeyDoesNotReplaceAddressTest() {
+		preHandle(request("10.0.0.1", null), expensive);
+
+		assertThatThrownBy(() -> preHandle(request("10.0.0.1", "key-1"), expensive)).isInstanceOf(RateLimitedException.class);
+		assertThatThrownBy(() -> preHandle(request("10.0.0.1", "key-2"), expensive)).isInstanceOf(RateLimitedException.class);
+	}
+
+	@Test
+	public void asyncDispatchTest() {
+		preHandle(request("10.0.0.1", null), expensive);
+
+		MockHttpServletRequest dispatch = request("10.0.0.1", null);
+		dispatch.setDispatcherType(DispatcherType.ASYNC);
+		assertThat(preHandle(dispatch, expensive)).isTrue();
+	}
+
+	@Test
+	public void noLimitTest() {
+		interceptor = new ClientRateLimitInterceptor(0, 0, 0, 0, 100, Duration.ofMinutes(10));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(preHandle(request("10.0.0.1", null), expensive)).isTrue();
+		}
+	}
+
+	private boolean preHandle(MockHttpServletRequest request, HandlerMethod handler) {
+		return interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+	}
+
+	private static MockHttpServletRequest request(String remoteAddr, String apiKey) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contact");
+		request.setRemoteAddr(remoteAddr);
+		if (apiKey != null) {
+			request.addHeader(ClientRateLimitInterceptor.API_KEY, apiKey);
+		}
+		return request;
+	}
+
+}
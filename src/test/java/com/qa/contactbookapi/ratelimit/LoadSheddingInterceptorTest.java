@@ -0,0 +1,101 @@
+package com.qa.contactbookapi.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.servlet.DispatcherType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.qa.contactbookapi.exceptions.ServiceOverloadedException;
+
+public class LoadSheddingInterceptorTest {
+
+	private LoadSheddingInterceptor interceptor;
+
+	private HandlerMethod cheap;
+
+	private HandlerMethod expensive;
+
+	private MockHttpServletResponse response;
+
+	public static class Handlers {
+
+		public void cheap() {
+		}
+
+		@Expensive
+		public void expensive() {
+		}
+
+	}
+
+	@BeforeEach
+	public void init() throws NoSuchMethodException {
+		interceptor = new LoadSheddingInterceptor(3, 1, 2);
+		cheap = new HandlerMethod(new Handlers(), Handlers.class.getMethod("cheap"));
+		expensive = new HandlerMethod(new Handlers(), Handlers.class.getMethod("expensive"));
+		response = new MockHttpServletResponse();
+	}
+
+	@Test
+	public void shedTest() {
+		for (int i = 0; i < 3; i++) {
+			interceptor.preHandle(new MockHttpServletRequest(), response, cheap);
+		}
+
+		assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, cheap))
+				.isInstanceOf(ServiceOverloadedException.class)
+				.hasMessage("Service is overloaded; please retry in 2 second(s).");
+		assertThat(interceptor.getRequests()).isEqualTo(3);
+	}
+
+	@Test
+	public void releaseTest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		interceptor.preHandle(request, response, expensive);
+
+		interceptor.afterCompletion(request, response, expensive, null);
+		interceptor.afterCompletion(request, response, expensive, null);
+
+		assertThat(interceptor.getRequests()).isZero();
+		assertThat(interceptor.getExpensiveRequests()).isZero();
+	}
+
+	@Test
+	public void shedExpensiveTest() {
+		interceptor.preHandle(new MockHttpServletRequest(), response, expensive);
+
+		assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, expensive))
+				.isInstanceOf(ServiceOverloadedException.class)
+				.hasMessage("Service is overloaded with expensive requests; please retry in 2 second(s).");
+		assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, cheap)).isTrue();
+		assertThat(interceptor.getRequests()).isEqualTo(2);
+		assertThat(interceptor.getExpensiveRequests()).isEqualTo(1);
+	}
+
+	@Test
+	public void asyncTest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAsyncSupported(true);
+		interceptor.preHandle(request, response, expensive);
+		MockAsyncContext asyncContext = (MockAsyncContext) request.startAsync();
+		interceptor.afterConcurrentHandlingStarted(request, response, expensive);
+
+		request.setDispatcherType(DispatcherType.ASYNC);
+		interceptor.preHandle(request, response, expensive);
+		assertThat(interceptor.getRequests()).isEqualTo(1);
+
+		asyncContext.complete();
+		assertThat(interceptor.getRequests()).isZero();
+		interceptor.afterCompletion(request, response, expensive, null);
+		assertThat(interceptor.getRequests()).isZero();
+		assertThat(interceptor.getExpensiveRequests()).isZero();
+	}
+
+}
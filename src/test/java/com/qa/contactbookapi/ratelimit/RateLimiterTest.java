@@ -0,0 +1,55 @@
+package com.qa.contactbookapi.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+	private AtomicLong nanos;
+	
+	private RateLimiter rateLimiter;
+	
+	@BeforeEach
+	public void init() {
+		nanos = new AtomicLong();
+		rateLimiter = new RateLimiter(10, 3, nanos::get);
+	}
+	
+	@Test
+	public void burstTest() {
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ZERO);
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ZERO);
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ZERO);
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ofMillis(100));
+	}
+	
+	@Test
+	public void refillTest() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire();
+		}
+		
+		nanos.addAndGet(Duration.ofMillis(40).toNanos());
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ofMillis(60));
+		
+		nanos.addAndGet(Duration.ofMillis(60).toNanos());
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ZERO);
+		assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ofMillis(100));
+	}
+	
+	@Test
+	public void idleDoesNotExceedBurstTest() {
+		nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+		
+		for (int i = 0; i < 3; i++) {
+			assertThat(rateLimiter.tryAcquire()).isEqualTo(Duration.ZERO);
+		}
+		assertThat(rateLimiter.tryAcquire()).isPositive();
+	}
+	
+}
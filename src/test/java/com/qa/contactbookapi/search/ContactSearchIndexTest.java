@@ -0,0 +1,148 @@
+package com.qa.contactbookapi.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.entity.Contact;
+
+public class ContactSearchIndexTest {
+
+	private ContactSearchIndex contactSearchIndex;
+	
+	private ContactSearchHit kateBeckett;
+	private ContactSearchHit richardCastle;
+	private ContactSearchHit kevinRyan;
+	private ContactSearchHit kateBeck;
+	
+	@BeforeEach
+	public void init() {
+		contactSearchIndex = new ContactSearchIndex();
+		contactSearchIndex.putAll(List.of(
+				new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
+				new Contact(2L, "Richard", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)),
+				new Contact(3L, "Kevin", "Ryan", "07777777757", "kevin.ryan@mygoodmail.com", LocalDate.of(1991, 2, 4)),
+				new Contact(4L, "Kate", "Beck", "07777777747", "kate.beck@mycoolmail.com", LocalDate.of(1990, 1, 3))
+		));
+		
+		kateBeckett = new ContactSearchHit(1L, "Kate", "Beckett");
+		richardCastle = new ContactSearchHit(2L, "Richard", "Castle");
+		kevinRyan = new ContactSearchHit(3L, "Kevin", "Ryan");
+		kateBeck = new ContactSearchHit(4L, "Kate", "Beck");
+	}
+	
+	@Test
+	public void searchExactBeforePrefixTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "beck", 10)).containsExactly(kateBeck, kateBeckett);
+	}
+	
+	@Test
+	public void searchPrefixCaseInsensitiveTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "RICH", 10)).containsExactly(richardCastle);
+	}
+	
+	@Test
+	public void searchAccentInsensitiveTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "Kévin", 10)).containsExactly(kevinRyan);
+	}
+	
+	@Test
+	public void searchWithTypoTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "Castel", 10)).containsExactly(richardCastle);
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "Ricahrd", 10)).containsExactly(richardCastle);
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "Rcih", 10)).containsExactly(richardCastle);
+	}
+	
+	@Test
+	public void searchWithTypoOnlyWithoutExactOrPrefixMatchTest() {
+		contactSearchIndex.put(new Contact(5L, "Kate", "Bekc", "07777777737", "kate.bekc@mycoolmail.com", LocalDate.of(1989, 12, 2)));
+		
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "beck", 10)).containsExactly(kateBeck, kateBeckett);
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "beckt", 10)).containsExactly(kateBeck, kateBeckett);
+	}
+	
+	@Test
+	public void searchEveryTermTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "kate beckett", 10)).containsExactly(kateBeckett);
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "kev beck", 10)).isEmpty();
+	}
+	
+	@Test
+	public void searchLimitTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "kate", 1)).containsExactly(kateBeckett);
+	}
+	
+	@Test
+	public void searchNoMatchTest() {
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "zz", 10)).isEmpty();
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, " - ", 10)).isEmpty();
+	}
+	
+	@Test
+	public void putRenamedContactTest() {
+		contactSearchIndex.put(new Contact(2L, "Rick", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)));
+		
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "richard", 10)).isEmpty();
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "rick", 10)).containsExactly(new ContactSearchHit(2L, "Rick", "Castle"));
+	}
+	
+	@Test
+	public void removeTest() {
+		contactSearchIndex.remove(4L);
+		
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "beck", 10)).containsExactly(kateBeckett);
+		assertThat(contactSearchIndex.size()).isEqualTo(3);
+	}
+	
+	@Test
+	public void searchOtherBookTest() {
+		Contact otherBookContact = new Contact(5L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6));
+		otherBookContact.setBook("precinct-12");
+		contactSearchIndex.put(otherBookContact);
+		
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "beckett", 10)).containsExactly(kateBeckett);
+		assertThat(contactSearchIndex.search("precinct-12", "beckett", 10)).containsExactly(new ContactSearchHit(5L, "Kate", "Beckett"));
+		assertThat(contactSearchIndex.search("precinct-12", "bekcett", 10)).containsExactly(new ContactSearchHit(5L, "Kate", "Beckett"));
+		assertThat(contactSearchIndex.search("precinct-12", "castle", 10)).isEmpty();
+		
+		contactSearchIndex.remove(5L);
+		
+		assertThat(contactSearchIndex.search("precinct-12", "beckett", 10)).isEmpty();
+		assertThat(contactSearchIndex.size()).isEqualTo(4);
+	}
+	
+	@Test
+	public void loadDoesNotOverrideWritesTest() {
+		contactSearchIndex.beginLoading();
+		contactSearchIndex.remove(3L);
+		contactSearchIndex.put(new Contact(2L, "Rick", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)));
+		contactSearchIndex.load(new Contact(2L, "Richard", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)));
+		contactSearchIndex.load(new Contact(3L, "Kevin", "Ryan", "07777777757", "kevin.ryan@mygoodmail.com", LocalDate.of(1991, 2, 4)));
+		contactSearchIndex.load(new Contact(5L, "Javier", "Esposito", "07777777737", "javier.esposito@mygoodmail.com", LocalDate.of(1989, 12, 2)));
+		contactSearchIndex.endLoading();
+		
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "richard", 10)).isEmpty();
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "kevin", 10)).isEmpty();
+		assertThat(contactSearchIndex.search(ContactBook.DEFAULT, "javier", 10)).containsExactly(new ContactSearchHit(5L, "Javier", "Esposito"));
+	}
+	
+	@Test
+	public void prefixEditsTest() {
+		assertThat(ContactSearchIndex.prefixEdits("bekc", "beckett", 1)).isEqualTo(1);
+		assertThat(ContactSearchIndex.prefixEdits("castel", "castle", 2)).isEqualTo(1);
+		assertThat(ContactSearchIndex.prefixEdits("ryan", "castle", 1)).isGreaterThan(1);
+	}
+	
+	@Test
+	public void tokenizeTest() {
+		assertThat(ContactSearchIndex.tokenize("Mary-Ann O'Brien")).containsExactly("mary", "ann", "obrien");
+		assertThat(ContactSearchIndex.tokenize("José")).containsExactly("jose");
+	}
+	
+}
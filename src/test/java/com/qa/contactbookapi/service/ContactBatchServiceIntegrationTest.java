@@ -0,0 +1,103 @@
+package com.qa.contactbookapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.transaction.Transactional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactBatchItemResult;
+import com.qa.contactbookapi.data.dto.ContactBatchItemStatus;
+import com.qa.contactbookapi.data.dto.ContactBatchResult;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactRepository;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+
+// Runs against its own in-memory database, so that the IDs it consumes do not shift the IDs expected by other tests.
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:batchTestDB", "contactbook.batch.max-contacts=5" })
+@Transactional
+public class ContactBatchServiceIntegrationTest {
+
+	@Autowired
+	private ContactBatchService contactBatchService;
+	
+	@Autowired
+	private ContactRepository contactRepository;
+	
+	@BeforeEach
+	public void bindBook() {
+		ContactBook.bind(ContactBook.DEFAULT);
+	}
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
+	@Test
+	public void generateAllContactsTest() {
+		List<Contact> contactsToCreate = List.of(
+				new Contact("Katie", "Brockett", "08777777777", "katie.brockett@mycoolmail.com", LocalDate.of(1983, 2, 1)),
+				new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
+				new Contact("J", "Esposito", "07777777747", "javier.esposito@mygoodmail.com", LocalDate.of(1990, 1, 3)),
+				new Contact("Lanie", "Parish", "07777777737", "lanie.parish@mygoodmail.com", LocalDate.of(1989, 12, 2)),
+				new Contact("Katie", "Brockett", "08777777778", "katie.brockett@mycoolmail.com", LocalDate.of(1983, 2, 1))
+		);
+		
+		ContactBatchResult result = contactBatchService.generateAll(contactsToCreate.iterator());
+		List<ContactBatchItemResult> items = result.getItems();
+		
+		assertThat(result.getCreated()).isEqualTo(2);
+		assertThat(result.getDuplicates()).isEqualTo(2);
+		assertThat(result.getInvalid()).isEqualTo(1);
+		
+		assertThat(items.get(0).getStatus()).isEqualTo(ContactBatchItemStatus.CREATED);
+		assertThat(items.get(1).getStatus()).isEqualTo(ContactBatchItemStatus.DUPLICATE);
+		assertThat(items.get(2)).isEqualTo(ContactBatchItemResult.invalid(2, "firstName: First name must be provided."));
+		assertThat(items.get(3).getStatus()).isEqualTo(ContactBatchItemStatus.CREATED);
+		assertThat(items.get(4).getStatus()).isEqualTo(ContactBatchItemStatus.DUPLICATE);
+		
+		Contact persistedContact = contactRepository.findById(items.get(3).getId()).orElseThrow();
+		assertThat(persistedContact.getFirstName()).isEqualTo("Lanie");
+		assertThat(persistedContact.getLastName()).isEqualTo("Parish");
+		assertThat(persistedContact.getDateOfBirth()).isEqualTo(LocalDate.of(1989, 12, 2));
+	}
+	
+	@Test
+	public void generateAllContactsTooManyTest() {
+		List<Contact> contactsToCreate = List.of(
+				new Contact("Roy", "Montgomery", "07777777727", "roy.montgomery@mycoolmail.com", LocalDate.of(1960, 8, 12)),
+				new Contact("Martha", "Rodgers", "07777777717", "martha.rodgers@mycoolmail.com", LocalDate.of(1950, 3, 4)),
+				new Contact("Alexis", "Castle", "07777777707", "alexis.castle@mycoolmail.com", LocalDate.of(1994, 10, 9)),
+				new Contact("Victoria", "Gates", "07777777697", "victoria.gates@mycoolmail.com", LocalDate.of(1965, 6, 6)),
+				new Contact("Kevin", "Ryan", "07777777687", "kevin.ryan@mycoolmail.com", LocalDate.of(1982, 7, 7)),
+				new Contact("Jenny", "Ryan", "07777777677", "jenny.ryan@mycoolmail.com", LocalDate.of(1984, 8, 8))
+		);
+		
+		assertThatThrownBy(() -> contactBatchService.generateAll(contactsToCreate.iterator()))
+				.isInstanceOf(InvalidRequestParameterException.class)
+				.hasMessage("Batch is too large, as it may hold at most 5 contacts.");
+		assertThat(contactRepository.findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, "Castle", "Alexis")).isNull();
+	}
+	
+	@Test
+	public void generateChunkKeepsRequestIndexesTest() {
+		List<Contact> chunk = List.of(
+				new Contact("Richard", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)));
+		
+		List<ContactBatchItemResult> items = contactBatchService.generateChunk(chunk, 500);
+		
+		assertThat(items).containsExactly(ContactBatchItemResult.duplicate(500, "Contact with first name Richard and last name Castle is a duplicate."));
+	}
+	
+}
@@ -0,0 +1,144 @@
+package com.qa.contactbookapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookQuota;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactBatchItemResult;
+import com.qa.contactbookapi.data.dto.ContactChange;
+import com.qa.contactbookapi.data.dto.ContactChangeType;
+import com.qa.contactbookapi.data.dto.ContactDeleteFilter;
+import com.qa.contactbookapi.data.dto.ContactDeleteJob;
+import com.qa.contactbookapi.data.dto.ContactJobStatus;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactRepository;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.search.ContactSearchIndex;
+
+// Runs against its own in-memory database, and outside of a test transaction, as the deletes run on their own threads.
+// Each test works on a book of its own; a chunk size of 2 makes the deletes below span several chunks.
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:deleteTestDB", "contactbook.delete.chunk-size=2" })
+public class ContactDeleteServiceIntegrationTest {
+
+	@Autowired
+	private ContactDeleteService contactDeleteService;
+
+	@Autowired
+	private ContactBatchService contactBatchService;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ContactBookQuota contactBookQuota;
+
+	@Autowired
+	private ContactSearchIndex contactSearchIndex;
+
+	@Autowired
+	private ContactChangeFeed contactChangeFeed;
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
+	@Test
+	public void removeAllContactsTest() throws Exception {
+		ContactBook.bind("delete-all");
+		List<Long> ids = generateContacts();
+
+		ContactDeleteJob job = awaitCompletion(contactDeleteService.submitAll());
+
+		assertThat(job.getStatus()).isEqualTo(ContactJobStatus.COMPLETED);
+		assertThat(job.getExpected()).isEqualTo(5L);
+		assertThat(job.getRemoved()).isEqualTo(5);
+		assertThat(job.getChunks()).isEqualTo(3);
+		assertThat(contactRepository.findByBookOrderById("delete-all")).isEmpty();
+		assertThat(contactBookQuota.count("delete-all")).isZero();
+		assertThat(contactSearchIndex.search("delete-all", "Castle", 10)).isEmpty();
+		assertThat(contactChangeFeed.read("delete-all", 0, 1000).getChanges().stream()
+				.filter(change -> change.getType() == ContactChangeType.REMOVED).map(ContactChange::getContactId))
+				.containsExactlyElementsOf(ids);
+	}
+
+	@Test
+	public void removeContactsByIdTest() throws Exception {
+		ContactBook.bind("delete-ids");
+		List<Long> ids = generateContacts();
+
+		ContactDeleteJob job = awaitCompletion(contactDeleteService.submit(
+				new ContactDeleteFilter(List.of(ids.get(4), ids.get(0), ids.get(2), ids.get(0), ids.get(4) + 1000), null, null, null, null)));
+
+		assertThat(job.getStatus()).isEqualTo(ContactJobStatus.COMPLETED);
+		assertThat(job.getExpected()).isEqualTo(4L);
+		assertThat(job.getRemoved()).isEqualTo(3);
+		assertThat(job.getChunks()).isEqualTo(2);
+		assertThat(contactRepository.findByBookOrderById("delete-ids").stream().map(Contact::getId))
+				.containsExactly(ids.get(1), ids.get(3));
+		assertThat(contactBookQuota.count("delete-ids")).isEqualTo(2);
+	}
+
+	@Test
+	public void removeContactsByFilterTest() throws Exception {
+		ContactBook.bind("delete-filter");
+		generateContacts();
+
+		ContactDeleteJob job = awaitCompletion(contactDeleteService.submit(
+				new ContactDeleteFilter(null, "Castle", null, null, LocalDate.of(1995, 1, 1))));
+
+		assertThat(job.getStatus()).isEqualTo(ContactJobStatus.COMPLETED);
+		assertThat(job.getExpected()).isNull();
+		assertThat(job.getRemoved()).isEqualTo(2);
+		assertThat(contactRepository.findByBookOrderById("delete-filter").stream().map(Contact::getFirstName))
+				.containsExactly("Kate", "Kevin", "Alexis");
+		assertThat(contactBookQuota.count("delete-filter")).isEqualTo(3);
+	}
+
+	@Test
+	public void removeContactsByEmptyFilterTest() {
+		assertThatThrownBy(() -> contactDeleteService.submit(new ContactDeleteFilter())).isInstanceOf(InvalidRequestParameterException.class)
+				.hasMessage("Filter is invalid, as it must hold at least one criterion.");
+	}
+
+	@Test
+	public void fetchJobOfOtherBookTest() throws Exception {
+		ContactBook.bind("delete-other");
+		ContactDeleteJob job = awaitCompletion(contactDeleteService.submitAll());
+		ContactBook.bind(ContactBook.DEFAULT);
+
+		assertThatThrownBy(() -> contactDeleteService.fetchJob(job.getId())).isInstanceOf(InvalidJobException.class)
+				.hasMessage("Job " + job.getId() + " does not exist.");
+	}
+
+	private List<Long> generateContacts() {
+		return contactBatchService.generateAll(List.of(
+				new Contact("Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
+				new Contact("Richard", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)),
+				new Contact("Kevin", "Ryan", "07777777757", "kevin.ryan@mygoodmail.com", LocalDate.of(1991, 2, 4)),
+				new Contact("Martha", "Castle", "07777777707", "martha.rodgers@mygoodmail.com", LocalDate.of(1958, 1, 2)),
+				new Contact("Alexis", "Castle", "07777777797", "alexis.castle@mygreatmail.com", LocalDate.of(2000, 10, 11))
+		).iterator()).getItems().stream().map(ContactBatchItemResult::getId).collect(Collectors.toList());
+	}
+
+	private static ContactDeleteJob awaitCompletion(ContactDeleteJob job) throws InterruptedException {
+		for (int i = 0; i < 500 && !job.isDone(); i++) {
+			Thread.sleep(20);
+		}
+		return job;
+	}
+
+}
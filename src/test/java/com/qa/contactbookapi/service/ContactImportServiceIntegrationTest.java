@@ -0,0 +1,99 @@
+package com.qa.contactbookapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactImportJob;
+import com.qa.contactbookapi.data.dto.ContactJobStatus;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactRepository;
+import com.qa.contactbookapi.exceptions.InvalidJobException;
+import com.qa.contactbookapi.imports.ContactImportFormat;
+
+// Runs against its own in-memory database, and outside of a test transaction, as the imports run on their own threads.
+// A chunk size of 2 makes the imports below span several chunks.
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:importTestDB", "contactbook.batch.chunk-size=2" })
+public class ContactImportServiceIntegrationTest {
+
+	@Autowired
+	private ContactImportService contactImportService;
+	
+	@Autowired
+	private ContactRepository contactRepository;
+	
+	@BeforeEach
+	public void bindBook() {
+		ContactBook.bind(ContactBook.DEFAULT);
+	}
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
+	@Test
+	public void importCsvTest() throws Exception {
+		String csv = "firstName,lastName,mobileNumber,emailAddress,dateOfBirth\n"
+				+ "Roy,Montgomery,07777777717,roy.montgomery@mygoodmail.com,1960-05-04\n"
+				+ "Richard,Castle,07777777767,richard.castle@mygreatmail.com,1992-03-05\n"
+				+ "V,Gates,07777777727,victoria.gates@mygoodmail.com,1965-07-08\n"
+				+ "Martha,Rodgers,07777777707,martha.rodgers@mygoodmail.com,not a date\n"
+				+ "Alexis,Castle,07777777797,alexis.castle@mygreatmail.com,2000-10-11\n";
+		
+		ContactImportJob job = awaitCompletion(contactImportService.submit(ContactImportFormat.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+		
+		assertThat(job.getStatus()).isEqualTo(ContactJobStatus.COMPLETED);
+		assertThat(job.getProcessed()).isEqualTo(5);
+		assertThat(job.getCreated()).isEqualTo(2);
+		assertThat(job.getDuplicates()).isEqualTo(1);
+		assertThat(job.getInvalid()).isEqualTo(2);
+		assertThat(contactRepository.findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, "Montgomery", "Roy").getDateOfBirth())
+				.isEqualTo(LocalDate.of(1960, 5, 4));
+		
+		List<String> errors = Files.readAllLines(contactImportService.fetchErrorFile(job.getId()));
+		assertThat(errors).containsExactly("record,status,message",
+				"2,DUPLICATE,Contact with first name Richard and last name Castle is a duplicate.",
+				"4,INVALID,\"Date of birth not a date is invalid, as it must be a date (yyyy-mm-dd).\"",
+				"3,INVALID,firstName: First name must be provided.");
+	}
+	
+	@Test
+	public void importMalformedCsvTest() throws Exception {
+		String csv = "name,phone\nKate Beckett,07777777777\n";
+		
+		ContactImportJob job = awaitCompletion(contactImportService.submit(ContactImportFormat.CSV,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+		
+		assertThat(job.getStatus()).isEqualTo(ContactJobStatus.FAILED);
+		assertThat(job.getError()).startsWith("CSV header must name the columns");
+	}
+	
+	@Test
+	public void fetchUnknownJobTest() {
+		assertThatThrownBy(() -> contactImportService.fetchJob("unknown")).isInstanceOf(InvalidJobException.class)
+				.hasMessage("Job unknown does not exist.");
+	}
+	
+	private static ContactImportJob awaitCompletion(ContactImportJob job) throws InterruptedException {
+		for (int i = 0; i < 500 && !job.isDone(); i++) {
+			Thread.sleep(20);
+		}
+		return job;
+	}
+	
+}
@@ -0,0 +1,64 @@
+package com.qa.contactbookapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import javax.transaction.Transactional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.exceptions.DuplicateContactException;
+
+// Runs against its own in-memory database, as rejected inserts still consume IDs expected by other tests.
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:duplicateTestDB")
+@Transactional
+public class ContactServiceDuplicateIntegrationTest {
+
+	@Autowired
+	private ContactService contactService;
+	
+	@BeforeEach
+	public void bindBook() {
+		ContactBook.bind(ContactBook.DEFAULT);
+	}
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
+	@Test
+	public void generateDuplicateContactTest() {
+		Contact duplicateContact = new Contact("Kate", "Beckett", "08777777777", "katie.brockett@mycoolmail.com", LocalDate.of(1983, 2, 1));
+		
+		DuplicateContactException e = Assertions.assertThrows(DuplicateContactException.class, () -> {
+			contactService.generate(duplicateContact);
+		});
+		
+		String expected = "Contact with first name " + duplicateContact.getFirstName() + " and last name " + duplicateContact.getLastName()
+				+ " is a duplicate; thus, a new contact with the same names will not be created.";
+		assertThat(e.getMessage()).isEqualTo(expected);
+	}
+	
+	@Test
+	public void editContactByIdDuplicateTest() {
+		Contact contactToEdit = new Contact("Kate", "Beckett", "08777777777", "katie.brockett@mycoolmail.com", LocalDate.of(1983, 2, 1));
+		
+		DuplicateContactException e = Assertions.assertThrows(DuplicateContactException.class, () -> {
+			contactService.editById(2L, contactToEdit);
+		});
+		
+		String expected = "Cannot edit contact with ID 2 , as contact with first name Kate and last name Beckett already exists.";
+		assertThat(e.getMessage()).isEqualTo(expected);
+	}
+	
+}
@@ -6,18 +6,24 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.transaction.Transactional;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.data.dto.ContactPatch;
 import com.qa.contactbookapi.data.entity.Contact;
 import com.qa.contactbookapi.data.repository.ContactRepository;
 import com.qa.contactbookapi.exceptions.InvalidContactException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
 
 
 @SpringBootTest
@@ -41,6 +47,7 @@ public class ContactServiceIntegrationTest {
 	
 	@BeforeEach
 	public void init() {
+		ContactBook.bind(ContactBook.DEFAULT);
 		List<Contact> contactsList = List.of(
 				new Contact(1L, "Kate", "Beckett", "07777777777", "kate.beckett@mycoolmail.com", LocalDate.of(1993, 4, 6)),
 				new Contact(2L, "Richard", "Castle", "07777777767", "richard.castle@mygreatmail.com", LocalDate.of(1992, 3, 5)),
@@ -59,11 +66,34 @@ public class ContactServiceIntegrationTest {
 		followingNewElementId = contactsInDatabase.get(sizeContacts - 1).getId() + 1;
 	}
 	
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
+	}
+
 	@Test
 	public void fetchAllContactsTest() {
 		assertThat(contactsInDatabase).isEqualTo(contactService.fetchAll());
 	}
 	
+	@Test
+	public void fetchPageTest() {
+		Slice<Contact> firstPage = contactService.fetchPage(0L, 2);
+		assertThat(firstPage.getContent()).isEqualTo(contactsInDatabase.subList(0, 2));
+		assertThat(firstPage.hasNext()).isTrue();
+		
+		Slice<Contact> lastPage = contactService.fetchPage(contactsInDatabase.get(1).getId(), 2);
+		assertThat(lastPage.getContent()).isEqualTo(contactsInDatabase.subList(2, 3));
+		assertThat(lastPage.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void streamAllContactsTest() {
+		List<Contact> streamedContacts = new ArrayList<>();
+		contactService.streamAll(streamedContacts::add);
+		assertThat(streamedContacts).isEqualTo(contactsInDatabase);
+	}
+	
 	@Test
 	public void fetchContactByIdTest() {
 		assertThat(contactService.fetchById(idFirstSavedContact)).isEqualTo(firstSavedContact);
@@ -137,20 +167,36 @@ public class ContactServiceIntegrationTest {
 	}
 	
 	@Test
-	public void removeContactTest() {
+	public void patchContactByIdTest() {
 		
-		contactService.remove(idFirstSavedContact);
+		Contact patchValues = new Contact(null, null, "08777777777", null, null);
 		
-		assertThat(contactRepository.findById(idFirstSavedContact)).isEqualTo(Optional.empty());
+		Contact actual = contactService.patchById(idFirstSavedContact, new ContactPatch(Set.of("mobileNumber"), patchValues));
+		
+		Contact expected = new Contact(idFirstSavedContact, firstSavedContact.getFirstName(), firstSavedContact.getLastName(),
+				"08777777777", firstSavedContact.getEmailAddress(), firstSavedContact.getDateOfBirth());
+		assertThat(actual).isEqualTo(expected);
 	}
 	
 	@Test
-	public void removeAllContactTest() {
-		List<Contact> emptyList = new ArrayList<Contact>();
+	public void patchContactInvalidValueTest() {
+		
+		Contact patchValues = new Contact(null, null, null, null, null);
+		ContactPatch patch = new ContactPatch(Set.of("firstName", "emailAddress"), patchValues);
 		
-		contactService.removeAll();
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			contactService.patchByLastNameAndFirstName(firstSavedContact.getLastName(), firstSavedContact.getFirstName(), patch);
+		});
 		
-		assertThat(contactRepository.findAll()).isEqualTo(emptyList);
+		assertThat(e.getMessage()).isEqualTo("Patch is invalid: firstName: must not be null");
+	}
+	
+	@Test
+	public void removeContactTest() {
+		
+		contactService.remove(idFirstSavedContact);
+		
+		assertThat(contactRepository.findById(idFirstSavedContact)).isEqualTo(Optional.empty());
 	}
 	
 }
\ No newline at end of file
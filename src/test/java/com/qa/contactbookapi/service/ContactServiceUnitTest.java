@@ -3,27 +3,52 @@ package com.qa.contactbookapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.qa.contactbookapi.books.ContactBook;
+import com.qa.contactbookapi.books.ContactBookQuota;
+import com.qa.contactbookapi.cache.ContactCache;
+import com.qa.contactbookapi.changes.ContactChangeFeed;
+import com.qa.contactbookapi.data.dto.ContactFields;
+import com.qa.contactbookapi.data.dto.ContactSearchHit;
+import com.qa.contactbookapi.data.dto.ContactVersion;
 import com.qa.contactbookapi.data.entity.Contact;
+import com.qa.contactbookapi.data.repository.ContactFieldsRepository;
 import com.qa.contactbookapi.data.repository.ContactRepository;
 
+import com.qa.contactbookapi.exceptions.BookQuotaExceededException;
 import com.qa.contactbookapi.exceptions.DuplicateContactException;
 import com.qa.contactbookapi.exceptions.InvalidContactException;
+import com.qa.contactbookapi.exceptions.InvalidRequestParameterException;
+import com.qa.contactbookapi.exceptions.StaleContactException;
+import com.qa.contactbookapi.search.ContactSearchIndex;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +56,25 @@ public class ContactServiceUnitTest {
 
 	@Mock
 	private ContactRepository contactRepository;
+	
+	@Mock
+	private ContactCache contactCache;
+	
+	@Mock
+	private ContactSearchIndex contactSearchIndex;
+	
+	@Mock
+	private ContactFieldsRepository contactFieldsRepository;
+	
+	@Mock
+	private ContactChangeFeed contactChangeFeed;
+	
+	@Mock
+	private ContactBookQuota contactBookQuota;
+
+	// Runs its callbacks against a mock transaction manager.
+	@Spy
+	private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
 	@InjectMocks
 	private ContactService contactService;
@@ -65,26 +109,126 @@ public class ContactServiceUnitTest {
 		
 		nonExistentId = 55;
 		
+		ContactBook.bind(ContactBook.DEFAULT);
+	}
+
+	@AfterEach
+	public void unbindBook() {
+		ContactBook.bind(null);
 	}
 
 	@Test
 	public void fetchAllContactsTest() {
-		when(contactRepository.findAll()).thenReturn(contactsList);
+		when(contactRepository.findByBookOrderById(ContactBook.DEFAULT)).thenReturn(contactsList);
 		assertThat(contactService.fetchAll()).isEqualTo(contactsList);
-		verify(contactRepository).findAll();
+		verify(contactRepository).findByBookOrderById(ContactBook.DEFAULT);
 	}
 
+	@Test
+	public void fetchPageTest() {
+		Slice<Contact> page = new SliceImpl<Contact>(contactsList.subList(1, 3));
+		PageRequest pageRequest = PageRequest.of(0, 2, Sort.by("id"));
+		
+		when(contactRepository.findByBookAndIdGreaterThan(ContactBook.DEFAULT, 1L, pageRequest)).thenReturn(page);
+		assertThat(contactService.fetchPage(1L, 2)).isEqualTo(page);
+		verify(contactRepository).findByBookAndIdGreaterThan(ContactBook.DEFAULT, 1L, pageRequest);
+	}
+
+	@Test
+	public void searchTest() {
+		List<ContactSearchHit> hits = List.of(new ContactSearchHit(1L, "Kate", "Beckett"));
+		
+		when(contactSearchIndex.search(ContactBook.DEFAULT, "beck", 10)).thenReturn(hits);
+		assertThat(contactService.search("beck", 10)).isEqualTo(hits);
+		verify(contactRepository, never()).findByBookOrderById(ContactBook.DEFAULT);
+	}
+
+	@Test
+	public void fetchByMobileNumberTest() {
+		when(contactRepository.findByBookAndMobileKeyOrderById(ContactBook.DEFAULT, "447777777777")).thenReturn(List.of(expectedContactHavingId));
+		
+		assertThat(contactService.fetchByMobileNumber("07777 777777")).containsExactly(expectedContactHavingId);
+		assertThat(contactService.fetchByMobileNumber("+44 (0)7777-777777")).isEmpty();
+		
+		InvalidRequestParameterException e = Assertions.assertThrows(InvalidRequestParameterException.class, () -> {
+			contactService.fetchByMobileNumber("unknown");
+		});
+		assertThat(e.getMessage()).isEqualTo("Mobile number unknown is invalid, as it must hold digits.");
+	}
+	
+	@Test
+	public void fetchByMobileNumberFieldsTest() {
+		ContactFields fields = new ContactFields(List.of("firstName"));
+		List<Map<String, Object>> contacts = List.of(Map.of("id", expectedContactId, "firstName", "Kate"));
+		
+		when(contactFieldsRepository.findByMobileKey(ContactBook.DEFAULT, fields, "447777777777")).thenReturn(contacts);
+		
+		assertThat(contactService.fetchByMobileNumber("+44 7777 777777", fields)).isEqualTo(contacts);
+		verify(contactRepository, never()).findByBookAndMobileKeyOrderById(ContactBook.DEFAULT, "447777777777");
+	}
+	
+	@Test
+	public void fetchByEmailAddressTest() {
+		when(contactRepository.findByBookAndEmailKeyOrderById(ContactBook.DEFAULT, "kate.beckett@mycoolmail.com")).thenReturn(List.of(expectedContactHavingId));
+		
+		assertThat(contactService.fetchByEmailAddress(" Kate.Beckett@MyCoolMail.com")).containsExactly(expectedContactHavingId);
+		verify(contactRepository, never()).findByBookOrderById(ContactBook.DEFAULT);
+	}
+	
+	@Test
+	public void streamBirthdaysTest() {
+		contactService.streamBirthdays(LocalDate.of(2023, 4, 1), 10, contact -> { });
+		
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 401, 410);
+	}
+	
+	@Test
+	public void streamBirthdaysAcrossYearEndTest() {
+		contactService.streamBirthdays(LocalDate.of(2022, 12, 20), 30, contact -> { });
+		
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 1220, 1231);
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 101, 118);
+	}
+	
+	@Test
+	public void streamBirthdaysEndingOnFebruary28Test() {
+		// Without a 29 February, those born on that day have their birthday on the 28th...
+		contactService.streamBirthdays(LocalDate.of(2023, 2, 20), 9, contact -> { });
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 220, 229);
+		
+		// ...but not in leap years, nor on the day after.
+		contactService.streamBirthdays(LocalDate.of(2024, 2, 20), 9, contact -> { });
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 220, 228);
+		contactService.streamBirthdays(LocalDate.of(2023, 3, 1), 1, contact -> { });
+		verify(contactRepository).streamByBookAndBirthdayKeyBetween(ContactBook.DEFAULT, 301, 301);
+	}
+	
 	@Test
 	public void fetchContactByValidIdTest() {
-		when(contactRepository.findById(expectedContactId)).thenReturn(Optional.of(expectedContactHavingId));
+		when(contactRepository.findByIdAndBook(expectedContactId, ContactBook.DEFAULT)).thenReturn(Optional.of(expectedContactHavingId));
+		assertThat(contactService.fetchById(expectedContactId)).isEqualTo(expectedContactHavingId);
+		verify(contactRepository).findByIdAndBook(expectedContactId, ContactBook.DEFAULT);
+	}
+	
+	@Test
+	public void fetchContactByIdFromCacheTest() {
+		when(contactCache.getById(ContactBook.DEFAULT, expectedContactId)).thenReturn(Optional.of(expectedContactHavingId));
 		assertThat(contactService.fetchById(expectedContactId)).isEqualTo(expectedContactHavingId);
-		verify(contactRepository).findById(expectedContactId);
+		verify(contactRepository, never()).findByIdAndBook(expectedContactId, ContactBook.DEFAULT);
+	}
+	
+	@Test
+	public void fetchContactByIdPopulatesCacheTest() {
+		when(contactCache.stamp()).thenReturn(7L);
+		when(contactRepository.findByIdAndBook(expectedContactId, ContactBook.DEFAULT)).thenReturn(Optional.of(expectedContactHavingId));
+		contactService.fetchById(expectedContactId);
+		verify(contactCache).put(expectedContactHavingId, 7L);
 	}
 	
 	@Test
 	public void fetchContactByInvalidIdTest() {
 
-		when(contactRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+		when(contactRepository.findByIdAndBook(nonExistentId, ContactBook.DEFAULT)).thenReturn(Optional.empty());
 		
 		InvalidContactException e = Assertions.assertThrows(InvalidContactException.class, () -> {
 			contactService.fetchById(nonExistentId);
@@ -96,9 +240,16 @@ public class ContactServiceUnitTest {
 	
 	@Test
 	public void fetchContactByLastNameAndFirstNameTest() {
-		when(contactRepository.findByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(expectedContactHavingId);
+		when(contactRepository.findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(expectedContactHavingId);
+		assertThat(contactService.fetchByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).isEqualTo(expectedContactHavingId);
+		verify(contactRepository).findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
+	}
+	
+	@Test
+	public void fetchContactByLastNameAndFirstNameFromCacheTest() {
+		when(contactCache.getByName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(Optional.of(expectedContactHavingId));
 		assertThat(contactService.fetchByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).isEqualTo(expectedContactHavingId);
-		verify(contactRepository).findByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
+		verify(contactRepository, never()).findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
 	}
 	
 	@Test
@@ -110,6 +261,33 @@ public class ContactServiceUnitTest {
 
 		assertThat(contactService.generate(expectedContactNotHavingId)).isEqualTo(expectedContactHavingId);
 		verify(contactRepository).save(expectedContactNotHavingId);
+		verify(contactBookQuota).reserve(ContactBook.DEFAULT);
+		verify(contactChangeFeed).recordCreated(expectedContactHavingId);
+	}
+	
+	@Test
+	public void generateContactQuotaExceededTest() {
+		
+		expectedContactNotHavingId = new Contact("Richard", "Feynman", "07777777757", "rick.feynman@myquantummail.com", LocalDate.of(1960, 1, 1));
+		
+		doThrow(new BookQuotaExceededException("Book default is full, as it holds at most 3 contacts.")).when(contactBookQuota).reserve(ContactBook.DEFAULT);
+		
+		Assertions.assertThrows(BookQuotaExceededException.class, () -> {
+			contactService.generate(expectedContactNotHavingId);
+		});
+		verify(contactRepository, never()).save(expectedContactNotHavingId);
+	}
+	
+	@Test
+	public void generateContactUnboundBookExceptionTest() {
+		
+		expectedContactNotHavingId = new Contact("Richard", "Feynman", "07777777757", "rick.feynman@myquantummail.com", LocalDate.of(1960, 1, 1));
+		ContactBook.bind(null);
+		
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			contactService.generate(expectedContactNotHavingId);
+		});
+		verify(contactRepository, never()).save(expectedContactNotHavingId);
 	}
 	
 	@Test
@@ -119,27 +297,43 @@ public class ContactServiceUnitTest {
 		String duplicateLastName = duplicateFirstContactNotHavingId.getLastName();
 		String duplicateFirstName = duplicateFirstContactNotHavingId.getFirstName();
 		
-		when (contactRepository.existsByLastNameAndFirstName(duplicateLastName, duplicateFirstName)).thenReturn(true);
+		when(contactRepository.save(duplicateFirstContactNotHavingId)).thenThrow(new DataIntegrityViolationException(
+				"could not execute statement; constraint [\"PUBLIC.UK_CONTACTS_BOOK_LAST_NAME_FIRST_NAME_INDEX_D ON PUBLIC.CONTACTS(BOOK, LAST_NAME, FIRST_NAME) VALUES ('default', '"
+				+ duplicateLastName + "', '" + duplicateFirstName + "')\"]"));
 		
 		DuplicateContactException e = Assertions.assertThrows(DuplicateContactException.class, () -> {
 			contactService.generate(duplicateFirstContactNotHavingId);
 		});
 		
-		String expected = "Contact " + duplicateFirstContactNotHavingId + " is a duplicate; thus, a new contact with the same fields will not be created.";
+		String expected = "Contact with first name " + duplicateFirstContactNotHavingId.getFirstName() + " and last name " + duplicateFirstContactNotHavingId.getLastName()
+				+ " is a duplicate; thus, a new contact with the same names will not be created.";
 		assertThat(e.getMessage()).isEqualTo(expected);
+		verify(contactBookQuota).release(ContactBook.DEFAULT, 1);
+	}
+	
+	@Test
+	public void generateContactOtherIntegrityViolationTest() {
+		
+		expectedContactNotHavingId = new Contact("Richard", "Feynman", null, "rick.feynman@myquantummail.com", LocalDate.of(1960, 1, 1));
+		DataIntegrityViolationException notNullViolation = new DataIntegrityViolationException("NULL not allowed for column \"MOBILE_NUMBER\"");
+		
+		when(contactRepository.save(expectedContactNotHavingId)).thenThrow(notNullViolation);
+		
+		DataIntegrityViolationException e = Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+			contactService.generate(expectedContactNotHavingId);
+		});
+		
+		assertThat(e).isSameAs(notNullViolation);
 	}
 	
 	@Test
 	public void editContactByValidIdTest() {
 		
-		when(contactRepository.existsById(expectedContactId)).thenReturn(true);
-		when(contactRepository.getById(expectedContactId)).thenReturn(expectedContactHavingId);
-		when(contactRepository.save(expectedContactHavingId)).thenReturn(expectedContactHavingId);
+		when(contactRepository.updateContactById(expectedContactId, ContactBook.DEFAULT, expectedContactHavingId)).thenReturn(1);
 		
 		assertThat(contactService.editById(expectedContactId, expectedContactHavingId)).isEqualTo(expectedContactHavingId);
-		verify(contactRepository).existsById(expectedContactId);
-		verify(contactRepository).getById(expectedContactId);
-		verify(contactRepository).save(expectedContactHavingId);
+		verify(contactRepository).updateContactById(expectedContactId, ContactBook.DEFAULT, expectedContactHavingId);
+		verify(contactCache).evict(expectedContactId);
 	}
 
 	@Test
@@ -153,7 +347,7 @@ public class ContactServiceUnitTest {
 				expectedContactHavingId.getEmailAddress(),
 				expectedContactHavingId.getDateOfBirth());
 		
-		when(contactRepository.existsById(nonExistentId)).thenReturn(false);
+		when(contactRepository.updateContactById(nonExistentId, ContactBook.DEFAULT, contactToEdit)).thenReturn(0);
 		
 		InvalidContactException e = Assertions.assertThrows(InvalidContactException.class, () -> {
 			contactService.editById(nonExistentId, contactToEdit);
@@ -161,19 +355,33 @@ public class ContactServiceUnitTest {
 		
 		String expected = "Cannot edit contact with ID " + nonExistentId + " , as it does not exist.";
 		assertThat(e.getMessage()).isEqualTo(expected);
+		verify(contactCache, never()).evict(nonExistentId);
+	}
+	
+	@Test
+	public void editContactByIdDuplicateExceptionTest() {
+		
+		when(contactRepository.updateContactById(expectedContactId, ContactBook.DEFAULT, expectedContactHavingId)).thenThrow(
+				new DataIntegrityViolationException("could not execute statement", new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_CONTACTS_BOOK_LAST_NAME_FIRST_NAME\"")));
+		
+		DuplicateContactException e = Assertions.assertThrows(DuplicateContactException.class, () -> {
+			contactService.editById(expectedContactId, expectedContactHavingId);
+		});
+		
+		String expected = "Cannot edit contact with ID " + expectedContactId + " , as contact with first name "
+				+ firstNameExpectedContactHavingId + " and last name " + lastNameExpectedContactHavingId + " already exists.";
+		assertThat(e.getMessage()).isEqualTo(expected);
+		verify(contactCache, never()).evict(expectedContactId);
 	}
 	
 	@Test
 	public void editContactByValidLastNameAndFirstName() {
 
-		when(contactRepository.existsByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(true);
-		when(contactRepository.findByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(expectedContactHavingId);
-		when(contactRepository.save(expectedContactHavingId)).thenReturn(expectedContactHavingId);
+		when(contactRepository.findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId)).thenReturn(expectedContactHavingId);
 		
 		assertThat(contactService.editByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId, expectedContactHavingId)).isEqualTo(expectedContactHavingId);
-		verify(contactRepository).existsByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
-		verify(contactRepository).findByLastNameAndFirstName(lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
-		verify(contactRepository).save(expectedContactHavingId);
+		verify(contactRepository).findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, lastNameExpectedContactHavingId, firstNameExpectedContactHavingId);
+		verify(contactCache).evict(expectedContactId);
 	}
 
 	@Test
@@ -189,7 +397,7 @@ public class ContactServiceUnitTest {
 				expectedContactHavingId.getEmailAddress(),
 				expectedContactHavingId.getDateOfBirth());
 		
-		when(contactRepository.existsByLastNameAndFirstName(invalidLastName, invalidFirstName)).thenReturn(false);
+		when(contactRepository.findByBookAndLastNameAndFirstName(ContactBook.DEFAULT, invalidLastName, invalidFirstName)).thenReturn(null);
 		
 		InvalidContactException e = Assertions.assertThrows(InvalidContactException.class, () -> {
 			contactService.editByLastNameAndFirstName(invalidLastName, invalidFirstName, invalidContactToEdit);
@@ -201,17 +409,19 @@ public class ContactServiceUnitTest {
 	
 	@Test
 	public void removeContactValidIdTest() {
-		when(contactRepository.existsById(expectedContactId)).thenReturn(true);
+		when(contactRepository.deleteContactById(expectedContactId, ContactBook.DEFAULT)).thenReturn(1);
 		contactService.remove(expectedContactId);
-		verify(contactRepository).existsById(expectedContactId);
-		verify(contactRepository).deleteById(expectedContactId);
+		verify(contactRepository).deleteContactById(expectedContactId, ContactBook.DEFAULT);
+		verify(contactCache).evict(expectedContactId);
+		verify(contactBookQuota).release(ContactBook.DEFAULT, 1);
+		verify(contactChangeFeed).recordRemoved(expectedContactId);
 	
 	}
 	
 	@Test
 	public void removeContactInvalidIdTest() {
 
-		when(contactRepository.existsById(nonExistentId)).thenReturn(false);
+		when(contactRepository.deleteContactById(nonExistentId, ContactBook.DEFAULT)).thenReturn(0);
 		
 		InvalidContactException e = Assertions.assertThrows(InvalidContactException.class, () -> {
 			contactService.remove(nonExistentId);
@@ -222,10 +432,51 @@ public class ContactServiceUnitTest {
 	}
 	
 	@Test
-	public void removeAllContactsTest() {
-		List<Contact> emptyList = new ArrayList<Contact>();
-		contactService.removeAll();
-		assertEquals(contactRepository.findAll(), emptyList);
+	public void editContactByIdStaleVersionTest() {
+		
+		when(contactRepository.updateContactByIdAndVersion(expectedContactId, ContactBook.DEFAULT, 2L, expectedContactHavingId)).thenReturn(0);
+		when(contactRepository.existsByIdAndBook(expectedContactId, ContactBook.DEFAULT)).thenReturn(true);
+		
+		StaleContactException e = Assertions.assertThrows(StaleContactException.class, () -> {
+			contactService.editById(expectedContactId, expectedContactHavingId, new ContactVersion(expectedContactId, 2L));
+		});
+		
+		String expected = "Cannot edit contact with ID " + expectedContactId + " , as it has been modified since it was fetched.";
+		assertThat(e.getMessage()).isEqualTo(expected);
+		verify(contactCache, never()).evict(expectedContactId);
+	}
+	
+	@Test
+	public void editContactByIdExpectedVersionTest() {
+		
+		when(contactRepository.updateContactByIdAndVersion(expectedContactId, ContactBook.DEFAULT, 2L, expectedContactHavingId)).thenReturn(1);
+		
+		Contact actual = contactService.editById(expectedContactId, expectedContactHavingId, new ContactVersion(expectedContactId, 2L));
+		
+		assertThat(actual).isEqualTo(expectedContactHavingId);
+		assertThat(actual.getVersion()).isEqualTo(3L);
+	}
+	
+	@Test
+	public void removeContactStaleVersionTest() {
+		
+		when(contactRepository.deleteContactByIdAndVersion(expectedContactId, ContactBook.DEFAULT, 2L)).thenReturn(0);
+		when(contactRepository.existsByIdAndBook(expectedContactId, ContactBook.DEFAULT)).thenReturn(true);
+		
+		Assertions.assertThrows(StaleContactException.class, () -> {
+			contactService.remove(expectedContactId, new ContactVersion(expectedContactId, 2L));
+		});
+	}
+	
+	@Test
+	public void removeContactMissingWithVersionTest() {
+		
+		when(contactRepository.deleteContactByIdAndVersion(nonExistentId, ContactBook.DEFAULT, 2L)).thenReturn(0);
+		when(contactRepository.existsByIdAndBook(nonExistentId, ContactBook.DEFAULT)).thenReturn(false);
+		
+		Assertions.assertThrows(InvalidContactException.class, () -> {
+			contactService.remove(nonExistentId, new ContactVersion(nonExistentId, 2L));
+		});
 	}
 	
 }